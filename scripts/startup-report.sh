@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+#
+# 시작 시간 비교 리포트
+#
+# 같은 애플리케이션을 4가지 방식으로 띄우고, 첫 요청(GET /api/users)이 성공할 때까지 걸린 시간과
+# 그 시점의 메모리(RSS)를 잼
+#   default : 지금까지의 방식 (java -jar)
+#   lazy    : fast-startup 프로파일 (spring.main.lazy-initialization=true)
+#   aot     : lazy + Spring AOT로 미리 만든 빈 정의 (-Dspring.aot.enabled=true)
+#   aot+cds : aot + 학습 실행(training run)으로 만든 CDS 아카이브 (-XX:SharedArchiveFile)
+#
+# 사용법 (Java 21)
+#   scripts/startup-report.sh                  # H2(test 프로파일)로 외부 DB 없이 비교
+#   PROFILES=prod RUNS=5 scripts/startup-report.sh   # MariaDB가 떠 있을 때 운영 설정으로 비교
+#
+# AOT는 빌드할 때의 프로파일로 빈 구성이 고정되므로 실행할 때와 같은 PROFILES로 빌드함
+# CDS 아카이브는 같은 JDK, 같은 jar 경로에서만 쓰이므로 jar를 풀어 둔 target/startup-report 아래에 만듦
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+MVN=${MVN:-./mvnw}
+PROFILES=${PROFILES:-test}
+RUNS=${RUNS:-3}
+PORT=${PORT:-18080}
+WORK=target/startup-report
+JAR=MySpringBootApp-0.0.1-SNAPSHOT.jar
+APP_ARGS=(--server.port="$PORT" --spring.boot.admin.client.enabled=false)
+
+extract() {
+  rm -rf "$1"
+  java -Djarmode=tools -jar "target/$JAR" extract --destination "$1" > /dev/null
+}
+
+echo "== 빌드 (default)"
+"$MVN" -B -q -DskipTests package
+extract "$WORK/default"
+
+echo "== 빌드 (AOT, 프로파일 $PROFILES,fast-startup)"
+"$MVN" -B -q -Paot -DskipTests package -Daot.profiles="$PROFILES,fast-startup"
+extract "$WORK/aot"
+
+echo "== CDS 학습 실행 (컨텍스트가 뜨면 바로 종료하면서 로드한 클래스를 아카이브로 저장)"
+java -XX:ArchiveClassesAtExit="$WORK/aot/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+  -jar "$WORK/aot/$JAR" --spring.profiles.active="$PROFILES,fast-startup" "${APP_ARGS[@]}" > "$WORK/cds-training.log" 2>&1
+
+# measure <이름> <프로파일> <jar 디렉터리> [JVM 옵션...]
+# 결과: "첫 요청까지 ms  RSS(MB)"
+measure() {
+  local name=$1 profiles=$2 dir=$3
+  shift 3
+  local start pid elapsed rss
+  start=$(date +%s%N)
+  java "$@" -jar "$dir/$JAR" --spring.profiles.active="$profiles" "${APP_ARGS[@]}" > "$WORK/$name.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/api/users"; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "$name 시작 실패, $WORK/$name.log 확인" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  rss=$(awk '/VmRSS/ { printf "%d", $2 / 1024 }' "/proc/$pid/status")
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  echo "$elapsed $rss"
+}
+
+report() {
+  local name=$1
+  shift
+  local total_ms=0 total_rss=0 result ms rss
+  for _ in $(seq "$RUNS"); do
+    result=$(measure "$name" "$@")
+    read -r ms rss <<< "$result"
+    total_ms=$((total_ms + ms))
+    total_rss=$((total_rss + rss))
+  done
+  printf "%-10s %22d %10d\n" "$name" $((total_ms / RUNS)) $((total_rss / RUNS))
+}
+
+echo
+echo "== 결과 (프로파일 $PROFILES, ${RUNS}회 평균)"
+printf "%-10s %22s %10s\n" "mode" "time-to-first-req(ms)" "RSS(MB)"
+report default "$PROFILES" "$WORK/default"
+report lazy "$PROFILES,fast-startup" "$WORK/default"
+report aot "$PROFILES,fast-startup" "$WORK/aot" -Dspring.aot.enabled=true
+report aot+cds "$PROFILES,fast-startup" "$WORK/aot" -Dspring.aot.enabled=true -XX:SharedArchiveFile="$WORK/aot/app.jsa"
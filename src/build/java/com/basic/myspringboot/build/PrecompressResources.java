@@ -0,0 +1,94 @@
+package com.basic.myspringboot.build;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 빌드할 때(prepare-package) 정적 리소스 옆에 .br, .gz 파일을 미리 만들어 둠
+ * 서버는 EncodedResourceResolver로 Accept-Encoding에 맞는 파일을 골라 보내기만 하므로 요청마다 압축하지 않음
+ *
+ * 최고 압축률(brotli 11, gzip 9)로 한 번만 압축하고, 원본보다 작아지지 않으면 만들지 않음
+ * 압축 파일의 수정 시간은 원본과 같게 맞춰서 Last-Modified가 원본과 같게 나가도록 함
+ *
+ * pom.xml의 exec-maven-plugin이 prepare-package에서 소스 파일 그대로 실행함 (컴파일된 클래스가 필요 없음)
+ * java -cp <brotli4j, native jar> PrecompressResources.java target/classes/static target/classes/mobile
+ */
+public class PrecompressResources {
+    // 이미 압축된 형식(png, jpg, woff2 등)은 제외
+    private static final Set<String> EXTENSIONS =
+            Set.of("html", "css", "js", "mjs", "json", "map", "svg", "txt", "xml", "ico", "webmanifest");
+    // 이보다 작은 파일은 헤더가 더 커서 이득이 없음
+    private static final int MIN_SIZE = 256;
+
+    public static void main(String[] args) throws IOException {
+        Brotli4jLoader.ensureAvailability();
+        Encoder.Parameters brotli = new Encoder.Parameters().setQuality(11);
+        int files = 0;
+        long original = 0, br = 0, gz = 0;
+        for (String dir : args) {
+            Path root = Path.of(dir);
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            List<Path> targets;
+            try (Stream<Path> paths = Files.walk(root)) {
+                targets = paths.filter(Files::isRegularFile).filter(PrecompressResources::compressible).toList();
+            }
+            for (Path file : targets) {
+                byte[] bytes = Files.readAllBytes(file);
+                if (bytes.length < MIN_SIZE) {
+                    continue;
+                }
+                FileTime modified = Files.getLastModifiedTime(file);
+                files++;
+                original += bytes.length;
+                br += write(file, ".br", Encoder.compress(bytes, brotli), bytes.length, modified);
+                gz += write(file, ".gz", gzip(bytes), bytes.length, modified);
+            }
+        }
+        System.out.printf("precompressed %d files: %,d bytes -> br %,d bytes, gzip %,d bytes%n", files, original, br, gz);
+    }
+
+    private static boolean compressible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static long write(Path file, String extension, byte[] compressed, int originalSize,
+                              FileTime modified) throws IOException {
+        Path target = file.resolveSibling(file.getFileName() + extension);
+        if (compressed.length >= originalSize) {
+            Files.deleteIfExists(target);
+            return originalSize;
+        }
+        Files.write(target, compressed);
+        Files.setLastModifiedTime(target, modified);
+        return compressed.length;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        try (OutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,84 @@
+package com.basic.myspringboot.actuator;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Hibernate 2차 캐시 영역(region)별 통계 (영역 크기는 hibernate-l2-cache.conf 에서 조정)
+ *
+ * GET    /actuator/l2cache  -> 영역별 hit/miss/put(Hibernate 통계)과 eviction(JCache 통계)
+ * 쿼리 캐시 영역은 처음 사용된 뒤부터 보임
+ * DELETE /actuator/l2cache  -> 모든 영역 비우기
+ *
+ * evictions는 크기 제한(maximum.size)이나 만료로 빠진 항목 수, hit 비율이 낮은데 evictions가 크면 영역이 작은 것
+ */
+@Component
+@Endpoint(id = "l2cache")
+@RequiredArgsConstructor
+public class SecondLevelCacheEndpoint {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, RegionStats> regions() {
+        Statistics statistics = sessionFactory().getStatistics();
+        Map<String, RegionStats> regions = new TreeMap<>();
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).forEach(name -> {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, RegionStats.of(region, evictions(name)));
+            }
+        });
+        return regions;
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        SessionFactory sessionFactory = sessionFactory();
+        sessionFactory.getCache().evictAllRegions();
+        sessionFactory.getStatistics().clear();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    // JCache 통계 MBean (monitoring.statistics = true 인 영역만 등록됨, 없으면 -1)
+    private static long evictions(String cacheName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            Set<ObjectName> names = server.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + cacheName + ",*"), null);
+            for (ObjectName name : names) {
+                return ((Number) server.getAttribute(name, "CacheEvictions")).longValue();
+            }
+        } catch (JMException e) {
+            // 통계를 못 읽어도 나머지 항목은 보여줌
+        }
+        return -1;
+    }
+
+    public record RegionStats(long hits, long misses, long puts, double hitRatio, long evictions) {
+        static RegionStats of(CacheRegionStatistics region, long evictions) {
+            long hits = region.getHitCount();
+            long misses = region.getMissCount();
+            double hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+            return new RegionStats(hits, misses, region.getPutCount(), hitRatio, evictions);
+        }
+    }
+}
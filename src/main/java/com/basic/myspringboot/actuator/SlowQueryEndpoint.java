@@ -0,0 +1,35 @@
+package com.basic.myspringboot.actuator;
+
+import com.basic.myspringboot.datasource.SlowQueryRecorder;
+import com.basic.myspringboot.property.SlowQueryProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET    /actuator/slowqueries          -> 최대 실행 시간이 긴 순으로 myboot.slow-query.top 개
+ * GET    /actuator/slowqueries?top=5    -> 개수 지정
+ * DELETE /actuator/slowqueries          -> 기록 초기화
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+    private final SlowQueryRecorder slowQueryRecorder;
+    private final SlowQueryProperties slowQueryProperties;
+
+    @ReadOperation
+    public List<SlowQueryRecorder.SlowQuery> slowQueries(@Nullable Integer top) {
+        return slowQueryRecorder.top(top != null ? top : slowQueryProperties.getTop());
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueryRecorder.reset();
+    }
+}
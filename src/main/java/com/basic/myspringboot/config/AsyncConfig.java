@@ -0,0 +1,15 @@
+package com.basic.myspringboot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * @Async 메서드를 Spring Boot가 만든 applicationTaskExecutor에서 실행
+ * (spring.threads.virtual.enabled=true 이면 가상 스레드, 아니면 spring.task.execution.pool.* 스레드 풀)
+ *
+ * 시작할 때 정보만 출력하는 DatabaseRunner, MyRunner를 @Async로 돌려서 애플리케이션 시작 시간에서 뺌
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
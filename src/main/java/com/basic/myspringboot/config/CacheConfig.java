@@ -0,0 +1,20 @@
+package com.basic.myspringboot.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 캐시 설정
+ * 실제 캐시 구현체(Caffeine)와 크기, TTL은 application.properties의 spring.cache.* 로 지정함
+ * 캐시 hit/miss/eviction 수는 /actuator/metrics/cache.gets, /actuator/metrics/cache.evictions 로 확인
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    // key: id, value: UserResponse (엔티티가 아닌 값을 바꿀 수 없는 record)
+    public static final String USERS = "users";
+    // key: email, value: id (UserResponse는 USERS 캐시 한 곳에만 저장)
+    public static final String USER_IDS_BY_EMAIL = "userIdsByEmail";
+    // key: id, value: UserVersion (조건부 GET에서 User 전체를 읽지 않고 ETag만 비교할 때 사용)
+    public static final String USER_VERSIONS = "userVersions";
+}
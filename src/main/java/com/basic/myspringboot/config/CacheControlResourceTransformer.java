@@ -0,0 +1,133 @@
+package com.basic.myspringboot.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceTransformer;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * 정적 리소스마다 Cache-Control을 따로 정함
+ *
+ * VersionResourceResolver가 /css/site-{md5}.css 처럼 버전이 붙은 경로로 찾은 리소스는 응답 헤더에 ETag(버전)를 가지고 있음
+ *  - 버전이 붙은 경로: 내용이 바뀌면 URL도 바뀌므로 public, max-age=1년, immutable (브라우저가 다시 확인하지 않음)
+ *  - 그 밖의 경로(html, favicon 등): 짧게(기본 no-cache) 두고 Last-Modified로 다시 확인 -> 바뀌지 않았으면 304
+ * ResourceHttpRequestHandler는 HttpResource의 헤더를 마지막에 응답에 넣기 때문에 핸들러 자체의 캐시 설정보다 우선함
+ */
+class CacheControlResourceTransformer implements ResourceTransformer {
+    private final String versioned;
+    private final String unversioned;
+
+    CacheControlResourceTransformer(CacheControl versioned, CacheControl unversioned) {
+        this.versioned = versioned.getHeaderValue();
+        this.unversioned = unversioned.getHeaderValue();
+    }
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource,
+                              ResourceTransformerChain transformerChain) throws IOException {
+        Resource transformed = transformerChain.transform(request, resource);
+        HttpHeaders headers = new HttpHeaders();
+        if (transformed instanceof HttpResource httpResource) {
+            headers.putAll(httpResource.getResponseHeaders());
+        }
+        headers.setCacheControl(headers.getETag() != null ? versioned : unversioned);
+        return new CacheControlledResource(transformed, headers);
+    }
+
+    // 원래 리소스에 모두 위임하고 응답 헤더만 더함 (파일이면 isFile()/getFile()도 그대로여서 sendfile 가능)
+    private static final class CacheControlledResource extends AbstractResource implements HttpResource {
+        private final Resource delegate;
+        private final HttpHeaders headers;
+
+        private CacheControlledResource(Resource delegate, HttpHeaders headers) {
+            this.delegate = delegate;
+            this.headers = headers;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return headers;
+        }
+
+        @Override
+        public boolean exists() {
+            return delegate.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return delegate.isReadable();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public boolean isFile() {
+            return delegate.isFile();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return delegate.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return delegate.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return delegate.getFile();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return delegate.getInputStream();
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            return delegate.readableChannel();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return delegate.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return delegate.createRelative(relativePath);
+        }
+
+        @Override
+        public String getFilename() {
+            return delegate.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return delegate.getDescription();
+        }
+    }
+}
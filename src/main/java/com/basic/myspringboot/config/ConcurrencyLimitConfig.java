@@ -0,0 +1,59 @@
+package com.basic.myspringboot.config;
+
+import com.basic.myspringboot.limit.AdaptiveConcurrencyLimiter;
+import com.basic.myspringboot.limit.ConcurrencyLimitFilter;
+import com.basic.myspringboot.property.ConcurrencyLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 적응형 동시 처리 제한 (myboot.limit.enabled=true 일 때만)
+ *
+ * myboot.limit.url-patterns 요청을 ConcurrencyLimitFilter가 제한하고, 한도가 차면 503 + Retry-After로 바로 응답
+ * 메트릭 (/actuator/prometheus)
+ *  - http.server.concurrency.limit: 지금 한도 (응답 시간을 보고 min-limit ~ max-limit 사이에서 바뀜)
+ *  - http.server.concurrency.inflight: 지금 처리 중인 요청 수
+ *  - http.server.concurrency.rejected{kind=read|write}: 거절한 요청 수
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "myboot.limit.enabled", havingValue = "true")
+@Slf4j
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties,
+                                                                 MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("동시에 처리할 수 있는 요청 수 한도")
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("지금 처리 중인 요청 수")
+                .register(meterRegistry);
+        log.info("동시 처리 제한: {} (시작 한도 {}, {} ~ {}, 우선 {})", properties.getUrlPatterns(),
+                limiter.getLimit(), properties.getMinLimit(), properties.getMaxLimit(), properties.getPriority());
+        return limiter;
+    }
+
+    // http.server.requests 관측 필터(HIGHEST_PRECEDENCE + 1) 뒤에 두어서 503 응답도 요청 메트릭에 남게 함
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitProperties properties,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limiter, properties.getPriority(), properties.getRetryAfter(),
+                        objectMapper, meterRegistry));
+        registration.setUrlPatterns(properties.getUrlPatterns());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,49 @@
+package com.basic.myspringboot.config;
+
+import com.basic.myspringboot.entity.Customer;
+import com.basic.myspringboot.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * IDENTITY -> SEQUENCE로 바꾼 뒤 기존 id와 충돌하지 않도록 시퀀스를 MAX(id) 뒤로 맞춰 주는 컴포넌트
+ *
+ * - ddl-auto=update는 시퀀스를 1부터 만들기 때문에 이미 레코드가 있는 테이블이면 id가 겹침
+ * - pooled optimizer는 시퀀스 값 v를 받으면 (v - allocationSize + 1) ~ v 범위를 사용하므로
+ *   시퀀스 다음 값이 MAX(id) + allocationSize 이상이어야 안전함
+ * - SmartInitializingSingleton: 모든 싱글톤 빈(EntityManagerFactory 포함, 스키마 생성 완료)이 만들어진 뒤,
+ *   웹 서버가 요청을 받기 전에 실행됨
+ * - spring.main.lazy-initialization=true(fast-startup 프로파일)여도 시작할 때 실행되어야 하므로 @Lazy(false),
+ *   스키마가 먼저 만들어지도록 EntityManagerFactory에 의존
+ * - NEXT VALUE FOR, ALTER SEQUENCE ... RESTART WITH 는 MariaDB(10.3+), H2 모두 지원
+ */
+@Component
+@Lazy(false)
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceAligner implements SmartInitializingSingleton {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        align("users", User.SEQUENCE_NAME, User.ID_ALLOCATION_SIZE);
+        align("customers", Customer.SEQUENCE_NAME, Customer.ID_ALLOCATION_SIZE);
+    }
+
+    private void align(String table, String sequence, int allocationSize) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        Long nextValue = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+        long required = maxId + allocationSize;
+        // 빈 테이블이면 시퀀스 첫 값(1)부터 써도 겹칠 id가 없음
+        if (maxId > 0 && nextValue < required) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + required);
+            log.info("{} 시퀀스를 {} -> {} 로 조정 (MAX(id) = {})", sequence, nextValue, required, maxId);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.basic.myspringboot.config;
+
+import com.basic.myspringboot.json.UserJsonModule;
+import com.basic.myspringboot.property.JsonProperties;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JSON 직렬화 최적화 (myboot.json.optimized=true, 기본값)
+ *
+ * Spring Boot가 만드는 ObjectMapper(REST 응답, NDJSON 스트림, 대량 등록이 모두 사용)에 적용됨
+ *  - BlackbirdModule: getter/생성자 호출을 리플렉션 대신 LambdaMetafactory로 만든 클래스로 (JSON 모양은 그대로)
+ *  - UserJsonModule: User, UserResponse는 필드 이름과 날짜 형식을 미리 만들어 둔 전용 직렬화기로
+ *  - 출력 버퍼 풀: JsonGenerator는 응답 스트림에 바로 쓰면서 중간 버퍼(byte[]/char[])를 풀에서 빌려 씀
+ *    기본 풀은 ThreadLocal이라 요청마다 새 스레드인 가상 스레드 모드에서는 매번 새로 할당하게 되므로
+ *    스레드와 상관없이 공유하는 크기 제한 풀(myboot.json.buffer-pool-size)로 바꿈
+ *
+ * 응답 gzip 압축은 Tomcat이 담당 (server.compression.*, min-response-size 보다 큰 응답만)
+ */
+@Configuration
+@ConditionalOnProperty(name = "myboot.json.optimized", havingValue = "true", matchIfMissing = true)
+public class JsonConfig {
+
+    // Module 타입 빈은 JacksonAutoConfiguration이 ObjectMapper에 등록함
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Module userJsonModule() {
+        return new UserJsonModule();
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sharedJsonBufferPool(JsonProperties properties) {
+        return builder -> builder.factory(JsonFactory.builder()
+                .recyclerPool(JsonRecyclerPools.newBoundedPool(properties.getBufferPoolSize()))
+                .build());
+    }
+}
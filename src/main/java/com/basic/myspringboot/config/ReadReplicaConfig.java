@@ -0,0 +1,110 @@
+package com.basic.myspringboot.config;
+
+import com.basic.myspringboot.datasource.ReadWriteDataSource;
+import com.basic.myspringboot.datasource.ReadYourWritesFilter;
+import com.basic.myspringboot.datasource.ReplicaRoutingDataSource;
+import com.basic.myspringboot.property.ReplicaProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 읽기/쓰기 분리 설정 (myboot.replica.enabled=true 일 때만)
+ *
+ * spring.datasource.*(primary) 로 만든 DataSource를 ReadWriteDataSource로 감쌈
+ *  - readOnly 트랜잭션(조회) -> myboot.replica.pools[*] 의 replica 풀 (풀마다 Hikari 설정 따로)
+ *  - 그 밖의 트랜잭션(저장/수정/삭제) -> primary
+ *  - replica 장애 시 다른 replica, 모두 안 되면 primary
+ *  - 쓰기를 한 클라이언트는 myboot.replica.read-your-writes-window 동안 primary에서 읽음 (ReadYourWritesFilter)
+ *  - open-in-view는 끔 (ReadReplicaEnvironmentPostProcessor)
+ */
+@Configuration
+@ConditionalOnProperty(name = "myboot.replica.enabled", havingValue = "true")
+@Slf4j
+public class ReadReplicaConfig {
+
+    // 가장 안쪽에서 감싸야 SlowQueryConfig, VirtualThreadConfig의 래퍼가 replica 커넥션에도 적용됨
+    // (테스트의 SimulatedDbLatency는 HikariDataSource를 직접 감싸야 하므로 그보다 한 단계 뒤)
+    // 반환 타입이 PriorityOrdered여야 다른 BeanPostProcessor보다 먼저 등록됨
+    @Bean
+    static ReadWriteDataSourcePostProcessor readWriteDataSource(ObjectProvider<ReplicaProperties> properties,
+                                                                ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReadWriteDataSourcePostProcessor(properties, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties properties) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWritesWindow()));
+    }
+
+    // /actuator/health 의 replicas: replica마다 UP/DOWN (replica가 모두 DOWN이어도 primary로 읽으므로 전체 상태는 UP)
+    @Bean
+    public HealthIndicator replicasHealthIndicator(DataSource dataSource) {
+        return new AbstractHealthIndicator() {
+            @Override
+            protected void doHealthCheck(Health.Builder builder) throws Exception {
+                // SlowQueryConfig 등이 바깥에서 감쌌을 수 있으므로 풀어서 찾음
+                if (!dataSource.isWrapperFor(ReadWriteDataSource.class)) {
+                    builder.unknown();
+                    return;
+                }
+                builder.up();
+                dataSource.unwrap(ReadWriteDataSource.class).getReplicas().status()
+                        .forEach((name, up) -> builder.withDetail(name, up ? "UP" : "DOWN"));
+            }
+        };
+    }
+
+    record ReadWriteDataSourcePostProcessor(ObjectProvider<ReplicaProperties> properties,
+                                            ObjectProvider<MeterRegistry> meterRegistry)
+            implements BeanPostProcessor, PriorityOrdered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primary) || bean instanceof ReadWriteDataSource) {
+                return bean;
+            }
+            ReplicaProperties replica = properties.getObject();
+            Map<String, DataSource> pools = new LinkedHashMap<>();
+            List<HikariConfig> configs = replica.getPools();
+            for (int i = 0; i < configs.size(); i++) {
+                HikariDataSource pool = new HikariDataSource();
+                configs.get(i).copyStateTo(pool);
+                if (pool.getPoolName() == null) {
+                    pool.setPoolName("replica-" + i);
+                }
+                pool.setReadOnly(true);
+                // replica가 내려가 있어도 애플리케이션은 시작되게 함 (첫 커넥션 요청에서 실패 -> primary로 대체)
+                pool.setInitializationFailTimeout(-1);
+                // hikaricp_connections_* 메트릭을 pool 태그로 구분해서 기록
+                meterRegistry.ifAvailable(pool::setMetricRegistry);
+                pools.put(pool.getPoolName(), pool);
+            }
+            log.info("DataSource '{}' 읽기/쓰기 분리: replica {}", beanName, pools.keySet());
+            return new ReadWriteDataSource(primary,
+                    new ReplicaRoutingDataSource(primary, pools, replica.getRetryInterval()));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.basic.myspringboot.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * myboot.replica.enabled=true 이면 spring.jpa.open-in-view=false 로 고정 (META-INF/spring.factories에 등록)
+ *
+ * open-in-view는 요청 동안 EntityManager를 열어 두고, EntityManager는 처음 얻은 커넥션을 닫힐 때까지 잡고 있음
+ * (HibernateJpaVendorAdapter의 DELAYED_ACQUISITION_AND_HOLD)
+ * 그래서 요청의 첫 readOnly 트랜잭션이 replica 커넥션을 얻으면 뒤의 저장도 그 replica로 감
+ * (UserService.save는 email 중복 확인 조회 다음에 저장)
+ * 커넥션을 트랜잭션마다 반납하게 바꾸면 HibernateJpaDialect가 readOnly를 커넥션에 전달하지 않아서 조회가 모두 primary로 감
+ *
+ * 엔티티에 지연 로딩 연관관계가 없어서 화면을 그릴 때 EntityManager가 필요 없으므로 끔
+ * 설정 파일에서 true로 주더라도 이 값이 우선함
+ */
+public class ReadReplicaEnvironmentPostProcessor implements EnvironmentPostProcessor {
+    static final String PROPERTY_SOURCE_NAME = "readReplicaOpenInView";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (environment.getProperty("myboot.replica.enabled", Boolean.class, false)) {
+            environment.getPropertySources().addFirst(
+                    new MapPropertySource(PROPERTY_SOURCE_NAME, Map.of("spring.jpa.open-in-view", "false")));
+        }
+    }
+}
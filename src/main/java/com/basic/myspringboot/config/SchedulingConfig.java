@@ -0,0 +1,15 @@
+package com.basic.myspringboot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 메서드를 Spring Boot가 만든 taskScheduler에서 실행
+ * (spring.threads.virtual.enabled=true 이면 가상 스레드)
+ *
+ * 통계 테이블을 실제 테이블과 주기적으로 맞추는 StatisticsService.reconcile()
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
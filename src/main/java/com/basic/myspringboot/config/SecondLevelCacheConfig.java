@@ -0,0 +1,35 @@
+package com.basic.myspringboot.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * Hibernate 2차 캐시가 쓰는 JCache CacheManager (Caffeine)
+ *
+ * 영역별 설정은 hibernate-l2-cache.conf, Hibernate 설정은 application.properties의 hibernate.cache.*
+ * hibernate.javax.cache.uri 로 파일을 지정하면 Hibernate가 jar 안의 리소스를 jar: URL로 바꿔서 넘기는데
+ * Caffeine은 classpath:, file: URI만 읽을 수 있어서 실행 jar에서는 설정이 적용되지 않음
+ * 그래서 CacheManager를 classpath: URI로 직접 만들어서 hibernate.javax.cache.cache_manager 로 넘김
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final URI CONFIG_URI = URI.create("classpath:hibernate-l2-cache.conf");
+
+    // EntityManagerFactory가 먼저 닫힌 뒤에 닫힘 (EntityManagerFactory -> customizer -> 이 빈 순서로 의존)
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(CONFIG_URI, getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", secondLevelCacheManager);
+    }
+}
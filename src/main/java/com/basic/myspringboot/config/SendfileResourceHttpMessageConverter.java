@@ -0,0 +1,56 @@
+package com.basic.myspringboot.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 파일로 된 정적 리소스를 Tomcat sendfile로 보내는 변환기
+ *
+ * 기본 ResourceHttpMessageConverter는 파일을 읽어서 응답 스트림에 복사함 (힙 버퍼를 거침)
+ * Tomcat이 sendfile을 지원하면(org.apache.tomcat.sendfile.support) 파일 경로만 요청 속성에 넣어 두고,
+ * 요청이 끝난 뒤 Tomcat이 커널의 sendfile()로 파일을 소켓에 바로 보냄 (Tomcat DefaultServlet과 같은 방식)
+ *
+ * 리소스가 파일이 아닌 경우(실행 jar 안의 classpath 리소스, CSS 변환 결과 등)와 threshold보다 작은 파일은 기존대로 복사
+ */
+class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final long threshold;
+
+    SendfileResourceHttpMessageConverter(long threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+        HttpServletRequest request = currentRequest();
+        if (request != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)) && resource.isFile()) {
+            File file = resource.getFile();
+            long length = file.length();
+            if (length >= threshold) {
+                // Content-Length는 ResourceHttpRequestHandler가 이미 넣었으므로 본문은 쓰지 않고 끝냄
+                request.setAttribute(SENDFILE_FILENAME, file.getCanonicalPath());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, length);
+                return;
+            }
+        }
+        super.writeContent(resource, outputMessage);
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+}
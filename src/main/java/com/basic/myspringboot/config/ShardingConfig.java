@@ -0,0 +1,95 @@
+package com.basic.myspringboot.config;
+
+import com.basic.myspringboot.datasource.DataSourceWrapper;
+import com.basic.myspringboot.property.ShardingProperties;
+import com.basic.myspringboot.search.UserEmailFilter;
+import com.basic.myspringboot.shard.ShardDataSources;
+import com.basic.myspringboot.shard.ShardedUserStore;
+import com.basic.myspringboot.shard.UserShards;
+import com.basic.myspringboot.stats.StatisticsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * users 샤딩 설정 (myboot.sharding.enabled=true 일 때만)
+ *
+ * myboot.sharding.shards[*] 의 DB마다 Hikari 풀을 만들고, UserService의 저장소를 ShardedUserStore로 바꿈
+ *  - 등록, id/email 조회, 이름 변경, 삭제: 샤드 하나
+ *  - GET /api/users 목록, /index 화면, GET /api/users/stream, users CSV 내보내기, 통계의 users 수:
+ *    모든 샤드에 동시에 묻고 합침
+ *  - POST /api/users/bulk 는 primary에 넣게 되므로 샤딩 모드에서는 막음 (501)
+ * users 외의 테이블(customers, 통계 등)과 JPA 엔티티는 그대로 spring.datasource(primary)에 있음
+ * 샤드 풀에도 DataSourceWrapper 빈(SlowQueryConfig, VirtualThreadConfig)을 primary와 같이 적용함
+ *
+ * 로컬에서는 H2 메모리 DB 여러 개로 확인할 수 있음 (application-sharding.properties)
+ */
+@Configuration
+@ConditionalOnProperty(name = "myboot.sharding.enabled", havingValue = "true")
+@Slf4j
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public UserShards userShards(ShardingProperties properties, ObjectProvider<MeterRegistry> meterRegistry,
+                                 ObjectProvider<DataSourceWrapper> wrappers) {
+        Map<String, DataSource> pools = ShardDataSources.create(properties.getShards(), "shard-",
+                meterRegistry.getIfAvailable());
+        if (properties.isInitializeSchema()) {
+            pools.values().forEach(UserShards::createSchema);
+        }
+        // 샤드 풀은 빈이 아니라서 BeanPostProcessor가 감싸지 않으므로 primary와 같은 래퍼(느린 쿼리, 동시 사용 제한)를 직접 적용
+        List<DataSourceWrapper> wrapperList = wrappers.orderedStream().toList();
+        pools.replaceAll((name, pool) -> {
+            DataSource wrapped = pool;
+            for (DataSourceWrapper wrapper : wrapperList) {
+                wrapped = wrapper.wrap(wrapped, name);
+            }
+            return wrapped;
+        });
+        log.info("users 샤딩: 샤드 {}", pools.keySet());
+        return new UserShards(pools, properties.getFanOutTimeout());
+    }
+
+    @Bean
+    public ShardedUserStore shardedUserStore(UserShards userShards, StatisticsRecorder statisticsRecorder,
+                                             UserEmailFilter userEmailFilter) {
+        return new ShardedUserStore(userShards, statisticsRecorder, userEmailFilter);
+    }
+
+    // /actuator/health 의 userShards: 샤드마다 UP/DOWN (샤드 하나라도 DOWN이면 그 샤드의 User를 읽고 쓸 수 없으므로 DOWN)
+    @Bean
+    public HealthIndicator userShardsHealthIndicator(UserShards userShards) {
+        return new AbstractHealthIndicator() {
+            @Override
+            protected void doHealthCheck(Health.Builder builder) {
+                boolean allUp = true;
+                for (UserShards.Shard shard : userShards.shards()) {
+                    boolean up;
+                    try (Connection connection = shard.dataSource().getConnection()) {
+                        up = connection.isValid(1);
+                    } catch (Exception e) {
+                        up = false;
+                    }
+                    allUp &= up;
+                    builder.withDetail(shard.name(), up ? "UP" : "DOWN");
+                }
+                if (allUp) {
+                    builder.up();
+                } else {
+                    builder.down();
+                }
+            }
+        };
+    }
+}
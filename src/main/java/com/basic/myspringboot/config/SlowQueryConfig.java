@@ -0,0 +1,39 @@
+package com.basic.myspringboot.config;
+
+import com.basic.myspringboot.datasource.DataSourceWrapper;
+import com.basic.myspringboot.datasource.SlowQueryRecorder;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * spring.jpa.show-sql 대신 느린 SQL만 기록
+ * DataSource를 datasource-proxy로 감싸서 Statement 실행 시간을 SlowQueryRecorder로 넘김
+ * myboot.slow-query.enabled=false 이면 감싸지 않음
+ */
+@Configuration
+@ConditionalOnProperty(name = "myboot.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SlowQueryConfig {
+
+    // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static으로 등록하고, Recorder는 ObjectProvider로 늦게 가져옴
+    // 빈이 아닌 샤드 풀도 ShardingConfig가 같은 wrap()으로 감쌈
+    @Bean
+    static DataSourceWrapper slowQueryDataSourceProxy(ObjectProvider<SlowQueryRecorder> recorder) {
+        return (dataSource, name) -> {
+            if (dataSource instanceof ProxyDataSource) {
+                return dataSource;
+            }
+            log.info("DataSource '{}' 느린 쿼리 기록 사용", name);
+            return ProxyDataSourceBuilder.create(name, dataSource)
+                    .listener(recorder.getObject())
+                    .build();
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.basic.myspringboot.config;
+
+import com.basic.myspringboot.datasource.ConcurrencyLimitingDataSource;
+import com.basic.myspringboot.datasource.DataSourceWrapper;
+import com.basic.myspringboot.property.JdbcConcurrencyProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * 가상 스레드(Virtual Thread) 실행 모드 설정
+ *
+ * spring.threads.virtual.enabled=true 이면 Spring Boot가 Tomcat 요청 처리, @Async, @Scheduled를 가상 스레드에서 실행함
+ * 이때 JDBC 호출에서 블로킹되는 요청이 제한 없이 늘어날 수 있어서
+ * DataSource를 ConcurrencyLimitingDataSource로 감싸 동시에 커넥션을 쓰는 수를 풀 크기로 제한함
+ * (false 이면 이 설정은 동작하지 않고 기존 플랫폼 스레드 풀 방식 그대로)
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+    private static final int DEFAULT_HIKARI_POOL_SIZE = 10;
+
+    // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static으로 등록하고, 설정값은 ObjectProvider로 늦게 가져옴
+    // 빈이 아닌 샤드 풀도 ShardingConfig가 같은 wrap()으로 감쌈
+    @Bean
+    static DataSourceWrapper jdbcConcurrencyLimiter(ObjectProvider<JdbcConcurrencyProperties> properties) {
+        return (dataSource, name) -> {
+            if (dataSource instanceof ConcurrencyLimitingDataSource) {
+                return dataSource;
+            }
+            JdbcConcurrencyProperties limits = properties.getObject();
+            int maxConcurrency = limits.getMaxConcurrency();
+            if (maxConcurrency <= 0) {
+                // spring.datasource.hikari.maximum-pool-size를 지정하지 않으면 -1이고, Hikari는 기본 10개를 사용
+                // 다른 래퍼(SlowQueryConfig 등)가 먼저 감쌌을 수 있으므로 풀어서 확인
+                // (datasource-proxy는 DataSourceUnwrapper로는 풀리지 않아서 JDBC Wrapper.unwrap()을 씀)
+                HikariDataSource hikari = hikari(dataSource);
+                maxConcurrency = hikari != null && hikari.getMaximumPoolSize() > 0
+                        ? hikari.getMaximumPoolSize() : DEFAULT_HIKARI_POOL_SIZE;
+            }
+            log.info("가상 스레드 모드: DataSource '{}' 동시 사용 제한 = {}", name, maxConcurrency);
+            return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, limits.getAcquireTimeout());
+        };
+    }
+
+    private static HikariDataSource hikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
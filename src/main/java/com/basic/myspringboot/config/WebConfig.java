@@ -1,16 +1,101 @@
 package com.basic.myspringboot.config;
 
+import com.basic.myspringboot.property.StaticResourceProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.WebProperties;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 정적 리소스 설정
+ *
+ * - 내용 해시 버전: 템플릿에서 @{/css/site.css}처럼 링크한 정적 리소스는 ResourceUrlEncodingFilter를 거쳐
+ *   /css/site-{md5}.css 로 바뀜 (지금 템플릿은 정적 리소스를 링크하지 않고, 정적 html/favicon은 버전 없는 경로로 서비스)
+ *   CSS 안의 url(...)도 CssLinkResourceTransformer가 버전이 붙은 경로로 바꿔 줌
+ * - 미리 압축: 빌드(prepare-package) 때 만들어 둔 .br/.gz 파일을 Accept-Encoding에 맞춰 보냄 (요청마다 압축하지 않음)
+ * - 캐시: 버전이 붙은 경로는 1년 immutable, 나머지(html 등)는 짧게 두고 다시 확인 (CacheControlResourceTransformer)
+ * - 전송: 큰 파일은 Tomcat sendfile로 복사 없이 보냄 (SendfileResourceHttpMessageConverter)
+ *   jar 안의 리소스는 파일이 아니므로 spring.web.resources.static-locations에 file: 경로를 둔 경우에만 해당
+ *
+ * WebProperties, WebMvcProperties는 서블릿 웹 애플리케이션에서만 빈으로 등록되므로 웹 서버 없이 띄울 때(벤치마크 등)는 제외
+ */
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
+    private final StaticResourceProperties staticResourceProperties;
+    private final WebProperties webProperties;
+    private final WebMvcProperties webMvcProperties;
+
     @Override /** resources/mobile/index.html 인식시켜주는 메서드 */
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/mobile/**")
+        resourceChain(registry.addResourceHandler("/mobile/**")
                 //반드시 mobile 다음에 / 을 주어야 한다.
-                .addResourceLocations("classpath:/mobile/") // classpath는 target/classes을 의미
-                .setCachePeriod(20);//20초
+                .addResourceLocations("classpath:/mobile/")); // classpath는 target/classes을 의미
+        // Spring Boot 기본 정적 리소스(spring.mvc.static-path-pattern, 기본 /** -> classpath:/static/ 등)도 같은 체인으로 처리
+        // Boot의 기본 핸들러는 spring.web.resources.add-mappings=false 로 꺼 둠
+        resourceChain(registry.addResourceHandler(webMvcProperties.getStaticPathPattern())
+                .addResourceLocations(webProperties.getResources().getStaticLocations()));
+    }
+
+    private void resourceChain(ResourceHandlerRegistration registration) {
+        // true: 찾은 리소스(Accept-Encoding별)와 변환 결과를 메모리에 캐시해서 요청마다 파일/해시를 다시 계산하지 않음
+        registration.resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addTransformer(new CssLinkResourceTransformer())
+                .addTransformer(new CacheControlResourceTransformer(
+                        CacheControl.maxAge(staticResourceProperties.getVersionedMaxAge()).cachePublic().immutable(),
+                        revalidate(staticResourceProperties.getUnversionedMaxAge())));
+    }
+
+    private static CacheControl revalidate(Duration maxAge) {
+        return maxAge.isZero()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(maxAge.toSeconds(), TimeUnit.SECONDS).mustRevalidate();
+    }
+
+    // Thymeleaf의 @{...} 링크를 버전이 붙은 경로로 바꿔 주는 필터
+    @Bean
+    public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        return new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+    }
+
+    // ResourceHandlerRegistration에서는 변환기를 지정할 수 없어서, 만들어진 ResourceHttpRequestHandler에 직접 넣음
+    @Bean
+    static BeanPostProcessor sendfileResourceHandlers(ObjectProvider<StaticResourceProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("resourceHandlerMapping".equals(beanName) && bean instanceof AbstractUrlHandlerMapping mapping) {
+                    long threshold = properties.getObject().getSendfileThreshold().toBytes();
+                    mapping.getHandlerMap().values().forEach(handler -> {
+                        if (handler instanceof ResourceHttpRequestHandler resourceHandler) {
+                            resourceHandler.setResourceHttpMessageConverter(
+                                    new SendfileResourceHttpMessageConverter(threshold));
+                        }
+                    });
+                }
+                return bean;
+            }
+        };
     }
-}
\ No newline at end of file
+}
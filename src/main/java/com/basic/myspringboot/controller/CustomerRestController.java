@@ -0,0 +1,39 @@
+package com.basic.myspringboot.controller;
+
+import com.basic.myspringboot.dto.CustomerSearchResult;
+import com.basic.myspringboot.service.CustomerSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/customers")
+public class CustomerRestController {
+    private final CustomerSearchService customerSearchService;
+
+    /**
+     * GET /api/customers/search?q=스프&page=0&size=20
+     * 이름에 q가 들어 있는 고객을 순위(완전 일치 > 앞부분 일치 > 부분 일치, 짧은 이름 우선) 순으로 한 페이지씩 반환
+     *
+     * 응답 결과:
+     * {
+     *   "query": "스프",
+     *   "page": 0,
+     *   "size": 20,
+     *   "total": 2,
+     *   "customers": [
+     *     { "id": 1, "customerId": "A001", "customerName": "스프링" },
+     *     { "id": 2, "customerId": "A002", "customerName": "스프링2" }
+     *   ]
+     * }
+     */
+    @GetMapping("/search")
+    public CustomerSearchResult search(@RequestParam("q") String query,
+                                       @RequestParam(defaultValue = "0") int page,
+                                       @RequestParam(defaultValue = "20") int size) {
+        return customerSearchService.search(query, page, size);
+    }
+}
@@ -0,0 +1,59 @@
+package com.basic.myspringboot.controller;
+
+import com.basic.myspringboot.export.CsvExportService;
+import com.basic.myspringboot.export.ExportTable;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 테이블 전체를 CSV 파일로 내려받기 (분석용 전체 덤프)
+ *
+ * GET /api/users/export.csv          -> users.csv      (text/csv)
+ * GET /api/users/export.csv.gz       -> users.csv.gz   (gzip으로 압축한 CSV)
+ * GET /api/customers/export.csv(.gz) -> customers.csv(.gz)
+ *
+ * JDBC 커서에서 읽은 행을 바로 응답에 쓰므로 테이블이 커도 서버 메모리 사용량은 같음 (CsvExportService)
+ * 전체 행 수를 미리 알 수 없어서 Content-Length 없이 chunked로 보냄
+ * 비동기 응답 제한 시간(spring.mvc.async.request-timeout)보다 오래 걸리는 덤프는 파일로 내보내기(CsvExportRunner) 사용
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+public class ExportController {
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType APPLICATION_GZIP = new MediaType("application", "gzip");
+
+    private final CsvExportService csvExportService;
+
+    // 경로 변수가 없는 경로라서 /api/users/{id} 보다 먼저 매칭됨
+    @GetMapping({"/users/export.csv", "/users/export.csv.gz"})
+    public ResponseEntity<StreamingResponseBody> exportUsers(HttpServletRequest request) {
+        return export(ExportTable.USERS, request);
+    }
+
+    @GetMapping({"/customers/export.csv", "/customers/export.csv.gz"})
+    public ResponseEntity<StreamingResponseBody> exportCustomers(HttpServletRequest request) {
+        return export(ExportTable.CUSTOMERS, request);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ExportTable table, HttpServletRequest request) {
+        boolean gzip = request.getRequestURI().endsWith(".gz");
+        String fileName = table.getFileName() + (gzip ? ".csv.gz" : ".csv");
+        return ResponseEntity.ok()
+                .contentType(gzip ? APPLICATION_GZIP : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .cacheControl(CacheControl.noStore())
+                .body(out -> csvExportService.export(table, out, gzip));
+    }
+}
@@ -0,0 +1,44 @@
+package com.basic.myspringboot.controller;
+
+import com.basic.myspringboot.dto.SignupCount;
+import com.basic.myspringboot.dto.UserStatistics;
+import com.basic.myspringboot.service.StatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatisticsRestController {
+    private final StatisticsService statisticsService;
+
+    /**
+     * GET /api/stats?from=2026-10-01&to=2026-10-18
+     * 전체 User/Customer 수와 기간 안의 일별 가입자 수 (기간을 주지 않으면 최근 myboot.stats.default-days일)
+     * 미리 세어 둔 값만 읽으므로 users, customers 테이블을 읽지 않음
+     */
+    @GetMapping
+    public UserStatistics statistics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return statisticsService.statistics(from, to);
+    }
+
+    /**
+     * GET /api/stats/signups?from=2026-10-18T09:00:00&to=2026-10-18T10:00:00
+     * from 이상 to 미만에 가입한 User 수 (하루보다 작은 구간, users.created_at 인덱스 범위 조회)
+     */
+    @GetMapping("/signups")
+    public SignupCount signups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return statisticsService.signups(from, to);
+    }
+}
@@ -1,9 +1,15 @@
 package com.basic.myspringboot.controller;
 
+import com.basic.myspringboot.dto.UserResponse;
 import com.basic.myspringboot.entity.User;
-import com.basic.myspringboot.repository.UserRepository;
+import com.basic.myspringboot.exception.BusinessException;
+import com.basic.myspringboot.service.UserService;
+import com.basic.myspringboot.service.UserTableService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult; //BindingResult가 Errors의 하위 클래스임
@@ -15,16 +21,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 
 @Controller //@RestController(=@ResponseBody + @Controller)가 아닌 그냥 @Controller
 public class UserController {
+    // /index 목록: 한 페이지만, chunk 단위로 읽음
     @Autowired
-    private UserRepository userRepository;
+    private UserTableService userTableService;
+
+    // 단건 조회는 캐시를 거치고, 저장/삭제 시 캐시를 지워 주는 UserService 사용
+    @Autowired
+    private UserService userService;
 
     // 2) static/index.html에서 넘어옴
+    // GET /index?page=0&size=20&sort=name,asc (page는 0부터, sort는 id, name, email, createdAt)
     @GetMapping("/index")
-    public String index(Model model) {
-        // UserRepository를 injection 받음
-        // userRepository의 findAll()을 사용해서 가져온 값들을 users라는 키 값에 저장
-        // ==> Key: users, Value: userRepository.findAll()
-        model.addAttribute("users", userRepository.findAll());
+    public String index(@PageableDefault(size = 20, sort = "id") Pageable pageable, Model model) {
+        // findAll()로 전체를 읽지 않고 요청한 페이지만 넘김
+        // 행은 아직 읽지 않은 상태이고, templates/index.html의 th:each가 꺼낼 때 chunk 단위로 읽음
+        // ==> Key: table, Value: UserTableService.UserTable
+        model.addAttribute("table", userTableService.page(pageable));
         return "index"; // 3) templates/index.html로 이동
     }
 
@@ -37,21 +49,36 @@ public class UserController {
     //@Valid: 유효성 검사(값을 잘 입력했냐 아니냐) 수행 //Validator 클래스가 내부에서 만들어 지고 호출하는 역할
     //Errors: 에러가 발생했을 때 에러 정보 저장(어떠한 항목에 Error가 생겼다, 사용자 지정 에러 메세지는 뭐다)
     public String addUser(@Valid @ModelAttribute("userForm") User user,
-                          Errors result, Model model) {
+                          Errors result) {
         if (result.hasErrors()) { //에러 정보가 있다면 add-user.html로 이동
             return "add-user";
         }
-        userRepository.save(user);
-        model.addAttribute("users", userRepository.findAll());
-        return "index";
-        //return "redirect:/index";
+        try {
+            userService.save(user);
+        } catch (BusinessException e) {
+            // 이미 등록된 email(409)이면 폼의 email 항목에 에러를 표시
+            if (e.getHttpStatus() != HttpStatus.CONFLICT) {
+                throw e;
+            }
+            result.rejectValue("email", "duplicate", e.getMessage());
+            return "add-user";
+        }
+        // 목록을 여기서 다시 그리지 않고 /index로 redirect (Post/Redirect/Get)
+        // 새로고침해도 POST가 다시 전송되지 않고, 목록은 GET /index 한 곳에서만 만듦
+        return "redirect:/index";
     }
 
     @GetMapping("/edit/{id}")
     public String showUpdateForm(@PathVariable("id") long id,
                                  Model model) {
-        User user = userRepository.findById(id)
+        UserResponse found = userService.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid user Id:" + id));
+        // th:field는 getter로 값을 읽으므로 폼에는 User 객체를 넘김 (DB에 연결되지 않은 폼 전용 객체)
+        User user = new User();
+        user.setId(found.id());
+        user.setName(found.name());
+        user.setEmail(found.email());
+        user.setVersion(found.version());
         model.addAttribute("user", user);
         return "update-user";
     }
@@ -64,16 +91,17 @@ public class UserController {
             user.setId(id);
             return "update-user";
         }
-        userRepository.save(user);
+        // 폼의 hidden version과 DB의 버전이 같을 때만 이름을 바꿈 (email은 readonly라 바꾸지 않음)
+        // 폼을 연 뒤 다른 곳에서 먼저 수정했으면 BusinessException(412)
+        userService.updateName(id, user.getName(), user.getVersion());
         return "redirect:/index";
     }
 
 
     @GetMapping("/delete/{id}")
     public String deleteUser(@PathVariable("id") long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid user Id:" + id));
-        userRepository.delete(user);
+        // 조회 없이 DELETE 한 번 (없는 id면 BusinessException 404)
+        userService.deleteById(id);
         return "redirect:/index";
     }
 
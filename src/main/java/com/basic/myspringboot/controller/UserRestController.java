@@ -1,16 +1,36 @@
 package com.basic.myspringboot.controller;
 
+import com.basic.myspringboot.dto.BulkDeleteResult;
+import com.basic.myspringboot.dto.BulkImportResult;
+import com.basic.myspringboot.dto.UserLookup;
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.dto.UserVersion;
 import com.basic.myspringboot.entity.User;
-import com.basic.myspringboot.exception.BusinessException;
-import com.basic.myspringboot.repository.UserRepository;
+import com.basic.myspringboot.exception.ExpectedBusinessException;
+import com.basic.myspringboot.feed.UserChangeFeed;
+import com.basic.myspringboot.property.UserApiProperties;
+import com.basic.myspringboot.service.UserBulkImportService;
+import com.basic.myspringboot.service.UserService;
+import com.basic.myspringboot.service.UserStreamService;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.weaver.ast.Not;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * HTTP POST 요청을 처리하는 메서드
@@ -55,7 +75,11 @@ public class UserRestController {
      *      다만, 의존성이 많아질 경우 생성자를 일일이 작성하는 것이 번거롭기 때문에,
      *      lombok의 @RequiredArgsConstructor를 사용하면 자동으로 생성자가 만들어져 생성자 주입을 간편하게 사용할 수 있음
      */
-    private final UserRepository userRepository;
+    private final UserService userService;
+    private final UserStreamService userStreamService;
+    private final UserBulkImportService userBulkImportService;
+    private final UserApiProperties userApiProperties;
+    private final UserChangeFeed userChangeFeed;
 
     //<Alt> + <Insert> 누르면 생성자를 만들 수 있음
 //    //Constructor Injection(생성자 주입)
@@ -79,8 +103,13 @@ public class UserRestController {
 
     //Request Mapping 중 하나인 PostMapping
     @PostMapping
-    public User create(@RequestBody User user) {
-        return userRepository.save(user);
+    public UserResponse create(@RequestBody User user) {
+        // id는 시퀀스(샤딩 모드는 ShardKey)로만 만들고, 수정은 PUT /api/users/{id}로 함
+        // 받은 id로 save()하면 없는 행을 수정(merge)하려다 실패하므로 400
+        if (user.getId() != null) {
+            throw ExpectedBusinessException.badRequest("새 User를 등록할 때는 id를 지정할 수 없습니다.");
+        }
+        return UserResponse.of(userService.save(user));
     }
     /**
      * Postman 사용법 - POST 요청
@@ -111,10 +140,66 @@ public class UserRestController {
      * 이 데이터는 users 테이블에 자동으로 저장됨
      */
 
+    /**
+     * POST /api/users/bulk
+     * 여러 명의 User를 한 번의 요청으로 등록
+     * - Content-Type: application/json     -> [ {"name":"a","email":"a@a.com"}, {"name":"b","email":"b@a.com"} ]
+     * - Content-Type: application/x-ndjson -> 한 줄에 User 하나씩
+     * 본문을 스트림으로 읽으면서 chunk 단위로 batch insert 하고, 실패한 행은 응답의 errors에 담아 줌
+     */
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkImportResult bulkCreate(InputStream body) throws IOException {
+        return userBulkImportService.importUsers(body);
+    }
+
+    /**
+     * GET /api/users?after={마지막으로 받은 id}&limit={개수}
+     * findAll()로 전체를 List에 올리지 않고 Keyset(Cursor) 방식으로 limit개씩 잘라서 응답함
+     * - after: 이전 페이지의 마지막 id (첫 페이지는 생략 또는 0)
+     * - limit: 한 페이지 크기 (기본 myboot.users.default-page-size, 최대 myboot.users.max-page-size)
+     * 엔티티 대신 UserResponse를 바로 읽는 projection 쿼리라서 영속성 컨텍스트에 아무것도 올리지 않음
+     * 샤딩 모드에서는 모든 샤드에서 limit개씩 동시에 읽어서 id 순으로 합침
+     * 다음 페이지가 있을 수 있으면 응답 헤더에 다음 커서를 넣어 줌
+     *      X-Next-Cursor: 15
+     *      Link: <http://localhost:8080/api/users?after=15&limit=20>; rel="next"
+     */
     @GetMapping
-    public List<User> getUsers() {
-        return userRepository.findAll();
+    public ResponseEntity<List<UserResponse>> getUsers(@RequestParam(defaultValue = "0") long after,
+                                               @RequestParam(required = false) Integer limit) {
+        int size = userApiProperties.getDefaultPageSize();
+        if (limit != null) {
+            size = Math.max(1, Math.min(limit, userApiProperties.getMaxPageSize()));
+        }
+        List<UserResponse> users = userService.findAfter(after, size);
+
+        // 페이지에 담긴 (id, 버전) 목록으로 ETag를 만듦 -> If-None-Match가 같으면 Spring MVC가 JSON을 만들지 않고 304로 응답
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(pageETag(users));
+        // 꽉 찬 페이지일 때만 다음 페이지가 있을 수 있음
+        if (users.size() == size) {
+            long nextCursor = users.get(users.size() - 1).id();
+            URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .replaceQueryParam("limit", size)
+                    .build().toUri();
+            builder.header("X-Next-Cursor", String.valueOf(nextCursor))
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return builder.body(users);
+    }
+
+    // 64비트 FNV-1a 해시, 페이지의 행이 추가/삭제/수정되면 값이 바뀜
+    // 약한 ETag(W/): Tomcat은 강한 ETag가 붙은 응답은 gzip 압축하지 않음 (압축하면 바이트가 달라지므로)
+    // 목록 조회는 If-None-Match(약한 비교)에만 쓰므로 약한 ETag로 충분함
+    private static String pageETag(List<UserResponse> users) {
+        long hash = 0xcbf29ce484222325L;
+        for (UserResponse user : users) {
+            hash = (hash ^ user.id()) * 0x100000001b3L;
+            hash = (hash ^ (user.version() == null ? 0 : user.version())) * 0x100000001b3L;
+        }
+        return "W/\"" + Long.toHexString(hash) + "-" + users.size() + "\"";
     }
+
     /**
      * Postman 사용법 - GET 요청
      *
@@ -140,8 +225,36 @@ public class UserRestController {
      *
      * - `[]`는 전체 결과를 나타내는 리스트(List)
      * - `{}`는 각각의 사용자(User) 객체를 나타냄
-     * - DB에 저장된 User가 많아지면 리스트 안에 여러 개의 User 객체가 포함됨
+     * - DB에 저장된 User가 많아지면 다음 페이지는 X-Next-Cursor 헤더 값을 after로 넘겨서 받음
+     */
+
+    /**
+     * GET /api/users/stream
+     * 전체 User를 NDJSON(한 줄에 JSON 객체 하나)으로 한 행씩 바로 써 내려 감
+     * 테이블이 아무리 커도 힙에는 현재 쓰고 있는 몇 개의 User만 올라옴
+     *      {"id":1,"name":"스프링","email":"spring@a.com","createdAt":"..."}
+     *      {"id":2,"name":"스프링2","email":"spring2@a.com","createdAt":"..."}
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userStreamService::writeNdjson);
+    }
+
+    /**
+     * GET /api/users/changes (text/event-stream)
+     * 목록을 몇 초마다 다시 읽지 않고, User 생성/수정/삭제가 커밋될 때마다 이벤트로 받음
+     *      id: lz3k9x0a-42
+     *      event: updated
+     *      data: {"type":"UPDATED","id":7,"user":{"id":7,"name":"스프링",...}}
+     * 끊겼다가 다시 연결하면 EventSource가 Last-Event-ID 헤더로 마지막 id를 보내고, 그 다음 변경부터 이어 받음
+     * 보관 범위(myboot.users.changes.capacity)를 벗어났으면 reset 이벤트가 먼저 오므로 그때는 목록을 다시 읽음
      */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return userChangeFeed.subscribe(lastEventId);
+    }
 
     /**
      * Optional<T> 정리본
@@ -172,9 +285,22 @@ public class UserRestController {
      * ResponseEntity:
      *      Body + Http Status Code + Response Headers까지 한번에 담아서 응답을 주는 객체
      */
+    /**
+     * 응답에 ETag("버전")와 Last-Modified 헤더를 넣어 줌
+     * 클라이언트가 If-None-Match에 받은 ETag를 넣어 다시 요청하면, 그 사이 바뀌지 않았을 때
+     * User를 읽거나 JSON으로 만들지 않고 버전만 비교해서 본문 없는 304 Not Modified로 응답
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id){
-        Optional<User> optionalUser = userRepository.findById(id);
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                            String ifNoneMatch){
+        if (ifNoneMatch != null) {
+            Optional<UserVersion> version = userService.findVersion(id);
+            if (version.isPresent() && version.get().matchesAny(ifNoneMatch)) {
+                return versioned(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version.get()).build();
+            }
+        }
+        Optional<UserResponse> optionalUser = userService.findById(id);
 /*
         // public <U> Optional<U> map(Function<? super T, ? extends U> mapper)
         // Function의 추상메서드 R apply(T t)
@@ -203,8 +329,9 @@ public class UserRestController {
 
 
         /**3. optionalUser의 HttpStatus가 404일 때 body에 단순한 메세지("User Not Found") 추가*/
-        ResponseEntity<User> responseEntity = optionalUser
-                .map(user -> ResponseEntity.ok(user)) //optionalUser에 User 객체가 들어있는 경우: status code = 200
+        // If-Modified-Since는 ETag/Last-Modified가 붙은 ResponseEntity를 보고 Spring MVC가 304로 바꿔 줌
+        ResponseEntity<UserResponse> responseEntity = optionalUser
+                .map(user -> versioned(ResponseEntity.ok(), UserVersion.of(user)).body(user)) //optionalUser에 User 객체가 들어있는 경우: status code = 200
                     //.orElse(ResponseEntity.notFound().build()); //optionalUser에 User객체가 없는 경우: status code = 404
                     .orElse(new ResponseEntity("User Not Found", HttpStatus.NOT_FOUND));
         return responseEntity;
@@ -214,15 +341,15 @@ public class UserRestController {
     // "/email/{email}/"과 "/email/{email}"은 슬래시 유무로 다른 경로로 취급되어 404 에러가 발생할 수 있다
     // 따라서 일관성을 위해 슬래시를 뒤에 붙이는 것이 더 안전하다
     @GetMapping("/email/{email}/")  // http://localhost:8080/api/users/email/spring@a.com/
-    public User getUserByEmail(@PathVariable String email) {
-        Optional<User> optionalUser = userRepository.findByEmail(email);
+    public UserResponse getUserByEmail(@PathVariable String email) {
+        Optional<UserResponse> optionalUser = userService.findByEmail(email);
 
-        User existUser = getUser(optionalUser);
+        UserResponse existUser = getUser(optionalUser);
 
         return existUser;
     }
 
-    private User getUser(Optional<User> optionalUser) {
+    private UserResponse getUser(Optional<UserResponse> optionalUser) {
         return getExistUser(optionalUser);
     }
 
@@ -244,29 +371,102 @@ public class UserRestController {
 //
 //    }
 
+    /**
+     * If-Match: "버전" 헤더를 보내면 그 버전일 때만 수정 (다른 요청이 먼저 바꿨으면 412 Precondition Failed)
+     * 헤더가 없거나 * 이면 버전과 상관없이 수정
+     */
     @PatchMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User userDetail){
-        User existUser = getExistUser(userRepository.findById(id));
-        //Setter method 호출
-        existUser.setName(userDetail.getName());
-        User updatedUser = userRepository.save(existUser);
-        return ResponseEntity.ok(updatedUser);
-//        return ResponseEntity.ok(userRepository.save(existUser));
+    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @RequestBody User userDetail,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch){
+        // 엔티티를 읽어서 setName() 후 save() 하지 않고 UPDATE 한 문장으로 이름만 바꿈 (없는 id면 404)
+        // JPQL UPDATE는 엔티티의 @NotBlank 검증을 거치지 않으므로 여기서 확인
+        if (userDetail.getName() == null || userDetail.getName().isBlank()) {
+            throw ExpectedBusinessException.badRequest("Name은 필수 입력 항목입니다.");
+        }
+        UserResponse updatedUser = userService.updateName(id, userDetail.getName(), expectedVersion(ifMatch));
+        return versioned(ResponseEntity.ok(), UserVersion.of(updatedUser)).body(updatedUser);
+//        User existUser = getExistUser(userRepository.findById(id));
+//        existUser.setName(userDetail.getName());
+//        return ResponseEntity.ok(userService.save(existUser));
+    }
+
+    // If-Match는 강한 비교만 허용 (W/"1" 같은 약한 ETag는 일치하지 않는 것으로 봄)
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // 아래에서 412
+            }
+        }
+        throw new ExpectedBusinessException("If-Match 헤더의 ETag가 올바르지 않습니다: " + ifMatch,
+                HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private static ResponseEntity.BodyBuilder versioned(ResponseEntity.BodyBuilder builder, UserVersion version) {
+        builder.eTag(version.eTag());
+        if (version.lastModifiedMillis() > 0) {
+            builder.lastModified(version.lastModifiedMillis());
+        }
+        return builder;
     }
 
-    private User getExistUser(Optional<User> optionalUser) {
-        User existUser = optionalUser
-                .orElseThrow(() -> new BusinessException("User Not Found", HttpStatus.NOT_FOUND));
+    private UserResponse getExistUser(Optional<UserResponse> optionalUser) {
+        UserResponse existUser = optionalUser
+                // 없는 id 조회는 흔한 일이라 스택 트레이스를 만들지 않는 예외 사용
+                .orElseThrow(() -> ExpectedBusinessException.notFound("User Not Found"));
         return existUser;
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
-        User user = getExistUser(userRepository.findById(id));
-        userRepository.delete(user);
+        // SELECT 없이 DELETE 한 번, 삭제된 행이 없으면 BusinessException(404)
+        userService.deleteById(id);
         // HTTP 204 NO CONTENT 요청은 성공했지만 응답은 없음
         //return ResponseEntity.noContent().build(); //http status Code: 204
         return ResponseEntity.ok("User가 삭제되었습니다. "); //Http status 200
 
     }
+
+    /**
+     * GET /api/users?ids=1,2,3
+     * 여러 User를 한 번에 조회 (한 번에 최대 myboot.users.batch-get-max-ids 개)
+     * 요청한 id 순서대로 같은 개수를 응답하고, 없는 id는 found=false로 표시함
+     *      [ { "id": 1, "found": true, "user": { ... } }, { "id": 7, "found": false } ]
+     * 캐시에 없는 id는 다른 요청이 동시에 조회하는 id와 모아서 IN 쿼리로 읽음 (UserBatchLoader)
+     */
+    @GetMapping(params = "ids")
+    public List<UserLookup> getUsersByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > userApiProperties.getBatchGetMaxIds()) {
+            throw ExpectedBusinessException.badRequest("한 번에 조회할 수 있는 User는 최대 "
+                    + userApiProperties.getBatchGetMaxIds() + "명입니다.");
+        }
+        if (ids.contains(null)) {
+            throw ExpectedBusinessException.badRequest("ids에 빈 값이 있습니다.");
+        }
+        Map<Long, UserResponse> found = userService.findAllById(ids);
+        return ids.stream().map(id -> UserLookup.of(id, found.get(id))).toList();
+    }
+
+    /**
+     * DELETE /api/users?ids=1,2,3
+     * 여러 User를 DELETE ... WHERE id IN (...) 한 문장으로 삭제 (한 번에 최대 myboot.users.bulk-chunk-size 개)
+     * 없는 id는 건너뛰고, 실제로 삭제된 수를 응답함
+     *      { "requested": 3, "deleted": 2 }
+     */
+    @DeleteMapping(params = "ids")
+    public BulkDeleteResult deleteUsers(@RequestParam List<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > userApiProperties.getBulkChunkSize()) {
+            throw ExpectedBusinessException.badRequest("한 번에 삭제할 수 있는 User는 최대 "
+                    + userApiProperties.getBulkChunkSize() + "명입니다.");
+        }
+        int deleted = userService.deleteAllById(distinctIds);
+        return new BulkDeleteResult(distinctIds.size(), deleted);
+    }
 }
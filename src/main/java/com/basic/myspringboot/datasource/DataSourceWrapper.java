@@ -0,0 +1,22 @@
+package com.basic.myspringboot.datasource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource 빈을 감싸는 BeanPostProcessor (느린 쿼리 기록, 가상 스레드 동시 사용 제한)
+ *
+ * 빈이 아닌 DataSource(샤드 풀 등)도 같은 설정으로 감쌀 수 있게 wrap()을 따로 둠
+ * ShardingConfig가 이 타입의 빈을 모두 찾아서 샤드 풀에 차례로 적용함
+ */
+public interface DataSourceWrapper extends BeanPostProcessor {
+
+    /** 감싼 DataSource (이미 감싼 것이면 그대로 반환), name은 로그/메트릭에 쓰는 이름 */
+    DataSource wrap(DataSource dataSource, String name);
+
+    @Override
+    default Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource ? wrap(dataSource, beanName) : bean;
+    }
+}
@@ -0,0 +1,64 @@
+package com.basic.myspringboot.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 읽기/쓰기 분리 DataSource
+ *
+ * LazyConnectionDataSourceProxy는 실제 커넥션을 첫 SQL을 실행할 때까지 미룸
+ * 그 사이에 트랜잭션이 setReadOnly(true)를 호출했으면(@Transactional(readOnly = true), Spring Data 조회 메서드)
+ * readOnlyDataSource(ReplicaRoutingDataSource -> replica)에서, 아니면 primary에서 커넥션을 얻음
+ *
+ * primary에서 읽기 전용이 아닌 커넥션을 얻는 것을 쓰기로 보고 ReadYourWrites.markWrite()를 호출함
+ */
+public class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    private final DataSource primary;
+    private final ReplicaRoutingDataSource replicas;
+
+    public ReadWriteDataSource(DataSource primary, ReplicaRoutingDataSource replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+        setTargetDataSource(new WriteTrackingDataSource(primary));
+        setReadOnlyDataSource(replicas);
+        afterPropertiesSet();
+        // 기본 autoCommit/격리 수준은 첫 getConnection()에서 primary 커넥션으로 확인하는데,
+        // 그게 요청 안에서 일어나면 쓰기로 잘못 표시되므로 시작할 때 미리 확인
+        checkDefaultConnectionProperties();
+    }
+
+    public ReplicaRoutingDataSource getReplicas() {
+        return replicas;
+    }
+
+    // 애플리케이션 종료 시 replica 풀과 primary 풀(Hikari)을 닫음
+    @Override
+    public void close() {
+        replicas.close();
+        if (primary instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new IllegalStateException("primary DataSource 종료 실패", e);
+            }
+        }
+    }
+
+    private static final class WriteTrackingDataSource extends DelegatingDataSource {
+        private WriteTrackingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            ReadYourWrites.markWrite();
+            return connection;
+        }
+    }
+}
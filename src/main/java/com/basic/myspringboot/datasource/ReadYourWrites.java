@@ -0,0 +1,50 @@
+package com.basic.myspringboot.datasource;
+
+/**
+ * 요청 단위의 "내가 쓴 값은 내가 바로 읽는다(read-your-writes)" 상태
+ *
+ * replica는 primary보다 조금 늦게 반영되기 때문에, 방금 쓴 요청이나 클라이언트가 replica에서 읽으면 예전 값을 볼 수 있음
+ * - pinned: 이 요청의 읽기도 primary에서 함 (최근에 쓴 클라이언트이거나, 이 요청에서 이미 썼을 때)
+ * - markWrite(): primary 커넥션을 쓰기 용도로 처음 얻을 때 호출 -> 이후 읽기는 primary, onFirstWrite 실행(쿠키 발급)
+ * ReadYourWritesFilter가 요청 시작/끝에 begin()/end()를 부르고, 요청 밖(@Async, 스케줄러 등)에서는 아무 일도 하지 않음
+ */
+public final class ReadYourWrites {
+    private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void begin(boolean pinned, Runnable onFirstWrite) {
+        CONTEXT.set(new Context(pinned, onFirstWrite));
+    }
+
+    public static void end() {
+        CONTEXT.remove();
+    }
+
+    public static boolean isPinned() {
+        Context context = CONTEXT.get();
+        return context != null && context.pinned;
+    }
+
+    public static void markWrite() {
+        Context context = CONTEXT.get();
+        if (context == null || context.written) {
+            return;
+        }
+        context.written = true;
+        context.pinned = true;
+        context.onFirstWrite.run();
+    }
+
+    private static final class Context {
+        private boolean pinned;
+        private boolean written;
+        private final Runnable onFirstWrite;
+
+        private Context(boolean pinned, Runnable onFirstWrite) {
+            this.pinned = pinned;
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.basic.myspringboot.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 쓰기를 한 클라이언트는 window 동안 읽기도 primary에서 하도록 쿠키로 표시
+ *
+ * 쓰기 요청: 처음 primary에 쓸 때 "primary-until=만료 시각(ms)" 쿠키를 응답에 넣음 (ReadYourWrites.markWrite)
+ * 다음 요청: 쿠키의 시각이 아직 지나지 않았으면 이 요청의 읽기를 모두 primary로 보냄
+ * 쿠키는 window가 지나면 브라우저가 버리므로 서버에 상태를 남기지 않음
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    static final String COOKIE_NAME = "primary-until";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ReadYourWrites.begin(recentlyWrote(request), () -> {
+            // 응답 본문을 쓰기 시작하기 전(서비스에서 저장할 때)이라 보통은 아직 커밋되지 않음
+            if (!response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE_NAME,
+                        String.valueOf(System.currentTimeMillis() + window.toMillis()));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+                response.addCookie(cookie);
+            }
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.end();
+        }
+    }
+
+    private static boolean recentlyWrote(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
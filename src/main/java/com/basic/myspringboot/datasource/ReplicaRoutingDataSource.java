@@ -0,0 +1,115 @@
+package com.basic.myspringboot.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * readOnly 트랜잭션이 쓰는 DataSource (ReadWriteDataSource의 읽기 쪽)
+ *
+ * - replica 풀을 돌아가며(round robin) 사용
+ * - 커넥션을 얻지 못한 replica는 retryInterval 동안 빼 두고 다음 replica를 시도, 시간이 지나면 다시 한 번 시도
+ * - 쓸 수 있는 replica가 없거나, read-your-writes로 고정된 요청이면 primary를 사용
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long retryIntervalNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration retryInterval) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream().map(e -> new Replica(e.getKey(), e.getValue())).toList();
+        this.retryIntervalNanos = retryInterval.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReadYourWrites.isPinned()) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+            long now = System.nanoTime();
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (!replica.isAvailable(now)) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replica.markUp();
+                    return connection;
+                } catch (SQLException | RuntimeException e) {
+                    // 풀 생성 실패(PoolInitializationException)도 여기서 받아서 다음 replica로 넘어감
+                    replica.markDown(now + retryIntervalNanos);
+                    log.warn("replica '{}' 커넥션 실패, {}ms 동안 제외: {}",
+                            replica.name, retryIntervalNanos / 1_000_000, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("replica는 풀에 설정한 계정으로만 사용");
+    }
+
+    /** replica 이름 -> 지금 사용 가능 여부 (/actuator/health의 replicas) */
+    public Map<String, Boolean> status() {
+        long now = System.nanoTime();
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        replicas.forEach(replica -> status.put(replica.name, replica.isAvailable(now)));
+        return status;
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("replica '{}' 종료 실패", replica.name, e);
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // 0이면 사용 가능, 아니면 이 시각(nanoTime) 이후에 다시 시도
+        private volatile long downUntil;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private boolean isAvailable(long now) {
+            long until = downUntil;
+            return until == 0 || now - until >= 0;
+        }
+
+        private void markDown(long until) {
+            downUntil = until;
+        }
+
+        private void markUp() {
+            if (downUntil != 0) {
+                downUntil = 0;
+                log.info("replica '{}' 복구", name);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.basic.myspringboot.datasource;
+
+import com.basic.myspringboot.property.SlowQueryProperties;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * myboot.slow-query.threshold 보다 오래 걸린 SQL을 문장별로 모아 둠 (/actuator/slowqueries 에서 확인)
+ *
+ * datasource-proxy가 Statement 실행이 끝날 때마다 afterQuery()를 호출함
+ * 빠른 쿼리는 시간 비교 한 번으로 끝나고, 느린 쿼리만 SQL 문자열을 key로 횟수/최대/합계를 누적함
+ * bind 수: 한 번 실행할 때의 파라미터 수와 JDBC batch로 묶인 행 수
+ */
+@Component
+@Slf4j
+public class SlowQueryRecorder implements QueryExecutionListener {
+    private final long thresholdMillis;
+    private final int maxStatements;
+    private final ConcurrentHashMap<String, Stats> statements = new ConcurrentHashMap<>();
+
+    public SlowQueryRecorder(SlowQueryProperties properties) {
+        this.thresholdMillis = properties.getThreshold().toMillis();
+        this.maxStatements = properties.getMaxStatements();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed < thresholdMillis) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            int batchSize = Math.max(1, queryInfo.getParametersList().size());
+            int bindCount = queryInfo.getParametersList().isEmpty() ? 0 : queryInfo.getParametersList().get(0).size();
+            record(queryInfo.getQuery(), elapsed, bindCount, batchSize);
+            log.warn("느린 쿼리 {}ms (bind {}개, batch {}건): {}", elapsed, bindCount, batchSize, queryInfo.getQuery());
+        }
+    }
+
+    void record(String sql, long elapsedMillis, int bindCount, int batchSize) {
+        if (statements.size() >= maxStatements && !statements.containsKey(sql)) {
+            evictFastest();
+        }
+        statements.computeIfAbsent(sql, Stats::new).add(elapsedMillis, bindCount, batchSize);
+    }
+
+    /** 가장 오래 걸린(최대 시간) 순으로 limit개 */
+    public List<SlowQuery> top(int limit) {
+        return statements.values().stream()
+                .map(Stats::snapshot)
+                .sorted(Comparator.comparingLong(SlowQuery::maxMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    // 느린 쿼리만 들어오기 때문에 자주 일어나지 않음
+    private void evictFastest() {
+        statements.values().stream()
+                .min(Comparator.comparingLong(stats -> stats.maxMillis))
+                .ifPresent(stats -> statements.remove(stats.sql));
+    }
+
+    public record SlowQuery(String sql, long count, long maxMillis, double avgMillis,
+                            int bindCount, int batchSize, Instant lastSeen) {
+    }
+
+    private static final class Stats {
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private volatile long maxMillis;
+        private volatile int bindCount;
+        private volatile int batchSize;
+        private volatile Instant lastSeen;
+
+        Stats(String sql) {
+            this.sql = sql;
+        }
+
+        void add(long elapsedMillis, int bindCount, int batchSize) {
+            count.increment();
+            totalMillis.add(elapsedMillis);
+            synchronized (this) {
+                if (elapsedMillis >= maxMillis) {
+                    maxMillis = elapsedMillis;
+                    this.bindCount = bindCount;
+                    this.batchSize = batchSize;
+                }
+            }
+            lastSeen = Instant.now();
+        }
+
+        SlowQuery snapshot() {
+            long n = count.sum();
+            return new SlowQuery(sql, n, maxMillis, n == 0 ? 0 : (double) totalMillis.sum() / n,
+                    bindCount, batchSize, lastSeen);
+        }
+    }
+}
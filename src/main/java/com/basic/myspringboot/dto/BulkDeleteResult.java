@@ -0,0 +1,8 @@
+package com.basic.myspringboot.dto;
+
+/**
+ * DELETE /api/users?ids=... 응답
+ * requested: 요청한 id 수(중복 제외), deleted: 실제로 삭제된 행 수
+ */
+public record BulkDeleteResult(int requested, int deleted) {
+}
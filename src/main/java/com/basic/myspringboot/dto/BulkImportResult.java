@@ -0,0 +1,42 @@
+package com.basic.myspringboot.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * POST /api/users/bulk 응답
+ * {
+ *   "received": 3,
+ *   "inserted": 2,
+ *   "failed": 1,
+ *   "errors": [ { "row": 2, "email": "spring@a.com", "message": "이미 등록된 Email입니다." } ]
+ * }
+ * row는 요청 본문에서 몇 번째 항목인지(0부터 시작)
+ */
+@Getter
+public class BulkImportResult {
+    private int received;
+    private int inserted;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public int getFailed() {
+        return errors.size();
+    }
+
+    public void received() {
+        received++;
+    }
+
+    public void inserted(int count) {
+        inserted += count;
+    }
+
+    public void error(int row, String email, String message) {
+        errors.add(new RowError(row, email, message));
+    }
+
+    public record RowError(int row, String email, String message) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.basic.myspringboot.dto;
+
+/**
+ * Customer 조회 응답 (CustomerRepository의 생성자 표현식 쿼리로 엔티티 없이 만듦)
+ */
+public record CustomerResponse(Long id, String customerId, String customerName) {
+}
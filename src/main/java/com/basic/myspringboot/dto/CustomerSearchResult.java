@@ -0,0 +1,11 @@
+package com.basic.myspringboot.dto;
+
+
+import java.util.List;
+
+/**
+ * GET /api/customers/search 응답
+ * total: 검색어를 포함하는 전체 고객 수, customers: 요청한 페이지의 고객(순위 순)
+ */
+public record CustomerSearchResult(String query, int page, int size, int total, List<CustomerResponse> customers) {
+}
@@ -0,0 +1,7 @@
+package com.basic.myspringboot.dto;
+
+import java.time.LocalDate;
+
+/** 하루 동안 가입한(created_at이 그 날짜인) User 수 */
+public record DailySignups(LocalDate date, long signups) {
+}
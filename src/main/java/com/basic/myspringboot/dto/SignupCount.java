@@ -0,0 +1,7 @@
+package com.basic.myspringboot.dto;
+
+import java.time.LocalDateTime;
+
+/** GET /api/stats/signups 응답: from 이상 to 미만에 가입한 User 수 */
+public record SignupCount(LocalDateTime from, LocalDateTime to, long signups) {
+}
@@ -0,0 +1,27 @@
+package com.basic.myspringboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * GET /api/users/changes 로 보내는 User 변경 이벤트 한 건
+ * 삭제(DELETED)는 user 없이 id만 보냄
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserChange(Type type, Long id, UserResponse user) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static UserChange created(UserResponse user) {
+        return new UserChange(Type.CREATED, user.id(), user);
+    }
+
+    public static UserChange updated(UserResponse user) {
+        return new UserChange(Type.UPDATED, user.id(), user);
+    }
+
+    public static UserChange deleted(Long id) {
+        return new UserChange(Type.DELETED, id, null);
+    }
+}
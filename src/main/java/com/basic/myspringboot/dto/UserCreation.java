@@ -0,0 +1,7 @@
+package com.basic.myspringboot.dto;
+
+import java.time.LocalDateTime;
+
+/** JPQL로 한 번에 지우기 전에 읽어 두는 id와 가입 시각 (변경 피드, 일별 가입자 수 갱신용) */
+public record UserCreation(Long id, LocalDateTime createdAt) {
+}
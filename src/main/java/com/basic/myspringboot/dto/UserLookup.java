@@ -0,0 +1,17 @@
+package com.basic.myspringboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * GET /api/users?ids=... 응답의 한 항목 (요청한 id 순서대로, 요청한 개수만큼)
+ * 없는 id는 user 없이 found=false
+ *      { "id": 1, "found": true, "user": { ... } }
+ *      { "id": 7, "found": false }
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserLookup(Long id, boolean found, UserResponse user) {
+
+    public static UserLookup of(Long id, UserResponse user) {
+        return new UserLookup(id, user != null, user);
+    }
+}
@@ -0,0 +1,22 @@
+package com.basic.myspringboot.dto;
+
+import com.basic.myspringboot.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * User 조회 응답 (JSON 모양은 User 엔티티와 같음)
+ *
+ * 목록/단건 조회는 UserRepository의 생성자 표현식(select new ...) 쿼리로 바로 만들어서
+ * 영속성 컨텍스트에 엔티티를 올리지 않음 (dirty checking용 스냅샷, 프록시 없음)
+ * 값을 바꿀 수 없는 record라서 캐시에 넣어 두고 여러 요청이 같이 써도 안전함
+ */
+public record UserResponse(Long id, String name, String email, LocalDateTime createdAt,
+                           Long version, LocalDateTime updatedAt) {
+
+    /** 저장/수정 직후처럼 이미 엔티티가 있을 때 */
+    public static UserResponse of(User user) {
+        return new UserResponse(user.getId(), user.getName(), user.getEmail(), user.getCreatedAt(),
+                user.getVersion(), user.getUpdatedAt());
+    }
+}
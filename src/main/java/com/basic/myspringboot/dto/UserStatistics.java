@@ -0,0 +1,10 @@
+package com.basic.myspringboot.dto;
+
+import java.util.List;
+
+/**
+ * GET /api/stats 응답
+ * users, customers: 전체 행 수, signupsPerDay: 요청한 기간의 일별 가입자 수 (가입자가 없는 날은 0)
+ */
+public record UserStatistics(long users, long customers, List<DailySignups> signupsPerDay) {
+}
@@ -0,0 +1,57 @@
+package com.basic.myspringboot.dto;
+
+import com.basic.myspringboot.entity.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * User의 버전 정보 (ETag, Last-Modified 헤더 값)
+ * 조건부 GET(If-None-Match)에 User 전체를 읽지 않고 답할 때 사용
+ *
+ * ETag: "버전" (강한 ETag, 버전이 같으면 JSON 응답도 같음)
+ * lastModified: updatedAt, 예전 행처럼 updatedAt이 없으면 createdAt
+ */
+public record UserVersion(long version, LocalDateTime lastModified) {
+
+    public static UserVersion of(User user) {
+        return of(user.getVersion(), user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    public static UserVersion of(UserResponse user) {
+        return of(user.version(), user.createdAt(), user.updatedAt());
+    }
+
+    private static UserVersion of(Long version, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new UserVersion(version == null ? 0 : version, updatedAt != null ? updatedAt : createdAt);
+    }
+
+    public String eTag() {
+        return "\"" + version + "\"";
+    }
+
+    /** Last-Modified 헤더용 epoch millis, 값이 없으면 -1 */
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * If-None-Match 헤더 값과 비교 (약한 비교: W/ 접두사는 무시)
+     * 여러 개("1", "2")가 올 수 있고 *는 모든 버전과 일치
+     */
+    public boolean matchesAny(String ifNoneMatch) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*")) {
+                return true;
+            }
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals(eTag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
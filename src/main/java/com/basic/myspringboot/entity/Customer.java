@@ -1,9 +1,15 @@
 package com.basic.myspringboot.entity;
 
+import com.basic.myspringboot.search.CustomerNameIndexListener;
+import com.basic.myspringboot.stats.StatisticsListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 //DB에 Customer라는 테이블을 만들어 줌
 //MyBatis의 VO(Value Object) 클래스와 유사
@@ -11,13 +17,32 @@ import org.hibernate.annotations.DynamicUpdate;
 @Table(name = "customers")//테이블명: customers // 이 어노테이션이 없으면 테이블명을 클래스 이름으로 만들어줌
 @Getter @Setter
 @DynamicUpdate
+// 저장/수정/삭제 시 고객 이름 검색 색인 갱신, 같은 트랜잭션에서 고객 수(stat_total_slots) 갱신
+@EntityListeners({CustomerNameIndexListener.class, StatisticsListener.class})
+// 2차 캐시: customer(id -> Customer), customer-natural-id(customerId -> id)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Customer.CACHE_REGION)
+@NaturalIdCache(region = Customer.NATURAL_ID_CACHE_REGION)
 public class Customer {
+    public static final String CACHE_REGION = "customer";
+    public static final String NATURAL_ID_CACHE_REGION = "customer-natural-id";
+    // findByCustomerNameContains 결과 캐시 (customers 테이블이 바뀌면 Hibernate가 자동으로 무효화)
+    public static final String NAME_QUERY_CACHE_REGION = "customer-name-query";
+    public static final String SEQUENCE_NAME = "customers_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     //Primary Key, PK 값을 persistence provider(구현체인 Hibernate) 가 알아서 결정해라
     //@Id @GeneratedValue(strategy = GenerationType.AUTO) //Auto로 할 경우 테이블명_seq 테이블이 생성됨
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY) // Maria DB라 IDENTITY로 할것이다
+    //@Id @GeneratedValue(strategy = GenerationType.IDENTITY) // IDENTITY는 JDBC batch insert가 꺼짐
+    // User와 같이 pooled 시퀀스(customers_seq)를 사용, 시작값은 IdSequenceAligner가 MAX(id) 뒤로 맞춰 줌
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq_gen")
+    @SequenceGenerator(name = "customers_seq_gen", sequenceName = Customer.SEQUENCE_NAME,
+            allocationSize = Customer.ID_ALLOCATION_SIZE)
     private Long id;
 
     //중복을 허용하지 않고, null 값을 허용하지 않음
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String customerId;
 
@@ -0,0 +1,41 @@
+package com.basic.myspringboot.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 가입일(users.created_at의 날짜)별 User 수 (GET /api/stats의 일별 가입자 수)
+ * GROUP BY로 전체를 읽지 않도록 INSERT/DELETE와 같은 트랜잭션에서 StatisticsRecorder가 더하고 뺌
+ * 오늘 날짜 행에 등록이 몰리므로 StatTotal처럼 slot 행에 나눠 담고, 읽을 때 날짜별로 더함
+ */
+@Entity
+@Table(name = "user_signups_daily_slots")
+@IdClass(DailySignupCount.Key.class)
+@Getter @Setter
+public class DailySignupCount {
+    @Id
+    private LocalDate signupDate;
+
+    @Id
+    private int slot;
+
+    @Column(nullable = false)
+    private long signups;
+
+    @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate signupDate;
+        private int slot;
+    }
+}
@@ -0,0 +1,47 @@
+package com.basic.myspringboot.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * 테이블 전체 행 수를 미리 세어 둔 값 (GET /api/stats)
+ * 매번 COUNT(*)로 전체를 읽지 않도록 INSERT/DELETE와 같은 트랜잭션에서 StatisticsRecorder가 더하고 뺌
+ *
+ * 등록마다 같은 행을 잠그지 않도록 한 값을 myboot.stats.slots 개의 행(slot)에 나눠 담고, 읽을 때 모두 더함
+ */
+@Entity
+@Table(name = "stat_total_slots")
+@IdClass(StatTotal.Key.class)
+@Getter @Setter
+public class StatTotal {
+    public static final String USERS = "users";
+    public static final String CUSTOMERS = "customers";
+
+    // 세는 테이블 이름 (users, customers)
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    // 0 ~ slots - 1 (트랜잭션마다 하나를 골라서 더함)
+    @Id
+    private int slot;
+
+    @Column(nullable = false)
+    private long total;
+
+    @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String name;
+        private int slot;
+    }
+}
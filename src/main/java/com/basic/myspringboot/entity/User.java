@@ -1,13 +1,19 @@
 package com.basic.myspringboot.entity;
 
+import com.basic.myspringboot.search.UserEmailFilterListener;
+import com.basic.myspringboot.stats.StatisticsListener;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
@@ -17,15 +23,30 @@ import java.time.LocalDateTime;
  * ID는 자동으로 증가하는 기본키이고 createdAt은 @CreationTimestamp로
  * 현재 시간을 넣도록 설정한 것이어서
  * 우리가 넣어야 하는 값은 name과 email 두개가 다임
+ *
+ * Hibernate 2차 캐시에는 두지 않음
+ *  - 조회는 모두 UserResponse projection 쿼리라서 엔티티 캐시를 거치지 않고, 그 앞에 UserService의 users 캐시가 있음
+ *  - 이름 변경/삭제는 JPQL bulk 문이라 실행할 때마다 영역 전체가 비워짐 (캐시에 넣는 비용만 남음)
  */
 @Entity
-@Table(name = "users")
+// 가입일 통계/범위 조회(UserRepository.countSignups)용 created_at 인덱스
+@Table(name = "users", indexes = @Index(name = "idx_users_created_at", columnList = "created_at"))
 @Getter
 @Setter
 @DynamicUpdate
+// 저장/삭제가 커밋되면 email Bloom filter(UserEmailFilter)에 반영, 같은 트랜잭션에서 통계(stat_total_slots 등) 갱신
+@EntityListeners({UserEmailFilterListener.class, StatisticsListener.class})
 public class User {
+    public static final String SEQUENCE_NAME = "users_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // IDENTITY(auto_increment)는 INSERT를 해야 id를 알 수 있어서 Hibernate가 JDBC batch insert를 못 함
+    // 시퀀스에서 allocationSize(50)개씩 미리 id를 받아 두는 pooled 방식으로 바꿔서 batch insert가 가능하게 함
+    // 기존 레코드의 id는 그대로 두고, 시퀀스 시작값은 IdSequenceAligner가 MAX(id) 뒤로 맞춰 줌
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq_gen")
+    @SequenceGenerator(name = "users_seq_gen", sequenceName = User.SEQUENCE_NAME,
+            allocationSize = User.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -33,6 +54,8 @@ public class User {
     @NotBlank(message = "Name은 필수 입력 항목입니다. ")
     private String name;
 
+    // 자연 키(natural id): 저장한 뒤에는 바꾸지 않는 업무상 식별자
+    @NaturalId
     @Column(unique = true, nullable = false)
     //@NotBlank: trim() + @NotEmpty //trim(): 문자열 공백 제거
     @NotBlank(message = "Email은 필수 입력 항목입니다. ")
@@ -44,4 +67,17 @@ public class User {
     @CreationTimestamp
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // 낙관적 락(Optimistic Lock)과 ETag에 쓰는 버전, UPDATE 할 때마다 1씩 증가
+    // 기존 행은 ddl-auto=update로 컬럼이 추가될 때 0으로 채워짐
+    // 클라이언트가 보낸 값으로 바뀌면 안 되므로 JSON 응답에만 포함(READ_ONLY)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    // 마지막으로 수정된 시간 (Last-Modified 헤더), 컬럼 추가 전에 있던 행은 null
+    @UpdateTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
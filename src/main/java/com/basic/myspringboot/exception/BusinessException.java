@@ -17,5 +17,12 @@ public class BusinessException extends RuntimeException {
     public BusinessException(String message, HttpStatus httpStatus) {
         this.message = message;
         this.httpStatus = httpStatus;
-    }    
+    }
+
+    // writableStackTrace=false 이면 throw 할 때 스택 트레이스를 만들지 않음 (ExpectedBusinessException에서 사용)
+    protected BusinessException(String message, HttpStatus httpStatus, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.message = message;
+        this.httpStatus = httpStatus;
+    }
 }
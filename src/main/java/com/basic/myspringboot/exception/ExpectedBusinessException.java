@@ -0,0 +1,30 @@
+package com.basic.myspringboot.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 없는 id 조회(404), 잘못된 입력(400), 중복 등록(409)처럼 정상적으로 자주 일어나는 실패용 BusinessException
+ *
+ * 예외 생성 비용의 대부분은 스택 트레이스(fillInStackTrace)를 채우는 데 들어감
+ * Spring MVC 요청 안에서는 스택이 100단계가 넘기 때문에 404 한 번에 수 KB씩 할당됨
+ * 어디서 던졌는지는 메시지와 상태 코드로 충분하므로 스택 트레이스를 만들지 않음
+ */
+public class ExpectedBusinessException extends BusinessException {
+    private static final long serialVersionUID = 1L;
+
+    public ExpectedBusinessException(String message, HttpStatus httpStatus) {
+        super(message, httpStatus, false);
+    }
+
+    public static ExpectedBusinessException notFound(String message) {
+        return new ExpectedBusinessException(message, HttpStatus.NOT_FOUND);
+    }
+
+    public static ExpectedBusinessException badRequest(String message) {
+        return new ExpectedBusinessException(message, HttpStatus.BAD_REQUEST);
+    }
+
+    public static ExpectedBusinessException conflict(String message) {
+        return new ExpectedBusinessException(message, HttpStatus.CONFLICT);
+    }
+}
@@ -1,14 +1,17 @@
 package com.basic.myspringboot.exception.advice;
 
 import com.basic.myspringboot.exception.BusinessException;
+import com.basic.myspringboot.property.ErrorResponseProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -17,20 +20,45 @@ import java.util.Map;
 @RestControllerAdvice
 @Slf4j //Lombok 어노테이션
 public class DefaultExceptionAdvice {
+    private final ErrorResponseProperties errorResponseProperties;
+    // 4xx는 클라이언트가 잘못 보낸 요청(스캐너의 없는 id 조회 등)이라 스택 트레이스 없이 짧게, 5xx는 스택 트레이스와 함께
+    // 둘 다 초당 로그 수를 제한해서 에러가 몰려도 로그 쓰기가 요청 처리보다 비싸지지 않게 함
+    private final LogThrottle clientErrorLog;
+    private final LogThrottle serverErrorLog;
+
+    public DefaultExceptionAdvice(ErrorResponseProperties errorResponseProperties) {
+        this.errorResponseProperties = errorResponseProperties;
+        this.clientErrorLog = new LogThrottle(errorResponseProperties.getLogPermitsPerSecond(),
+                errorResponseProperties.getLogSampleRate());
+        this.serverErrorLog = new LogThrottle(errorResponseProperties.getLogPermitsPerSecond(),
+                errorResponseProperties.getLogSampleRate());
+    }
 
     @ExceptionHandler(BusinessException.class)
-    public ResponseEntity<ErrorObject> handleResourceNotFoundException(BusinessException ex) {
+    public ResponseEntity<?> handleResourceNotFoundException(BusinessException ex) {
+        HttpStatus status = ex.getHttpStatus();
+        if (status.is5xxServerError()) {
+            logServerError(ex);
+        } else {
+            long suppressed = clientErrorLog.tryAcquire();
+            if (suppressed != LogThrottle.DENIED) {
+                log.info("{} {} (이전 로그 {}건 생략)", status.value(), ex.getMessage(), suppressed);
+            }
+        }
+
+        if (errorResponseProperties.isProblemDetail()) {
+            return ResponseEntity.status(status).body(problemDetail(status, ex.getMessage()));
+        }
         ErrorObject errorObject = new ErrorObject();
-        errorObject.setStatusCode(ex.getHttpStatus().value());
+        errorObject.setStatusCode(status.value());
         errorObject.setMessage(ex.getMessage());
 
-        log.error(ex.getMessage(), ex);
-
-        return new ResponseEntity<ErrorObject>(errorObject, HttpStatusCode.valueOf(ex.getHttpStatus().value()));
+        return new ResponseEntity<ErrorObject>(errorObject, HttpStatusCode.valueOf(status.value()));
     }
 
     /*
         Spring6 버전에 추가된 ProblemDetail 객체에 에러정보를 담아서 리턴하는 방법
+        myboot.errors.problem-detail=true 이면 위의 handleResourceNotFoundException()이 이 형식으로 응답함
      */
 //    @ExceptionHandler(BusinessException.class)
 //    protected ProblemDetail handleException(BusinessException e) {
@@ -53,13 +81,31 @@ public class DefaultExceptionAdvice {
     }
 
     @ExceptionHandler(RuntimeException.class)
-    protected ResponseEntity<ErrorObject> handleException(RuntimeException e) {
+    protected ResponseEntity<?> handleException(RuntimeException e) {
+        logServerError(e);
+
+        if (errorResponseProperties.isProblemDetail()) {
+            return ResponseEntity.internalServerError()
+                    .body(problemDetail(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()));
+        }
         ErrorObject errorObject = new ErrorObject();
         errorObject.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR.value());
         errorObject.setMessage(e.getMessage());
 
-        log.error(e.getMessage(), e);
-
         return new ResponseEntity<ErrorObject>(errorObject, HttpStatusCode.valueOf(500));
     }
-}
\ No newline at end of file
+
+    private void logServerError(RuntimeException e) {
+        long suppressed = serverErrorLog.tryAcquire();
+        if (suppressed != LogThrottle.DENIED) {
+            log.error("{} (이전 로그 {}건 생략)", e.getMessage(), suppressed, e);
+        }
+    }
+
+    // Content-Type은 Spring MVC가 application/problem+json으로 정해 줌
+    private static ProblemDetail problemDetail(HttpStatus status, String message) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, message);
+        problemDetail.setProperty("timestamp", ErrorObject.TIMESTAMP_FORMAT.format(LocalDateTime.now()));
+        return problemDetail;
+    }
+}
@@ -8,14 +8,16 @@ import java.util.Locale;
 
 @Data
 public class ErrorObject {
+    // DateTimeFormatter는 불변 객체라 여러 스레드가 같이 써도 됨 -> 응답마다 패턴을 다시 파싱하지 않도록 한 번만 만듦
+    static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss E a", Locale.KOREAN); //Locale.CHINA, Locale.JAPAN 등도 됨
+
     private Integer statusCode;
     private String message;
     private String timestamp;
 
     public String getTimestamp() {
         LocalDateTime ldt = LocalDateTime.now();
-        return DateTimeFormatter.ofPattern(
-                "yyyy-MM-dd HH:mm:ss E a",
-                Locale.KOREAN).format(ldt); //Locale.CHINA, Locale.JAPAN 등도 됨
+        return TIMESTAMP_FORMAT.format(ldt);
     }
-}
\ No newline at end of file
+}
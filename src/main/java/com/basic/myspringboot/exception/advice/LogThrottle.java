@@ -0,0 +1,43 @@
+package com.basic.myspringboot.exception.advice;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 같은 종류의 에러 로그가 쏟아질 때 로그 양을 제한
+ *
+ * 1초마다 처음 permitsPerSecond 건은 모두 남기고, 그 뒤로는 sampleRate 건 중 1건만 남김
+ * 남길 때마다 그 사이에 생략된 건수를 같이 알려 줘서 실제 발생량을 알 수 있게 함
+ * 락 없이 Atomic 변수만 사용 (초가 바뀌는 순간 몇 건 더 남는 정도의 오차는 허용)
+ */
+final class LogThrottle {
+    static final long DENIED = -1;
+
+    private final int permitsPerSecond;
+    private final int sampleRate;
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger countInSecond = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    LogThrottle(int permitsPerSecond, int sampleRate) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.sampleRate = sampleRate;
+    }
+
+    /** 로그를 남겨도 되면 그 전까지 생략된 건수(0 이상), 생략해야 하면 DENIED */
+    long tryAcquire() {
+        long second = System.nanoTime() / 1_000_000_000L;
+        long previous = currentSecond.get();
+        if (second != previous && currentSecond.compareAndSet(previous, second)) {
+            countInSecond.set(0);
+        }
+        int count = countInSecond.incrementAndGet();
+        boolean sampled = count <= permitsPerSecond
+                || (sampleRate > 0 && (count - permitsPerSecond) % sampleRate == 0);
+        if (!sampled) {
+            suppressed.incrementAndGet();
+            return DENIED;
+        }
+        return suppressed.getAndSet(0);
+    }
+}
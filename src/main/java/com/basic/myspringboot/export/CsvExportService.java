@@ -0,0 +1,181 @@
+package com.basic.myspringboot.export;
+
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.property.ExportProperties;
+import com.basic.myspringboot.shard.UserShards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 테이블 전체를 CSV(또는 gzip으로 압축한 CSV)로 내보내는 서비스
+ *
+ * findAll()처럼 전체를 List에 올리지 않고, 읽기 전용 트랜잭션에서 앞으로만 읽는(TYPE_FORWARD_ONLY) JDBC 커서를
+ * fetch-size 행씩 가져오면서 한 행씩 바로 CSV로 씀
+ * 힙에는 fetch-size 행과 buffer-size 버퍼만 있으므로 테이블 크기(1천만 행 이상)와 상관없이 메모리 사용량이 같음
+ *
+ * - export(): 응답 스트림 등 주어진 OutputStream에 씀 (GET /api/users/export.csv)
+ * - exportToFile(): FileChannel로 파일에 씀 (offline, CsvExportRunner)
+ * 읽기/쓰기 분리(myboot.replica.enabled=true)일 때는 readOnly 트랜잭션이라 replica에서 읽음
+ * 샤딩 모드의 users는 UserShards.findAfter()로 모든 샤드에서 fetch-size 행씩 id 순으로 합쳐서 씀
+ * (컬럼과 순서는 ExportTable.USERS와 같음, 페이지마다 따로 읽으므로 한 시점의 스냅샷은 아님)
+ */
+@Service
+@RequiredArgsConstructor
+public class CsvExportService {
+    // ExportTable.USERS의 SELECT 컬럼 순서
+    private static final List<String> USER_COLUMNS =
+            List.of("id", "name", "email", "created_at", "updated_at", "version");
+    // JDBC getString()과 같은 모양 (2024-01-02 03:04:05.123456, 소수점 아래 0은 생략)
+    private static final DateTimeFormatter DATE_TIME = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 6, true)
+            .toFormatter();
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ExportProperties properties;
+    private final ObjectProvider<UserShards> userShards;
+
+    /**
+     * out에 CSV를 쓰고 데이터 행 수를 반환 (out은 닫지 않음)
+     * StreamingResponseBody처럼 컨트롤러 메서드가 끝난 뒤 다른 스레드에서 실행되므로 TransactionTemplate으로 트랜잭션을 엶
+     */
+    public long export(ExportTable table, OutputStream out, boolean gzip) throws IOException {
+        int bufferSize = (int) properties.getBufferSize().toBytes();
+        GZIPOutputStream gzipOut = gzip ? gzip(out, bufferSize) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzipOut != null ? gzipOut : out, StandardCharsets.UTF_8), bufferSize);
+
+        UserShards shards = table == ExportTable.USERS ? userShards.getIfAvailable() : null;
+        long rows;
+        if (shards != null) {
+            rows = writeSharded(shards, writer);
+        } else {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            try {
+                rows = transactionTemplate.execute(status -> query(table, writer));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        writer.flush();
+        if (gzipOut != null) {
+            // 압축 스트림의 끝(trailer)만 쓰고 out은 닫지 않음
+            gzipOut.finish();
+        }
+        return rows;
+    }
+
+    /**
+     * directory/{table}.csv(.gz) 파일로 내보냄
+     * 같은 디렉터리의 임시 파일에 다 쓴 뒤 이름을 바꾸므로, 읽는 쪽은 쓰다 만 파일을 보지 않음
+     */
+    public ExportResult exportToFile(ExportTable table, Path directory, boolean gzip) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Path target = directory.resolve(table.getFileName() + (gzip ? ".csv.gz" : ".csv"));
+        // createTempFile()은 권한이 rw------- 이므로 다른 사용자도 읽을 수 있게 직접 만듦
+        Path temp = target.resolveSibling(target.getFileName() + "." + System.nanoTime() + ".tmp");
+        long rows;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                // Channels.newOutputStream: 버퍼(buffer-size)가 찰 때마다 FileChannel.write() 한 번
+                rows = export(table, Channels.newOutputStream(channel), gzip);
+                channel.force(false);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return new ExportResult(table, target.toAbsolutePath(), rows, Files.size(target),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long query(ExportTable table, Writer writer) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(properties.getFetchSize());
+        return jdbcTemplate.query(
+                connection -> connection.prepareStatement(table.getSql(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY),
+                (ResultSetExtractor<Long>) rs -> {
+                    try {
+                        CsvRowWriter csv = new CsvRowWriter(writer, rs.getMetaData());
+                        csv.writeHeader(rs.getMetaData());
+                        long rows = 0;
+                        while (rs.next()) {
+                            csv.writeRow(rs);
+                            rows++;
+                        }
+                        return rows;
+                    } catch (IOException e) {
+                        // 클라이언트가 연결을 끊은 경우 등, 트랜잭션을 끝내고 커서를 닫은 뒤 다시 IOException으로 던짐
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private long writeSharded(UserShards shards, Writer writer) throws IOException {
+        CsvRowWriter csv = new CsvRowWriter(writer, USER_COLUMNS.size());
+        csv.writeLine(USER_COLUMNS);
+        int fetchSize = Math.max(1, properties.getFetchSize());
+        long rows = 0;
+        long after = 0;
+        List<UserResponse> page;
+        do {
+            page = shards.findAfter(after, fetchSize);
+            for (UserResponse user : page) {
+                csv.writeLine(Arrays.asList(String.valueOf(user.id()), user.name(), user.email(),
+                        format(user.createdAt()), format(user.updatedAt()), String.valueOf(user.version())));
+                after = user.id();
+            }
+            rows += page.size();
+        } while (page.size() == fetchSize);
+        return rows;
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : DATE_TIME.format(dateTime);
+    }
+
+    private GZIPOutputStream gzip(OutputStream out, int bufferSize) throws IOException {
+        int level = properties.getGzipLevel();
+        return new GZIPOutputStream(out, bufferSize) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    /** 파일로 내보낸 결과 (elapsedMillis: 읽기 + 쓰기 전체 시간) */
+    public record ExportResult(ExportTable table, Path path, long rows, long bytes, long elapsedMillis) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.basic.myspringboot.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ResultSet의 현재 행을 CSV(RFC 4180) 한 줄로 씀
+ * 행을 객체로 만들지 않고 컬럼 값을 바로 Writer에 씀 (행마다 남는 객체가 없음)
+ * ResultSet이 없는 경우(샤드에서 합친 행)는 값 목록을 그대로 한 줄로 씀
+ *  - 구분자 , / 줄바꿈 \r\n
+ *  - 값에 , " \r \n 이 있으면 "로 감싸고 " 는 "" 로 바꿈
+ *  - NULL은 빈 칸
+ */
+class CsvRowWriter {
+    private final Writer writer;
+    private final int columnCount;
+
+    CsvRowWriter(Writer writer, ResultSetMetaData metaData) throws SQLException {
+        this(writer, metaData.getColumnCount());
+    }
+
+    CsvRowWriter(Writer writer, int columnCount) {
+        this.writer = writer;
+        this.columnCount = columnCount;
+    }
+
+    void writeHeader(ResultSetMetaData metaData) throws SQLException, IOException {
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1) {
+                writer.write(',');
+            }
+            writeValue(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT));
+        }
+        writer.write("\r\n");
+    }
+
+    void writeRow(ResultSet rs) throws SQLException, IOException {
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1) {
+                writer.write(',');
+            }
+            String value = rs.getString(i);
+            if (value != null) {
+                writeValue(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /** 헤더나 행 하나 (values.size()는 columnCount, null은 빈 칸) */
+    void writeLine(List<String> values) throws IOException {
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values.get(i);
+            if (value != null) {
+                writeValue(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                writer.write(value, start, i - start + 1);
+                writer.write('"');
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package com.basic.myspringboot.export;
+
+import com.basic.myspringboot.exception.ExpectedBusinessException;
+
+import java.util.Locale;
+
+/**
+ * CSV로 내보낼 수 있는 테이블과 읽는 SQL
+ * 엔티티를 거치지 않고 컬럼을 그대로 읽어서 CSV로 씀 (PK 순서)
+ */
+public enum ExportTable {
+    USERS("users", "SELECT id, name, email, created_at, updated_at, version FROM users ORDER BY id"),
+    CUSTOMERS("customers", "SELECT id, customer_id, customer_name FROM customers ORDER BY id");
+
+    private final String fileName;
+    private final String sql;
+
+    ExportTable(String fileName, String sql) {
+        this.fileName = fileName;
+        this.sql = sql;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /** myboot.export.tables 값(users, customers) -> ExportTable */
+    public static ExportTable of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw ExpectedBusinessException.badRequest("내보낼 수 없는 테이블입니다: " + name);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.basic.myspringboot.feed;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 최근 capacity개의 변경만 보관하는 고정 크기 링 버퍼
+ *
+ * 추가할 때마다 1부터 하나씩 커지는 offset을 붙이고, 읽는 쪽은 "offset 이후"를 각자 자기 속도로 읽음
+ *  - 쓰는 쪽은 읽는 쪽을 기다리지 않음 (가장 오래된 칸을 덮어씀)
+ *  - 읽는 쪽이 너무 늦어서 읽을 칸이 덮어쓰였으면 readAfter()가 false (중간 변경을 놓쳤음)
+ *
+ * 추가는 synchronized로 한 번에 하나씩, 읽기는 락 없이 칸의 offset을 보고 덮어쓰였는지 확인
+ */
+public class ChangeRing<T> {
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final int capacity;
+    // 마지막으로 추가한 offset (아직 없으면 0), 칸을 채운 뒤에 올려서 읽는 쪽이 빈 칸을 보지 않게 함
+    private volatile long head;
+
+    public ChangeRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public synchronized long append(T value) {
+        long offset = head + 1;
+        slots.set(slot(offset), new Entry<>(offset, value));
+        head = offset;
+        return offset;
+    }
+
+    /**
+     * after 다음 offset부터 최대 max개를 out에 담음
+     * @return 그 사이 변경이 덮어쓰여서 이어 읽을 수 없으면 false (out은 비움)
+     */
+    public boolean readAfter(long after, int max, List<Entry<T>> out) {
+        long current = head;
+        if (after < current - capacity) {
+            return false;
+        }
+        long last = Math.min(current, after + max);
+        for (long offset = after + 1; offset <= last; offset++) {
+            Entry<T> entry = slots.get(slot(offset));
+            // 읽는 동안 쓰는 쪽이 한 바퀴 돌아서 덮어씀
+            if (entry.offset() != offset) {
+                out.clear();
+                return false;
+            }
+            out.add(entry);
+        }
+        return true;
+    }
+
+    /** 마지막으로 추가한 offset (없으면 0) */
+    public long head() {
+        return head;
+    }
+
+    /** 아직 남아 있는 가장 오래된 offset - 1 (이 값 이상에서 이어 읽을 수 있음) */
+    public long tail() {
+        return Math.max(0, head - capacity);
+    }
+
+    private int slot(long offset) {
+        return (int) (offset % capacity);
+    }
+
+    public record Entry<T>(long offset, T value) {
+    }
+}
@@ -0,0 +1,232 @@
+package com.basic.myspringboot.feed;
+
+import com.basic.myspringboot.dto.UserChange;
+import com.basic.myspringboot.exception.ExpectedBusinessException;
+import com.basic.myspringboot.property.ChangeFeedProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * User 생성/수정/삭제를 SSE(GET /api/users/changes)로 보내는 변경 피드
+ *
+ * UserService가 커밋된 변경만 publish()로 넣고, 최근 myboot.users.changes.capacity건을 ChangeRing에 보관함
+ * 이벤트 id는 "{서버 시작 시각}-{offset}"이라서 브라우저 EventSource가 다시 연결할 때 보내는 Last-Event-ID로 이어 받음
+ *  - 보관 범위 밖이거나 이전 실행의 id면 reset 이벤트를 먼저 보냄 (클라이언트는 GET /api/users로 전체를 다시 읽음)
+ *
+ * 구독자마다 자기 offset을 따로 들고 가상 스레드에서 자기 속도로 보냄
+ *  - publish()는 링 버퍼에 넣고 구독자를 깨우기만 하므로 느린 구독자를 기다리지 않음
+ *  - 느린 구독자 하나가 소켓 쓰기에서 막혀도 다른 구독자는 각자 스레드에서 계속 받음
+ *  - 너무 늦어서 링 버퍼가 한 바퀴 돌면 그 구독자에게만 reset을 보내고 최신 위치부터 다시 보냄
+ *
+ * 메트릭
+ *  - users.changes.subscribers: 연결된 구독자 수, users.changes.offset: 마지막 변경 offset
+ *  - users.changes.published: 넣은 변경 수, users.changes.resets: 보관 범위를 벗어나 reset을 보낸 수
+ */
+@Component
+public class UserChangeFeed implements DisposableBean {
+    public static final String RESET = "reset";
+
+    private final ChangeFeedProperties properties;
+    private final ChangeRing<UserChange> ring;
+    // 서버가 다시 시작되면 offset이 1부터 다시 시작하므로 이전 실행의 Last-Event-ID와 구분하려고 id 앞에 붙임
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscription> subscribers = ConcurrentHashMap.newKeySet();
+    // max-subscribers 자리, 확인과 차지를 한 번에 해서 동시에 구독해도 넘지 않게 함 (연결이 끝나면 돌려줌)
+    private final Semaphore slots;
+    private final ExecutorService senders =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-changes-", 0).factory());
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("user-changes-heartbeat").daemon().factory());
+    private final Counter published;
+    private final Counter resets;
+
+    public UserChangeFeed(ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.ring = new ChangeRing<>(properties.getCapacity());
+        this.slots = new Semaphore(properties.getMaxSubscribers());
+        this.published = Counter.builder("users.changes.published")
+                .description("변경 피드에 넣은 User 변경 수")
+                .register(meterRegistry);
+        this.resets = Counter.builder("users.changes.resets")
+                .description("보관 범위를 벗어나 구독자에게 reset을 보낸 수")
+                .register(meterRegistry);
+        Gauge.builder("users.changes.subscribers", subscribers, Set::size)
+                .register(meterRegistry);
+        Gauge.builder("users.changes.offset", ring, ChangeRing::head)
+                .register(meterRegistry);
+        long heartbeat = properties.getHeartbeat().toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    /** 커밋된 변경 한 건을 넣고 구독자를 깨움 */
+    public void publish(UserChange change) {
+        ring.append(change);
+        published.increment();
+        subscribers.forEach(Subscription::signal);
+    }
+
+    /**
+     * lastEventId 다음 변경부터 보내는 SseEmitter (없으면 지금 이후의 변경만)
+     * 구독자가 max-subscribers만큼 있으면 BusinessException(503)
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (!slots.tryAcquire()) {
+            throw new ExpectedBusinessException("변경 피드 구독자가 많아 연결할 수 없습니다. 잠시 후 다시 시도해 주세요.",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        SseEmitter emitter = createEmitter(properties.getTimeout().toMillis());
+        Subscription subscription = new Subscription(emitter);
+        long resumeFrom = resumeOffset(lastEventId);
+        if (resumeFrom < 0) {
+            subscription.cursor = ring.head();
+            subscription.resetPending = true;
+            resets.increment();
+        } else {
+            subscription.cursor = resumeFrom;
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscription.close());
+        subscribers.add(subscription);
+        // 응답 헤더를 바로 보내도록 첫 heartbeat(또는 밀린 변경)를 보냄
+        subscription.signal();
+        return emitter;
+    }
+
+    // 테스트에서 보낸 이벤트를 기록하는 emitter로 바꿀 수 있게 분리
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscription -> subscription.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    // Last-Event-ID에서 이어 받을 offset, 이어 받을 수 없으면 -1
+    private long resumeOffset(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return ring.head();
+        }
+        int dash = lastEventId.indexOf('-');
+        if (dash < 0 || !epoch.equals(lastEventId.substring(0, dash))) {
+            return -1;
+        }
+        try {
+            long offset = Long.parseLong(lastEventId.substring(dash + 1));
+            return offset >= ring.tail() && offset <= ring.head() ? offset : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(subscription -> {
+            subscription.heartbeatDue = true;
+            subscription.signal();
+        });
+    }
+
+    private String eventId(long offset) {
+        return epoch + "-" + offset;
+    }
+
+    private final class Subscription {
+        private final SseEmitter emitter;
+        // 보내는 작업이 이미 예약/실행 중이면 true (한 구독자에게는 한 스레드만 보냄)
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // 마지막으로 보낸 offset (보내는 스레드만 바꿈)
+        private volatile long cursor;
+        private volatile boolean resetPending;
+        private volatile boolean heartbeatDue = true;
+        private volatile boolean closed;
+
+        private Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void signal() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    send();
+                    scheduled.set(false);
+                    // 내려놓는 사이에 들어온 변경은 signal()이 예약하지 못했을 수 있으므로 다시 확인
+                } while (!closed && pending() && scheduled.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // 연결이 끊겼거나 이미 완료된 emitter
+                close();
+            }
+        }
+
+        private boolean pending() {
+            return resetPending || heartbeatDue || cursor < ring.head();
+        }
+
+        private void send() throws IOException {
+            if (resetPending) {
+                sendReset("expired");
+            }
+            List<ChangeRing.Entry<UserChange>> batch = new ArrayList<>(properties.getBatchSize());
+            if (!ring.readAfter(cursor, properties.getBatchSize(), batch)) {
+                // 보내는 속도가 변경 속도를 따라가지 못해서 링 버퍼가 한 바퀴 돎
+                cursor = ring.head();
+                resets.increment();
+                sendReset("overrun");
+                return;
+            }
+            for (ChangeRing.Entry<UserChange> entry : batch) {
+                UserChange change = entry.value();
+                emitter.send(SseEmitter.event()
+                        .id(eventId(entry.offset()))
+                        .name(change.type().name().toLowerCase(Locale.ROOT))
+                        .data(change));
+                cursor = entry.offset();
+            }
+            if (batch.isEmpty() && heartbeatDue) {
+                emitter.send(SseEmitter.event().comment(""));
+            }
+            heartbeatDue = false;
+        }
+
+        private void sendReset(String reason) throws IOException {
+            resetPending = false;
+            heartbeatDue = false;
+            emitter.send(SseEmitter.event().id(eventId(cursor)).name(RESET).data(Map.of("reason", reason)));
+        }
+
+        private void close() {
+            closed = true;
+            // onCompletion, onError가 모두 불려도 자리는 한 번만 돌려줌
+            if (subscribers.remove(this)) {
+                slots.release();
+            }
+        }
+    }
+}
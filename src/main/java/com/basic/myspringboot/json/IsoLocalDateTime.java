@@ -0,0 +1,75 @@
+package com.basic.myspringboot.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * LocalDateTime을 DateTimeFormatter.ISO_LOCAL_DATE_TIME과 같은 형식으로 char 배열에 직접 써서 출력
+ * (JavaTimeModule의 기본 LocalDateTime 직렬화 결과와 같음)
+ *
+ * yyyy-MM-ddTHH:mm:ss 뒤에 나노초가 0이 아니면 .과 끝의 0을 뺀 소수 자리 (예: .5, .123456)
+ * 4자리로 나타낼 수 없는 연도(음수, 10000 이상)는 DateTimeFormatter로 처리
+ * WRITE_DATES_AS_TIMESTAMPS를 켠 ObjectMapper라면 JavaTimeModule에 맡김 ([2024,1,2,...] 배열 형식)
+ */
+final class IsoLocalDateTime {
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private static final int MAX_LENGTH = 29;
+
+    private IsoLocalDateTime() {
+    }
+
+    static void write(JsonGenerator gen, SerializerProvider provider, LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(value, gen);
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, value.getSecond(), 2);
+        int length = 19;
+
+        int nano = value.getNano();
+        if (nano > 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer[length++] = '.';
+            writeDigits(buffer, length, nano, digits);
+            length += digits;
+        }
+        gen.writeString(buffer, 0, length);
+    }
+
+    // value를 width 자리로 (앞은 0으로 채움)
+    private static void writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.basic.myspringboot.json;
+
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.entity.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * User, UserResponse 전용 직렬화기 (목록/단건 조회, NDJSON 스트림이 가장 많이 쓰는 타입)
+ *
+ * 기본 BeanSerializer는 속성마다 값을 꺼내서 타입별 직렬화기를 찾아 호출하고,
+ * LocalDateTime은 JavaTimeModule이 매번 DateTimeFormatter로 String을 만든 뒤 씀
+ * 여기서는 필드 이름을 미리 UTF-8로 인코딩해 둔 SerializedString으로 쓰고, 날짜는 IsoLocalDateTime이 바로 씀
+ *
+ * JSON 모양(필드 순서, null 포함, 날짜 형식)은 기본 ObjectMapper와 같아야 함 (UserJsonModuleTest)
+ * 필드를 추가/변경하면 여기도 같이 바꿔야 함
+ */
+public class UserJsonModule extends SimpleModule {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final int FIELD_COUNT = 6;
+
+    public UserJsonModule() {
+        super(UserJsonModule.class.getSimpleName());
+        addSerializer(UserResponse.class, new UserResponseSerializer());
+        // Hibernate 프록시(User의 하위 클래스)도 이 직렬화기를 씀
+        addSerializer(User.class, new UserSerializer());
+    }
+
+    private static final class UserResponseSerializer extends StdSerializer<UserResponse> {
+        UserResponseSerializer() {
+            super(UserResponse.class);
+        }
+
+        @Override
+        public void serialize(UserResponse user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(user, FIELD_COUNT);
+            writeFields(gen, provider, user.id(), user.name(), user.email(), user.createdAt(),
+                    user.version(), user.updatedAt());
+            gen.writeEndObject();
+        }
+    }
+
+    private static final class UserSerializer extends StdSerializer<User> {
+        UserSerializer() {
+            super(User.class);
+        }
+
+        @Override
+        public void serialize(User user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(user, FIELD_COUNT);
+            writeFields(gen, provider, user.getId(), user.getName(), user.getEmail(), user.getCreatedAt(),
+                    user.getVersion(), user.getUpdatedAt());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeFields(JsonGenerator gen, SerializerProvider provider,
+                                    Long id, String name, String email,
+                                    LocalDateTime createdAt, Long version, LocalDateTime updatedAt) throws IOException {
+        gen.writeFieldName(ID);
+        writeNumber(gen, id);
+        gen.writeFieldName(NAME);
+        gen.writeString(name);
+        gen.writeFieldName(EMAIL);
+        gen.writeString(email);
+        gen.writeFieldName(CREATED_AT);
+        IsoLocalDateTime.write(gen, provider, createdAt);
+        gen.writeFieldName(VERSION);
+        writeNumber(gen, version);
+        gen.writeFieldName(UPDATED_AT);
+        IsoLocalDateTime.write(gen, provider, updatedAt);
+    }
+
+    private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.basic.myspringboot.limit;
+
+import com.basic.myspringboot.property.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 응답 시간을 보고 동시에 처리할 요청 수(한도)를 스스로 조정하는 limiter (Netflix concurrency-limits의 Gradient2 방식)
+ *
+ * DB가 느려지면 요청이 Hikari getConnection()에서 줄을 서면서 응답 시간이 늘어남
+ * sampleWindow 건마다 그 구간의 평균 응답 시간(짧은 RTT)을 평소 응답 시간(긴 RTT, 지수 이동 평균)과 비교해서
+ *  - gradient = rttTolerance * 긴 RTT / 짧은 RTT (0.5 ~ 1.0)
+ *  - 새 한도 = 한도 * gradient + sqrt(한도) (최소 4, 응답 시간이 그대로면 조금씩 늘려 봄)
+ *  - smoothing 비율만큼만 반영하고, 구간에 5xx가 있었으면 한도 * dropBackoffRatio 로 바로 줄임
+ * 한도의 절반도 쓰지 않는 구간은 응답 시간만으로 여유를 알 수 없으므로 한도를 늘리지 않음
+ *
+ * 처리 중인 요청 수는 락 없이 AtomicInteger로 세고, 한도 계산만 구간마다 한 번씩 synchronized로 함
+ */
+public class AdaptiveConcurrencyLimiter {
+    public static final int REJECTED = -1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final int sampleWindow;
+    private final double longRttAlpha;
+    private final double dropBackoffRatio;
+    private final double reservedRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // 아래 값은 synchronized(onSample) 안에서만 읽고 씀
+    private double estimatedLimit;
+    private double longRtt;
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.rttTolerance = properties.getRttTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.sampleWindow = Math.max(1, properties.getSampleWindow());
+        this.longRttAlpha = 2.0 / (properties.getLongWindow() + 1);
+        this.dropBackoffRatio = properties.getDropBackoffRatio();
+        this.reservedRatio = properties.getReservedRatio();
+        this.estimatedLimit = clamp(properties.getInitialLimit());
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * 처리해도 되면 지금 처리 중인 요청 수(이 요청 포함), 한도가 찼으면 REJECTED
+     * 우선순위가 아닌 요청은 한도의 (1 - reservedRatio)까지만 받음
+     */
+    public int tryAcquire(boolean prioritized) {
+        int current = limit;
+        int max = prioritized ? current : Math.max(1, (int) (current * (1 - reservedRatio)));
+        while (true) {
+            int active = inFlight.get();
+            if (active >= max) {
+                return REJECTED;
+            }
+            if (inFlight.compareAndSet(active, active + 1)) {
+                return active + 1;
+            }
+        }
+    }
+
+    /**
+     * 처리가 끝나면 반납하면서 응답 시간을 반영
+     * inFlightAtStart: tryAcquire가 돌려준 값, dropped: 5xx 또는 예외로 끝났는지
+     */
+    public void release(long rttNanos, int inFlightAtStart, boolean dropped) {
+        inFlight.decrementAndGet();
+        onSample(rttNanos, inFlightAtStart, dropped);
+    }
+
+    /** 응답 시간을 반영하지 않고 반납 (비동기로 오래 스트리밍한 응답 등) */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        windowRttSum += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        windowDropped |= dropped;
+        if (++windowCount < sampleWindow) {
+            return;
+        }
+        double shortRtt = Math.max(1, (double) windowRttSum / windowCount);
+        int maxInFlight = windowMaxInFlight;
+        boolean anyDropped = windowDropped;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) * longRttAlpha;
+        // 부하가 줄어서 응답이 평소보다 훨씬 빨라졌으면 평소 값도 빨리 따라 내려가게 함
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double newLimit;
+        if (anyDropped) {
+            newLimit = estimatedLimit * dropBackoffRatio;
+        } else if (maxInFlight < estimatedLimit / 2) {
+            return;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+            double queueSize = Math.max(4, Math.sqrt(estimatedLimit));
+            newLimit = estimatedLimit * gradient + queueSize;
+            newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        }
+        estimatedLimit = clamp(newLimit);
+        limit = (int) estimatedLimit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,127 @@
+package com.basic.myspringboot.limit;
+
+import com.basic.myspringboot.exception.advice.ErrorObject;
+import com.basic.myspringboot.property.ConcurrencyLimitProperties.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 컨트롤러 앞에서 AdaptiveConcurrencyLimiter로 동시 처리 수를 제한하는 필터
+ *
+ * 한도가 차면 DB 커넥션을 기다리며 줄을 세우지 않고 바로 503 + Retry-After로 응답함
+ * (기다리다 시간 초과되는 요청 때문에 다른 요청까지 느려지는 것을 막음)
+ * GET/HEAD는 읽기, 그 밖의 메서드는 쓰기로 보고 priority 쪽 요청이 한도를 먼저 씀
+ *
+ * 비동기로 응답하는 요청(NDJSON/CSV 스트리밍 등)은 응답이 끝날 때 반납하고,
+ * 응답 시간이 요청 처리 시간이 아니라 전송 시간이므로 한도 계산에는 넣지 않음
+ * SSE(text/event-stream) 구독은 응답이 끝날 때까지 기다리지 않고 연결되면 바로 반납
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Priority priority;
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, Priority priority, Duration retryAfter,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.priority = priority;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.objectMapper = objectMapper;
+        this.rejectedReads = rejectedCounter(meterRegistry, "read");
+        this.rejectedWrites = rejectedCounter(meterRegistry, "write");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        boolean prioritized = switch (priority) {
+            case READ -> read;
+            case WRITE -> !read;
+            case NONE -> true;
+        };
+        int inFlight = limiter.tryAcquire(prioritized);
+        if (inFlight == AdaptiveConcurrencyLimiter.REJECTED) {
+            (read ? rejectedReads : rejectedWrites).increment();
+            reject(response);
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted() && isEventStream(response)) {
+                // SSE 구독은 몇십 분씩 열려 있으므로 연결을 맺을 때까지만 한도를 씀
+                limiter.release();
+            } else if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            } else {
+                limiter.release(System.nanoTime() - started, inFlight,
+                        failed || response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        ErrorObject errorObject = new ErrorObject();
+        errorObject.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorObject.setMessage("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorObject);
+    }
+
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("http.server.concurrency.rejected")
+                .description("한도가 차서 503으로 거절한 요청 수")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    // onComplete는 정상 완료, 오류, 시간 초과 어느 경우에도 마지막에 한 번 호출됨
+    private final class ReleaseOnComplete implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// User 변경 피드(GET /api/users/changes) 설정값 (application.properties의 myboot.users.changes.*)
+@Component
+@ConfigurationProperties("myboot.users.changes")
+@Getter @Setter
+public class ChangeFeedProperties {
+    // 메모리에 보관하는 최근 변경 수, Last-Event-ID가 이보다 오래되었으면 reset 이벤트를 보냄
+    private int capacity = 10_000;
+    // 동시에 연결할 수 있는 구독자 수, 넘으면 503
+    private int maxSubscribers = 1000;
+    // 구독자에게 보낼 때 링 버퍼에서 한 번에 꺼내는 이벤트 수
+    private int batchSize = 100;
+    // 변경이 없을 때 연결이 살아 있는지 확인하려고 보내는 주석 줄 간격
+    private Duration heartbeat = Duration.ofSeconds(15);
+    // 연결 하나를 유지하는 최대 시간, 끊기면 EventSource가 Last-Event-ID로 다시 연결해서 이어 받음
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,45 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// 요청 동시 처리 수 적응형 제한 설정값 (application.properties의 myboot.limit.*)
+@Component
+@ConfigurationProperties("myboot.limit")
+@Getter @Setter
+public class ConcurrencyLimitProperties {
+    // true면 urlPatterns 요청을 ConcurrencyLimitFilter가 제한
+    private boolean enabled = false;
+    // 제한할 요청 경로 (서블릿 URL 패턴)
+    private List<String> urlPatterns = new ArrayList<>(List.of("/api/users/*", "/index"));
+    // 시작할 때의 동시 처리 한도, 이후 응답 시간을 보고 minLimit ~ maxLimit 사이에서 조정
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+    // 최근 응답 시간이 평소(장기 평균)의 이 배수까지는 느려져도 한도를 줄이지 않음
+    private double rttTolerance = 1.5;
+    // 새로 계산한 한도를 얼마나 반영할지 (0~1, 클수록 빨리 따라감)
+    private double smoothing = 0.2;
+    // 응답 몇 건마다 한도를 다시 계산할지 (이 건수의 평균 응답 시간을 최근 응답 시간으로 씀)
+    private int sampleWindow = 20;
+    // 평소 응답 시간(장기 지수 이동 평균)에 반영할 구간 크기 (sampleWindow 단위 횟수)
+    private int longWindow = 100;
+    // 5xx 응답(커넥션 타임아웃 등)이 있었던 구간은 한도에 이 비율을 곱함
+    private double dropBackoffRatio = 0.9;
+    // 한도가 찼을 때 먼저 받아 줄 요청 (READ: GET/HEAD, WRITE: 그 밖의 메서드, NONE: 구분하지 않음)
+    private Priority priority = Priority.READ;
+    // 우선순위가 아닌 요청은 한도의 (1 - 이 비율)까지만 사용 (나머지는 우선순위 요청 몫으로 남겨 둠)
+    private double reservedRatio = 0.2;
+    // 503 응답의 Retry-After
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public enum Priority {
+        READ, WRITE, NONE
+    }
+}
@@ -0,0 +1,17 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// 고객 이름 검색 설정값 (application.properties의 myboot.customers.search.*)
+@Component
+@ConfigurationProperties("myboot.customers.search")
+@Getter @Setter
+public class CustomerSearchProperties {
+    // 색인 단위 글자 수 (한글 이름은 두 글자 검색이 많아서 2-gram이 기본, 이보다 짧은 1 ~ n-1 글자 gram도 같이 색인함)
+    private int gramSize = 2;
+    // ?size= 로 요청할 수 있는 최대 크기
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,21 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// users.email Bloom filter 설정값 (application.properties의 myboot.users.email-filter.*)
+@Component
+@ConfigurationProperties("myboot.users.email-filter")
+@Getter @Setter
+public class EmailFilterProperties {
+    // false면 email 조회/중복 확인을 항상 DB로 보냄
+    private boolean enabled = true;
+    // 담을 email 수, 테이블이 이보다 크면 다시 만들 때 (행 수 * 2)로 키움
+    private long expectedInsertions = 1_000_000;
+    // 목표 false positive 비율 (작을수록 메모리를 더 씀, 1%면 email 하나에 약 10비트)
+    private double falsePositiveRate = 0.01;
+    // 삭제되어 필터에 남은 예전 email 수가 담은 수의 이 비율을 넘으면 백그라운드에서 다시 만듦
+    private double rebuildRatio = 0.2;
+}
@@ -0,0 +1,19 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// 에러 응답/로그 설정값 (application.properties의 myboot.errors.*)
+@Component
+@ConfigurationProperties("myboot.errors")
+@Getter @Setter
+public class ErrorResponseProperties {
+    // true면 ErrorObject 대신 RFC 7807 ProblemDetail(application/problem+json)로 응답
+    private boolean problemDetail = false;
+    // 상태 코드 종류(4xx, 5xx)별로 1초에 남기는 최대 로그 수
+    private int logPermitsPerSecond = 10;
+    // 초과한 뒤에는 N건 중 1건만 남김 (0이면 초과분은 모두 생략)
+    private int logSampleRate = 100;
+}
@@ -0,0 +1,30 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV 내보내기 설정값 (application.properties의 myboot.export.*)
+@Component
+@ConfigurationProperties("myboot.export")
+@Getter @Setter
+public class ExportProperties {
+    // JDBC 드라이버가 한 번에 가져오는 행 수 (MariaDB는 0보다 커야 전체 결과를 메모리에 올리지 않고 커서로 읽음)
+    private int fetchSize = 1000;
+    // CSV를 모아서 쓰는 버퍼 크기 (응답 소켓, 파일에 이 크기 단위로 씀)
+    private DataSize bufferSize = DataSize.ofKilobytes(64);
+    // gzip 압축 수준 (1: 가장 빠름 ~ 9: 가장 작음), 내보내기는 CPU보다 처리량이 중요해서 1이 기본
+    private int gzipLevel = 1;
+    // 파일로 내보내기(offline) 할 테이블 (users, customers), 비어 있으면 실행하지 않음
+    private List<String> tables = new ArrayList<>();
+    // 파일로 내보낼 디렉터리
+    private Path directory = Path.of("export");
+    // 파일을 gzip으로 압축할지 (.csv.gz)
+    private boolean gzip = true;
+}
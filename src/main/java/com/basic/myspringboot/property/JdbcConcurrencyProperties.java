@@ -0,0 +1,19 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// 가상 스레드 모드의 JDBC 동시 사용 제한 (application.properties의 myboot.jdbc.*)
+@Component
+@ConfigurationProperties("myboot.jdbc")
+@Getter @Setter
+public class JdbcConcurrencyProperties {
+    // 동시에 커넥션을 쓸 수 있는 요청 수, 0이면 Hikari maximum-pool-size와 같게 맞춤
+    private int maxConcurrency = 0;
+    // 허가를 기다리는 최대 시간 (Hikari connection-timeout 기본값과 같음)
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,19 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// JSON 직렬화 설정값 (application.properties의 myboot.json.*)
+@Component
+@ConfigurationProperties("myboot.json")
+@Getter @Setter
+public class JsonProperties {
+    // true: Blackbird 모듈, User/UserResponse 전용 직렬화기, 스레드 간 공유 버퍼 풀 사용 (JsonConfig)
+    // false: Spring Boot 기본 ObjectMapper 그대로
+    private boolean optimized = true;
+    // JsonGenerator가 빌려 쓰는 출력 버퍼(8KB 내외) 묶음을 최대 몇 개까지 보관할지
+    // 동시에 직렬화하는 요청 수보다 크면 충분하고, 넘치는 요청은 버퍼를 새로 만들어 쓰고 버림
+    private int bufferPoolSize = 256;
+}
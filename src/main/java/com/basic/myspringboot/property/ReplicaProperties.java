@@ -0,0 +1,26 @@
+package com.basic.myspringboot.property;
+
+import com.zaxxer.hikari.HikariConfig;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// 읽기 전용 복제본(replica) 설정값 (application.properties의 myboot.replica.*)
+@Component
+@ConfigurationProperties("myboot.replica")
+@Getter @Setter
+public class ReplicaProperties {
+    // true 이면 readOnly 트랜잭션을 replica로 보냄 (ReadReplicaConfig)
+    private boolean enabled = false;
+    // replica마다 Hikari 풀 하나 (jdbc-url, username, password, maximum-pool-size, connection-timeout 등 HikariConfig 속성)
+    private List<HikariConfig> pools = new ArrayList<>();
+    // 커넥션을 얻지 못한 replica를 다시 시도하기 전까지 빼 두는 시간
+    private Duration retryInterval = Duration.ofSeconds(10);
+    // 쓰기 요청을 한 클라이언트는 이 시간 동안 읽기도 primary에서 함 (replica 복제 지연보다 길게)
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
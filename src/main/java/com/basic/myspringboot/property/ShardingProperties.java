@@ -0,0 +1,44 @@
+package com.basic.myspringboot.property;
+
+import com.zaxxer.hikari.HikariConfig;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// users 샤딩 설정값 (application.properties의 myboot.sharding.*)
+@Component
+@ConfigurationProperties("myboot.sharding")
+@Getter @Setter
+public class ShardingProperties {
+    // true 이면 users를 shards의 DB들에 email 해시로 나눠서 저장 (ShardingConfig)
+    private boolean enabled = false;
+    // 샤드마다 Hikari 풀 하나 (jdbc-url, username, password, maximum-pool-size 등 HikariConfig 속성), 순서가 곧 샤드 번호
+    private List<HikariConfig> shards = new ArrayList<>();
+    // 시작할 때 샤드에 users 테이블, 시퀀스가 없으면 만듦 (db/user-shard-schema.sql)
+    private boolean initializeSchema = false;
+    // 목록/개수처럼 모든 샤드에 묻는 조회에서 가장 늦은 샤드를 기다리는 시간
+    private Duration fanOutTimeout = Duration.ofSeconds(5);
+
+    // 리샤딩 도구(ReshardRunner): copy면 지금 구성(shards, 샤딩 전이면 spring.datasource)을 reshard-targets로 복사,
+    // cleanup이면 지금 구성에서 자기 샤드가 아닌 행을 정리
+    private ReshardMode reshard;
+    // 새 샤드 구성 (shards와 같은 형식)
+    private List<HikariConfig> reshardTargets = new ArrayList<>();
+    // 한 번에 읽고 쓰는 행 수
+    private int reshardBatchSize = 1000;
+    // 배치 사이에 쉬는 시간 (서비스 중인 샤드의 부하를 줄임)
+    private Duration reshardPause = Duration.ofMillis(50);
+    // 바뀐 행이 없을 때까지 복사를 반복하는 최대 횟수
+    private int reshardMaxPasses = 5;
+    // 복사한 뒤 새 샤드의 시퀀스를 지금까지 쓴 값보다 이만큼 더 뒤로 맞춤 (전환 직전에 들어온 행의 id와 겹치지 않게)
+    private long reshardIdGap = 1_000_000;
+
+    public enum ReshardMode {
+        COPY, CLEANUP
+    }
+}
@@ -0,0 +1,23 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// 느린 쿼리 기록 설정값 (application.properties의 myboot.slow-query.*)
+@Component
+@ConfigurationProperties("myboot.slow-query")
+@Getter @Setter
+public class SlowQueryProperties {
+    // false면 DataSource를 감싸지 않음 (측정 비용 0)
+    private boolean enabled = true;
+    // 이 시간 이상 걸린 SQL만 기록
+    private Duration threshold = Duration.ofMillis(200);
+    // /actuator/slowqueries 에 보여 줄 개수
+    private int top = 20;
+    // 기록해 두는 서로 다른 SQL 문장 수 (넘으면 가장 빠른 것부터 버림)
+    private int maxStatements = 500;
+}
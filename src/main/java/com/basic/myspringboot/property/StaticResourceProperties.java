@@ -0,0 +1,22 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+// 정적 리소스(static/, mobile/) 캐시와 전송 설정값 (application.properties의 myboot.web.static.*)
+@Component
+@ConfigurationProperties("myboot.web.static")
+@Getter @Setter
+public class StaticResourceProperties {
+    // 파일 이름에 내용 해시가 들어간 경로(/css/site-{md5}.css)의 Cache-Control max-age (내용이 바뀌면 URL이 바뀌므로 immutable)
+    private Duration versionedMaxAge = Duration.ofDays(365);
+    // 해시가 없는 경로(html 등)의 max-age, 0이면 no-cache (매번 Last-Modified로 확인하고 바뀌지 않았으면 304)
+    private Duration unversionedMaxAge = Duration.ZERO;
+    // 이 크기 이상인 파일은 Tomcat sendfile로 복사 없이 보냄 (작은 파일은 그냥 쓰는 편이 빠름)
+    private DataSize sendfileThreshold = DataSize.ofKilobytes(48);
+}
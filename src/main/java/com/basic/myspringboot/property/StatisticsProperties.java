@@ -0,0 +1,23 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// 통계(GET /api/stats) 설정값 (application.properties의 myboot.stats.*)
+@Component
+@ConfigurationProperties("myboot.stats")
+@Getter @Setter
+public class StatisticsProperties {
+    // 미리 세어 둔 값을 실제 테이블과 비교해서 바로잡는 간격 (이때만 전체를 셈)
+    private Duration reconcileInterval = Duration.ofHours(1);
+    // from/to를 주지 않았을 때 보여 주는 최근 일수 (오늘 포함)
+    private int defaultDays = 30;
+    // 한 번에 요청할 수 있는 최대 일수
+    private int maxDays = 366;
+    // 전체 수, 일별 가입자 수를 나눠 담는 행 수 (등록/삭제 트랜잭션이 같은 통계 행을 잠그고 기다리는 것을 이만큼 줄임)
+    private int slots = 16;
+}
@@ -0,0 +1,31 @@
+package com.basic.myspringboot.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// /api/users 관련 설정값 (application.properties의 myboot.users.*)
+@Component
+@ConfigurationProperties("myboot.users")
+@Getter @Setter
+public class UserApiProperties {
+    // ?limit= 을 주지 않았을 때 한 페이지 크기
+    private int defaultPageSize = 20;
+    // ?limit= 으로 요청할 수 있는 최대 크기
+    private int maxPageSize = 500;
+    // POST /api/users/bulk 에서 한 트랜잭션으로 저장할 행 수
+    private int bulkChunkSize = 500;
+    // /index 화면에서 한 번의 SELECT로 읽는 행 수 (한 페이지를 이 크기로 나눠 읽으면서 바로 HTML로 내보냄)
+    private int viewChunkSize = 50;
+    // /index 화면에 보여 주는 전체 User 수를 다시 세기 전까지 재사용하는 시간 (매번 COUNT(*)를 하지 않음)
+    private Duration viewCountTtl = Duration.ofSeconds(30);
+    // GET /api/users?ids= 로 한 번에 조회할 수 있는 최대 id 수
+    private int batchGetMaxIds = 200;
+    // 조회할 id가 많으면 이 개수씩 나눠서 IN 쿼리를 보냄
+    private int batchGetChunkSize = 100;
+    // 여러 요청이 조회하는 id를 모아서 한 번에 보내기 전에 기다리는 시간 (0이면 모으지 않고 바로 조회)
+    private Duration batchGetWindow = Duration.ofMillis(2);
+}
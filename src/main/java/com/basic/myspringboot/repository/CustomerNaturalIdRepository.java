@@ -0,0 +1,10 @@
+package com.basic.myspringboot.repository;
+
+import com.basic.myspringboot.entity.Customer;
+
+import java.util.Optional;
+
+// customerId(natural id)로 조회하는 fragment (customer-natural-id -> customer 2차 캐시를 먼저 확인)
+public interface CustomerNaturalIdRepository {
+    Optional<Customer> findByCustomerId(String customerId);
+}
@@ -1,25 +1,45 @@
 package com.basic.myspringboot.repository;
 
+import com.basic.myspringboot.dto.CustomerResponse;
 import com.basic.myspringboot.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 // DAO(Data Access Object) 클래스와 같은 역할 수행
 // <Entity, 엔티티 pk의 type>
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+// 직접 선언한 조회 메서드도 readOnly 트랜잭션으로 실행 (읽기/쓰기 분리 시 replica로 감)
+@Transactional(readOnly = true)
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerNaturalIdRepository {
     // JPA는 DB 레코드를 Java 객체(Entity)로 자동 매핑해줌
     /* Query Method 정의하면 JPA가 메서드 명에 맞는 JPQL(Java Persistence Query Language)로 변환하여 실행하고,
     이 JPQL은 내부적으로 SQL로 변환되어 실제 데이터베이스에 접근하게 된다.*/
 
     // Optional: null값을 명시적으로 처리하기 워한 컨테이너 객체
     // Customer는 Entity 클래스 이름
-    // JPQL: select c from Customer c where c.customerId=?;
-    Optional<Customer> findByCustomerId(String id);
+    // findByCustomerId(String): select c from Customer c where c.customerId=?;
+    // -> 2차 캐시(customer-natural-id)를 먼저 확인하도록 CustomerNaturalIdRepository에서 직접 구현
 
     //Contains: "%customerName%"이라는 뜻임
     //select c from Customer c where c.customerName like %:name%;
+    // 앞에 %가 붙어서 인덱스를 못 타고 전체 테이블을 읽음 -> 검색 화면은 CustomerSearchService(N-gram 색인) 사용
+    // 결과(id 목록)를 customer-name-query 영역에 캐시, customers 테이블이 바뀌면 Hibernate가 자동으로 무효화
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Customer.NAME_QUERY_CACHE_REGION)
+    })
     List<Customer> findByCustomerNameContains(String name);
 
+    // 검색 결과 페이지용: 엔티티 없이 CustomerResponse를 바로 만듦 (순서는 호출하는 쪽에서 맞춤)
+    @Query("select new com.basic.myspringboot.dto.CustomerResponse(c.id, c.customerId, c.customerName) "
+            + "from Customer c where c.id in :ids")
+    List<CustomerResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
 }
@@ -0,0 +1,22 @@
+package com.basic.myspringboot.repository;
+
+import com.basic.myspringboot.dto.DailySignups;
+import com.basic.myspringboot.entity.DailySignupCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// 값은 StatisticsRecorder/StatisticsService가 JdbcTemplate으로 바꾸고, 여기서는 읽기만 함
+@Transactional(readOnly = true)
+public interface DailySignupCountRepository extends JpaRepository<DailySignupCount, DailySignupCount.Key> {
+
+    // 날짜마다 모든 slot의 합, 가입자가 없는 날은 행이 없음 (0으로 채우는 것은 StatisticsService)
+    @Query("select new com.basic.myspringboot.dto.DailySignups(d.signupDate, sum(d.signups)) "
+            + "from DailySignupCount d where d.signupDate between :from and :to "
+            + "group by d.signupDate order by d.signupDate")
+    List<DailySignups> findRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
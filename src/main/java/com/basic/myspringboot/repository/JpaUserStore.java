@@ -0,0 +1,136 @@
+package com.basic.myspringboot.repository;
+
+import com.basic.myspringboot.dto.UserCreation;
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.dto.UserVersion;
+import com.basic.myspringboot.entity.User;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MariaDBDialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DB 하나(spring.datasource)에 두는 User 저장소, UserRepository에 그대로 넘김
+ * 통계와 email Bloom filter는 엔티티 리스너(StatisticsListener, UserEmailFilterListener)가 반영
+ *
+ * 삭제는 DELETE 한 문장으로 지우면서 지운 행의 id, 가입 시각을 돌려받음
+ *  - MariaDB, PostgreSQL: DELETE ... RETURNING
+ *  - H2: SELECT ... FROM OLD TABLE (DELETE ...)
+ *  - 그 밖의 DB: SELECT ... FOR UPDATE로 잠근 행만 DELETE (두 번 왕복)
+ */
+@Component
+@ConditionalOnProperty(name = "myboot.sharding.enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaUserStore implements UserStore {
+    private static final String DELETE_RETURNING = "DELETE FROM users WHERE id IN (:ids) RETURNING id, created_at";
+    private static final String SELECT_FROM_OLD_TABLE =
+            "SELECT id, created_at FROM OLD TABLE (DELETE FROM users WHERE id IN (:ids))";
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    // 지운 행을 돌려받는 DELETE 문 (지원하지 않는 DB면 ""), 처음 삭제할 때 Hibernate Dialect로 정함
+    private volatile String deleteReturning;
+
+    @Override
+    public Optional<UserResponse> findResponseById(Long id) {
+        return userRepository.findResponseById(id);
+    }
+
+    @Override
+    public List<UserResponse> findResponsesByIdIn(Collection<Long> ids) {
+        return userRepository.findResponsesByIdIn(ids);
+    }
+
+    @Override
+    public Optional<UserVersion> findVersionById(Long id) {
+        return userRepository.findVersionById(id);
+    }
+
+    @Override
+    public Optional<UserResponse> findResponseByEmail(String email) {
+        return userRepository.findResponseByEmail(email);
+    }
+
+    @Override
+    public List<UserResponse> findResponsesAfter(long after, int limit) {
+        return userRepository.findResponsesByIdGreaterThan(after, Limit.of(limit));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return userRepository.existsById(id);
+    }
+
+    @Override
+    public User save(User user) {
+        return userRepository.save(user);
+    }
+
+    @Override
+    public List<UserCreation> deleteByIdIn(Collection<Long> ids) {
+        String sql = deleteReturning();
+        if (!sql.isEmpty()) {
+            // 지운 행이 곧 결과: 같은 id를 동시에 지운 다른 트랜잭션은 행 잠금을 기다린 뒤 지울 행이 없어서 빈 결과
+            // JPQL bulk DELETE처럼 실행 전에 flush(네이티브 쿼리의 자동 flush), 실행 후에 clear
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery(sql)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(User.class)
+                    .addScalar("id", Long.class)
+                    .addScalar("created_at", LocalDateTime.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+            entityManager.clear();
+            return rows.stream().map(row -> new UserCreation((Long) row[0], (LocalDateTime) row[1])).toList();
+        }
+        List<UserCreation> locked = userRepository.lockCreationsByIdIn(ids);
+        if (locked.isEmpty()) {
+            return locked;
+        }
+        int deleted = locked.size() == 1
+                ? userRepository.deleteUserById(locked.get(0).id())
+                : userRepository.deleteUsersByIdIn(locked.stream().map(UserCreation::id).toList());
+        // 잠근 행은 다른 트랜잭션이 지울 수 없으므로 다르면 잠금이 걸리지 않은 것 (통계, 변경 피드가 틀어지지 않게 롤백)
+        if (deleted != locked.size()) {
+            throw new IllegalStateException("잠근 User " + locked.size() + "건 중 " + deleted + "건만 삭제됨");
+        }
+        return locked;
+    }
+
+    private String deleteReturning() {
+        String sql = deleteReturning;
+        if (sql == null) {
+            Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect();
+            if (dialect instanceof MariaDBDialect || dialect instanceof PostgreSQLDialect) {
+                sql = DELETE_RETURNING;
+            } else if (dialect instanceof H2Dialect) {
+                sql = SELECT_FROM_OLD_TABLE;
+            } else {
+                sql = "";
+            }
+            deleteReturning = sql;
+        }
+        return sql;
+    }
+
+    @Override
+    public int updateName(Long id, String name, Long expectedVersion, LocalDateTime updatedAt) {
+        return expectedVersion == null
+                ? userRepository.updateNameById(id, name, updatedAt)
+                : userRepository.updateNameByIdAndVersion(id, expectedVersion, name, updatedAt);
+    }
+}
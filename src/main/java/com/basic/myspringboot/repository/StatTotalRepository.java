@@ -0,0 +1,16 @@
+package com.basic.myspringboot.repository;
+
+import com.basic.myspringboot.entity.StatTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+// 값은 StatisticsRecorder/StatisticsService가 JdbcTemplate으로 바꾸고, 여기서는 읽기만 함
+@Transactional(readOnly = true)
+public interface StatTotalRepository extends JpaRepository<StatTotal, StatTotal.Key> {
+
+    // 모든 slot의 합 (행이 없으면 0)
+    @Query("select coalesce(sum(t.total), 0) from StatTotal t where t.name = :name")
+    long sumTotal(@Param("name") String name);
+}
@@ -1,10 +1,119 @@
 package com.basic.myspringboot.repository;
 
+import com.basic.myspringboot.dto.UserCreation;
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.dto.UserVersion;
 import com.basic.myspringboot.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+// 직접 선언한 조회 메서드는 Spring Data가 트랜잭션을 걸어 주지 않으므로 인터페이스에 readOnly를 지정
+// (readOnly 트랜잭션이어야 읽기/쓰기 분리 시 replica로 감, save() 등 상속 메서드는 SimpleJpaRepository의 설정을 그대로 씀)
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+    // Keyset(Cursor) 페이지네이션: id > after order by id (limit)
+    // offset 방식과 달리 PK 인덱스에서 바로 시작 위치를 찾기 때문에 몇 번째 페이지든 속도가 같음
+    // 조회 전용(read model) 쿼리: 엔티티 대신 UserResponse를 바로 만듦
+    // 영속성 컨텍스트에 아무것도 올리지 않으므로 스냅샷/프록시가 없고, flush 할 것도 없음
+    // (인터페이스의 readOnly 트랜잭션에서 Spring이 세션을 FlushMode.MANUAL + defaultReadOnly로 바꿈)
+    @Query("select new com.basic.myspringboot.dto.UserResponse(u.id, u.name, u.email, u.createdAt, u.version, u.updatedAt) "
+            + "from User u where u.id > :after order by u.id")
+    List<UserResponse> findResponsesByIdGreaterThan(@Param("after") Long after, Limit limit);
+
+    @Query("select new com.basic.myspringboot.dto.UserResponse(u.id, u.name, u.email, u.createdAt, u.version, u.updatedAt) "
+            + "from User u where u.id = :id")
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
+
+    // email(unique 인덱스)로 한 행
+    @Query("select new com.basic.myspringboot.dto.UserResponse(u.id, u.name, u.email, u.createdAt, u.version, u.updatedAt) "
+            + "from User u where u.email = :email")
+    Optional<UserResponse> findResponseByEmail(@Param("email") String email);
+
+    // 여러 id를 IN 한 번으로 (없는 id는 결과에서 빠짐, 순서는 보장하지 않음)
+    @Query("select new com.basic.myspringboot.dto.UserResponse(u.id, u.name, u.email, u.createdAt, u.version, u.updatedAt) "
+            + "from User u where u.id in :ids")
+    List<UserResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 화면 목록(/index)용 페이지 (offset 또는 keyset 위치부터)
+    // COUNT 쿼리 없이 limit + 1 행을 읽어서 다음 행이 있는지만 확인함 (Window.hasNext())
+    // 엔티티가 아닌 UserResponse로 읽으므로 open-in-view의 영속성 컨텍스트에 쌓이지 않음
+    Window<UserResponse> findResponsesBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // 전체 User를 한 번에 List로 올리지 않고 한 행씩 꺼내 쓰는 Stream (엔티티가 아닌 UserResponse)
+    // 반드시 트랜잭션 안에서 사용하고 다 쓴 뒤 close() 해야 함
+    // FETCH_SIZE: JDBC 드라이버가 한 번에 가져오는 행 수 (MariaDB는 이 값이 있어야 커서 방식으로 읽음)
+    // 영속성 컨텍스트에 올라가지 않으므로 읽은 행을 detach 할 필요 없이 쓰고 나면 바로 GC 대상
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.basic.myspringboot.dto.UserResponse(u.id, u.name, u.email, u.createdAt, u.version, u.updatedAt) "
+            + "from User u order by u.id")
+    Stream<UserResponse> streamResponsesByOrderById();
+
+    // bulk insert 전에 이미 등록된 email을 한 번의 IN 쿼리로 확인
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // DELETE ... RETURNING이 없는 DB에서 삭제할 행을 SELECT ... FOR UPDATE로 잠그고 id와 가입 시각을 읽음 (JpaUserStore)
+    // 호출하는 쪽에 트랜잭션 필요
+    // 같은 id를 동시에 지우는 다른 트랜잭션은 먼저 잠근 쪽이 커밋할 때까지 기다린 뒤 이미 지워진 행을 읽지 못하므로
+    // 잠근 행만 지우면 변경 피드와 통계에 한 번씩만 반영됨
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.basic.myspringboot.dto.UserCreation(u.id, u.createdAt) from User u where u.id in :ids")
+    List<UserCreation> lockCreationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // from 이상 to 미만에 가입한 User 수 (idx_users_created_at 범위 조회, 테이블 전체를 읽지 않음)
+    @Query("select count(u) from User u where u.createdAt >= :from and u.createdAt < :to")
+    long countSignups(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // 엔티티를 읽지 않고 DELETE/UPDATE 한 문장으로 처리 (반환값: 바뀐 행 수, 0이면 없는 id)
+    // deleteById()/save()는 SELECT로 먼저 읽은 뒤 쓰기 때문에 쿼리가 2~3번 나감
+    // JPQL bulk 연산은 영속성 컨텍스트를 거치지 않으므로 실행 전에 flush, 실행 후에 clear 해서
+    // 같은 트랜잭션 안에서 예전 값이 남아 있지 않게 함 (호출하는 쪽에 트랜잭션 필요)
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id in :ids")
+    int deleteUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    // JPQL UPDATE는 @Version, @UpdateTimestamp를 자동으로 처리하지 않아서 직접 올려 줌
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.name = :name, u.version = u.version + 1, u.updatedAt = :updatedAt where u.id = :id")
+    int updateNameById(@Param("id") Long id, @Param("name") String name,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    // If-Match로 받은 버전일 때만 변경 (0이면 없는 id이거나 그 사이에 다른 요청이 먼저 바꾼 것)
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.name = :name, u.version = u.version + 1, u.updatedAt = :updatedAt "
+            + "where u.id = :id and u.version = :version")
+    int updateNameByIdAndVersion(@Param("id") Long id, @Param("version") long version, @Param("name") String name,
+                                 @Param("updatedAt") LocalDateTime updatedAt);
+
+    // 조건부 GET용: User 엔티티를 만들지 않고 버전과 수정 시간만 읽음
+    @Query("select new com.basic.myspringboot.dto.UserVersion(u.version, coalesce(u.updatedAt, u.createdAt)) "
+            + "from User u where u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Long id);
+}
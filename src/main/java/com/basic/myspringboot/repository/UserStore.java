@@ -0,0 +1,47 @@
+package com.basic.myspringboot.repository;
+
+import com.basic.myspringboot.dto.UserCreation;
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.dto.UserVersion;
+import com.basic.myspringboot.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * UserService가 쓰는 User 저장소
+ *  - JpaUserStore: DB 하나 (UserRepository, 기본)
+ *  - ShardedUserStore: 여러 샤드 (myboot.sharding.enabled=true)
+ *
+ * 캐시, 변경 피드, 404/409 처리는 UserService가 하므로 여기서는 읽고 쓰기만 함
+ */
+public interface UserStore {
+
+    Optional<UserResponse> findResponseById(Long id);
+
+    /** 있는 User만 (순서는 보장하지 않음) */
+    List<UserResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    Optional<UserVersion> findVersionById(Long id);
+
+    Optional<UserResponse> findResponseByEmail(String email);
+
+    /** Keyset 페이지: id가 after보다 큰 User를 id 순으로 limit개 */
+    List<UserResponse> findResponsesAfter(long after, int limit);
+
+    boolean existsById(Long id);
+
+    /** 저장 (email 중복이면 DataIntegrityViolationException), 샤딩 모드는 새 User만 (수정은 updateName) */
+    User save(User user);
+
+    /**
+     * 삭제하고 이 호출이 실제로 삭제한 행(id, 가입 시각)을 반환 (없는 id는 빠짐)
+     * 같은 id를 동시에 지운 다른 요청과 결과가 겹치지 않음 (삭제 이벤트, 통계를 한 번씩만 반영할 수 있음)
+     */
+    List<UserCreation> deleteByIdIn(Collection<Long> ids);
+
+    /** expectedVersion이 있으면 버전이 같을 때만 변경, 반환값: 바뀐 행 수 */
+    int updateName(Long id, String name, Long expectedVersion, LocalDateTime updatedAt);
+}
@@ -0,0 +1,53 @@
+package com.basic.myspringboot.runner;
+
+import com.basic.myspringboot.export.CsvExportService;
+import com.basic.myspringboot.export.ExportTable;
+import com.basic.myspringboot.property.ExportProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * 파일로 내보내기(offline)
+ * myboot.export.tables 에 적은 테이블을 myboot.export.directory 에 CSV 파일로 씀
+ *
+ * java -jar MySpringBootApp.jar --spring.main.web-application-type=none \
+ *      --myboot.export.tables=users,customers --myboot.export.directory=/data/export
+ *
+ * 웹 서버 없이 띄운 경우에는 내보내기가 끝나면 애플리케이션을 종료함 (실패하면 종료 코드 1)
+ */
+@Component
+@ConditionalOnProperty("myboot.export.tables")
+@RequiredArgsConstructor
+@Slf4j
+public class CsvExportRunner implements ApplicationRunner {
+    private final CsvExportService csvExportService;
+    private final ExportProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        for (String name : properties.getTables()) {
+            try {
+                CsvExportService.ExportResult result = csvExportService.exportToFile(
+                        ExportTable.of(name), properties.getDirectory(), properties.isGzip());
+                log.info("CSV 내보내기 {}: {}행, {} bytes, {}ms -> {}", result.table(), result.rows(), result.bytes(),
+                        result.elapsedMillis(), result.path());
+            } catch (Exception e) {
+                log.error("CSV 내보내기 실패: {}", name, e);
+                exitCode = 1;
+            }
+        }
+        if (!(context instanceof WebServerApplicationContext)) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
@@ -18,6 +19,8 @@ public class DatabaseRunner implements ApplicationRunner {
     @Autowired
     DataSource dataSource;
 
+    // DB 연결 정보 출력은 시작을 기다리게 할 필요가 없어서 백그라운드(applicationTaskExecutor)에서 실행
+    @Async
     @Override
     public void run(ApplicationArguments args) throws Exception {
         log.info("DataSource 구현객체는 {} ", dataSource.getClass().getName());
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -33,6 +34,8 @@ public class MyRunner implements ApplicationRunner { // 추상메서드 불러
     // import org.slf4j.Logger, org.slf4j.LoggerFactory
     private Logger logger = LoggerFactory.getLogger(MyRunner.class);
 
+    // 설정값 출력만 하므로 백그라운드(applicationTaskExecutor)에서 실행, 애플리케이션은 이 작업을 기다리지 않고 바로 요청을 받음
+    @Async
     @Override
     public void run(ApplicationArguments args) throws Exception {
         System.out.println("Logger 구현체 = " + logger.getClass().getName());
@@ -0,0 +1,91 @@
+package com.basic.myspringboot.runner;
+
+import com.basic.myspringboot.property.ShardingProperties;
+import com.basic.myspringboot.shard.ShardDataSources;
+import com.basic.myspringboot.shard.UserResharder;
+import com.basic.myspringboot.shard.UserShards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * users 리샤딩 도구 (UserResharder)
+ *
+ * 1. 서비스 중인 구성은 그대로 두고, 같은 설정에 새 샤드 구성을 더해서 별도 프로세스로 복사
+ *    java -jar MySpringBootApp.jar --spring.main.web-application-type=none --myboot.sharding.reshard=copy \
+ *         --myboot.sharding.reshard-targets[0].jdbc-url=jdbc:mariadb://db-a/boot_db ... [n].jdbc-url=...
+ *    (샤딩 전이면 spring.datasource의 users를, 샤딩 중이면 myboot.sharding.shards를 복사)
+ * 2. 전환 직전에 한 번 더 실행해서 따라잡은 뒤 myboot.sharding.shards를 새 구성으로 바꿔서 재시작
+ * 3. 새 구성에서 --myboot.sharding.reshard=cleanup 으로 자기 샤드가 아닌 행을 정리
+ *
+ * 웹 서버 없이 띄운 경우에는 끝나면 애플리케이션을 종료함 (실패하면 종료 코드 1)
+ */
+@Component
+@ConditionalOnProperty("myboot.sharding.reshard")
+@RequiredArgsConstructor
+@Slf4j
+public class ReshardRunner implements ApplicationRunner {
+    private final ShardingProperties properties;
+    private final ObjectProvider<UserShards> userShards;
+    private final DataSource dataSource;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        UserResharder resharder = new UserResharder(properties.getReshardBatchSize(), properties.getReshardPause(),
+                properties.getReshardMaxPasses(), properties.getReshardIdGap());
+        int exitCode = 0;
+        try {
+            switch (properties.getReshard()) {
+                case COPY -> copy(resharder);
+                case CLEANUP -> cleanup(resharder);
+            }
+        } catch (Exception e) {
+            log.error("리샤딩 실패: {}", properties.getReshard(), e);
+            exitCode = 1;
+        }
+        if (!(context instanceof WebServerApplicationContext)) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    private void copy(UserResharder resharder) throws Exception {
+        if (properties.getReshardTargets().isEmpty()) {
+            throw new IllegalStateException("myboot.sharding.reshard-targets 가 비어 있습니다.");
+        }
+        UserShards shards = userShards.getIfAvailable();
+        List<JdbcTemplate> sources = shards != null
+                ? shards.shards().stream().map(UserShards.Shard::jdbc).toList()
+                : List.of(new JdbcTemplate(dataSource));
+        Map<String, DataSource> pools = ShardDataSources.create(properties.getReshardTargets(), "reshard-target-", null);
+        try {
+            log.info("리샤딩 복사: 샤드 {}개 -> {}", sources.size(), pools.keySet());
+            resharder.copy(sources, pools.values().stream().map(JdbcTemplate::new).toList());
+        } finally {
+            for (DataSource pool : pools.values()) {
+                ((AutoCloseable) pool).close();
+            }
+        }
+    }
+
+    private void cleanup(UserResharder resharder) {
+        UserShards shards = userShards.getIfAvailable();
+        if (shards == null) {
+            throw new IllegalStateException("cleanup은 myboot.sharding.enabled=true 인 새 구성에서 실행해야 합니다.");
+        }
+        resharder.cleanup(shards.shards().stream().map(UserShards.Shard::jdbc).toList());
+    }
+}
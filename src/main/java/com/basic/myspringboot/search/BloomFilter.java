@@ -0,0 +1,105 @@
+package com.basic.myspringboot.search;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 집합용 Bloom filter
+ *
+ * 값마다 k개의 비트를 켜 두고, 조회할 때 k개가 모두 켜져 있으면 "있을 수도 있음", 하나라도 꺼져 있으면 "확실히 없음"
+ *  - 없는 값을 있다고 할 수는 있지만(false positive) 있는 값을 없다고 하지는 않음
+ *  - 값을 지울 수는 없음 (다른 값과 같이 쓰는 비트일 수 있으므로)
+ *
+ * 비트 수 m과 해시 수 k는 예상 개수 n과 목표 false positive 비율 p로 정함
+ *  m = -n * ln(p) / (ln 2)^2,  k = m / n * ln 2   (예: n = 100만, p = 1% -> 약 1.2MB, k = 7)
+ * k개의 위치는 64비트 해시 h와 그 상위 32비트 h2로 h + i * h2 를 만들어 씀 (Kirsch-Mitzenmacher)
+ *
+ * 비트 배열은 AtomicLongArray라서 락 없이 여러 스레드가 동시에 추가/조회할 수 있음
+ */
+public class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLong bitsSet = new AtomicLong();
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be >= 1 and 0 < falsePositiveRate < 1");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = Math.toIntExact(Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = wordCount * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        insertions.incrementAndGet();
+        long hash = hash(value);
+        long h2 = hash >>> 32;
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(hash + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            while (true) {
+                long current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+                if (words.compareAndSet(word, current, current | mask)) {
+                    bitsSet.incrementAndGet();
+                    break;
+                }
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h2 = hash >>> 32;
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(hash + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 지금 켜진 비트 비율로 추정한 false positive 비율 (켜진 비율^k) */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / bitSize, hashCount);
+    }
+
+    /** put()을 부른 횟수 (같은 값을 여러 번 넣었으면 중복해서 셈) */
+    public long size() {
+        return insertions.get();
+    }
+
+    /** 비트 배열 크기 (bytes) */
+    public long byteSize() {
+        return bitSize / 8;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private long index(long combined) {
+        // 음수가 나오면 비트를 뒤집어서 양수로
+        return (combined < 0 ? ~combined : combined) % bitSize;
+    }
+
+    // 문자(UTF-16 code unit)마다 FNV-1a, 마지막에 SplitMix64로 섞어서 상위/하위 32비트를 모두 고르게 씀
+    // (byte[]로 바꾸지 않으므로 조회할 때 할당이 없음)
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,62 @@
+package com.basic.myspringboot.search;
+
+import com.basic.myspringboot.property.CustomerSearchProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * customers.customer_name 에 대한 메모리 N-gram 색인
+ *
+ * - 애플리케이션 시작 시 CustomerSearchService가 테이블 전체를 읽어서 rebuild()
+ * - 그 뒤의 INSERT/UPDATE/DELETE는 CustomerNameIndexListener가 커밋 후에 반영
+ */
+@Component
+public class CustomerNameIndex {
+    private final int gramSize;
+    private volatile NGramIndex index;
+
+    public CustomerNameIndex(CustomerSearchProperties properties) {
+        this.gramSize = properties.getGramSize();
+        this.index = new NGramIndex(gramSize);
+    }
+
+    public NGramIndex.Hits search(String query, int offset, int limit) {
+        return index.search(query, offset, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /** 새 색인을 다 만든 뒤에 교체해서, 다시 만드는 동안에도 기존 색인으로 검색할 수 있게 함 */
+    public void rebuild(Consumer<NGramIndex> loader) {
+        NGramIndex rebuilt = new NGramIndex(gramSize);
+        loader.accept(rebuilt);
+        this.index = rebuilt;
+    }
+
+    void put(Long id, String name) {
+        afterCommit(() -> index.put(id, name));
+    }
+
+    void remove(Long id) {
+        afterCommit(() -> index.remove(id));
+    }
+
+    // 롤백된 변경이 색인에 남지 않도록 트랜잭션 안이면 커밋된 뒤에 반영
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
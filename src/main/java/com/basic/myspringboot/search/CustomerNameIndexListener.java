@@ -0,0 +1,29 @@
+package com.basic.myspringboot.search;
+
+import com.basic.myspringboot.entity.Customer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Customer 엔티티가 저장/수정/삭제될 때 CustomerNameIndex를 같이 갱신하는 JPA 엔티티 리스너
+ * Spring Boot는 Hibernate가 Spring 빈 컨테이너로 리스너를 만들게 설정하므로 생성자 주입을 받을 수 있음
+ */
+public class CustomerNameIndexListener {
+    private final CustomerNameIndex customerNameIndex;
+
+    public CustomerNameIndexListener(CustomerNameIndex customerNameIndex) {
+        this.customerNameIndex = customerNameIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void indexCustomer(Customer customer) {
+        customerNameIndex.put(customer.getId(), customer.getCustomerName());
+    }
+
+    @PostRemove
+    public void removeCustomer(Customer customer) {
+        customerNameIndex.remove(customer.getId());
+    }
+}
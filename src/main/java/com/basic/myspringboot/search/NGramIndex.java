@@ -0,0 +1,274 @@
+package com.basic.myspringboot.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 문자열 부분 검색(LIKE '%x%')용 N-gram 역색인(inverted index)
+ *
+ * "스프링부트"를 2-gram으로 자르면 [스프, 프링, 링부, 부트] 이고
+ * 각 gram마다 그 gram을 포함하는 id 목록(posting list, 정렬된 long 배열)을 가지고 있음
+ *
+ * 검색어 "링부트"가 들어 있는 문자열은 [링부, 부트]를 모두 가지고 있어야 하므로
+ * 두 posting list의 교집합만 확인하면 됨 -> 전체 행을 훑지 않고 가장 짧은 posting list 길이에 비례하는 시간
+ * 교집합은 gram 순서까지는 보지 않기 때문에 마지막에 원문에 contains()로 한 번 더 확인함
+ *
+ * 1 ~ n글자 gram을 모두 색인해 두므로 검색어가 n글자보다 짧으면 검색어 자체가 gram이고,
+ * 그 posting list가 곧 결과임 (원문 전체를 훑지 않음, 원문 확인도 필요 없음)
+ * 페이지는 offset + limit개만 힙에 남겨서 고름 (일치한 것 전체를 정렬하지 않음)
+ * 읽기/쓰기는 ReadWriteLock으로 보호 (검색끼리는 동시에, 변경은 한 번에 하나씩)
+ */
+public class NGramIndex {
+    private final int gramSize;
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, String> texts = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public NGramIndex(int gramSize) {
+        if (gramSize < 1) {
+            throw new IllegalArgumentException("gramSize must be >= 1");
+        }
+        this.gramSize = gramSize;
+    }
+
+    /** id의 문자열을 추가하거나 바꿈 */
+    public void put(long id, String text) {
+        String normalized = normalize(text);
+        lock.writeLock().lock();
+        try {
+            String previous = texts.put(id, normalized);
+            if (previous != null) {
+                if (previous.equals(normalized)) {
+                    return;
+                }
+                removeGrams(id, previous);
+            }
+            for (String gram : indexGrams(normalized)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = texts.remove(id);
+            if (previous != null) {
+                removeGrams(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            texts.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return texts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * query를 포함하는 id를 순위대로 offset부터 limit개 반환
+     * 순위: 완전 일치 > 앞부분 일치 > 부분 일치, 같으면 길이가 짧은(검색어와 더 비슷한) 것, 그 다음 id 순
+     */
+    public Hits search(String query, int offset, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return new Hits(0, List.of());
+        }
+        Comparator<Match> order = Comparator.comparingInt((Match m) -> rank(m.text, q))
+                .thenComparingInt(m -> m.text.length())
+                .thenComparingLong(m -> m.id);
+        int from = Math.max(offset, 0);
+        TopMatches top = new TopMatches(order, (int) Math.min(Integer.MAX_VALUE, (long) from + Math.max(limit, 0)));
+        lock.readLock().lock();
+        try {
+            if (q.length() <= gramSize) {
+                Postings list = postings.get(q);
+                for (int i = 0; list != null && i < list.size; i++) {
+                    top.offer(new Match(list.ids[i], texts.get(list.ids[i])));
+                }
+            } else {
+                for (long id : intersect(grams(q, gramSize))) {
+                    String text = texts.get(id);
+                    if (text.contains(q)) {
+                        top.offer(new Match(id, text));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match> page = top.sorted();
+        List<Long> ids = page.subList(Math.min(from, page.size()), page.size()).stream().map(m -> m.id).toList();
+        return new Hits(top.total, ids);
+    }
+
+    // 가장 짧은 posting list를 기준으로 나머지 list에 모두 있는 id만 남김
+    private long[] intersect(Set<String> grams) {
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+
+        Postings smallest = lists.get(0);
+        long[] result = new long[smallest.size];
+        int count = 0;
+        for (int i = 0; i < smallest.size; i++) {
+            long id = smallest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(id);
+            }
+            if (inAll) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void removeGrams(long id, String text) {
+        for (String gram : indexGrams(text)) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    // 색인에 넣는 gram: 1 ~ gramSize 글자 전부
+    private Set<String> indexGrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int size = 1; size <= gramSize; size++) {
+            grams.addAll(grams(text, size));
+        }
+        return grams;
+    }
+
+    private static Set<String> grams(String text, int size) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + size <= text.length(); i++) {
+            grams.add(text.substring(i, i + size));
+        }
+        return grams;
+    }
+
+    private static int rank(String text, String query) {
+        if (text.equals(query)) {
+            return 0;
+        }
+        return text.startsWith(query) ? 1 : 2;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** total: 전체 일치 수, ids: 요청한 페이지의 id */
+    public record Hits(int total, List<Long> ids) {
+    }
+
+    private record Match(long id, String text) {
+    }
+
+    // 순위가 앞선 limit개만 남기는 힙 (맨 위가 남긴 것 중 순위가 가장 낮은 것), 전체 일치 수는 따로 셈
+    private static final class TopMatches {
+        private final Comparator<Match> order;
+        private final int limit;
+        private final PriorityQueue<Match> heap;
+        private int total;
+
+        TopMatches(Comparator<Match> order, int limit) {
+            this.order = order;
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(order.reversed());
+        }
+
+        void offer(Match match) {
+            total++;
+            if (heap.size() < limit) {
+                heap.add(match);
+            } else if (limit > 0 && order.compare(match, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(match);
+            }
+        }
+
+        List<Match> sorted() {
+            List<Match> sorted = new ArrayList<>(heap);
+            sorted.sort(order);
+            return sorted;
+        }
+    }
+
+    // 정렬된 id 배열 (대부분 id가 증가하는 순서로 들어오기 때문에 끝에 붙이는 경우가 가장 빠름)
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return;
+                }
+                insertAt(-index - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void insertAt(int index, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
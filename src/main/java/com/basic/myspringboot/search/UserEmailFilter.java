@@ -0,0 +1,234 @@
+package com.basic.myspringboot.search;
+
+import com.basic.myspringboot.property.EmailFilterProperties;
+import com.basic.myspringboot.shard.UserShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * users.email 에 대한 메모리 Bloom filter
+ *
+ * - 없는 email 조회(스캐너, 오타)는 DB와 캐시를 보지 않고 바로 404
+ * - 등록할 때 "확실히 없음"이면 중복 확인 쿼리 없이 INSERT (있을 수도 있으면 DB로 확인, 최종 판단은 unique 제약조건)
+ *
+ * 애플리케이션 시작 시 테이블 전체를 커서로 읽어서 만들고(rebuild), 그 뒤의 등록은 UserEmailFilterListener가 커밋 후에 반영
+ * (샤딩 모드에서는 모든 샤드의 users를 읽고, 등록은 ShardedUserStore가 반영)
+ * Bloom filter는 값을 지울 수 없으므로 삭제된 email은 남아 있다가(조회 시 DB로 확인할 뿐 결과는 맞음)
+ * 그런 email이 rebuild-ratio를 넘으면 백그라운드에서 다시 만듦
+ *
+ * email 비교는 대소문자, 앞뒤 공백을 무시하는 MariaDB 기본 collation에 맞춰 소문자로 바꿔서 넣고 찾음
+ * ASCII가 아닌 문자가 있으면 collation이 같게 보는 문자(é = e 등)를 여기서 알 수 없으므로 필터를 쓰지 않고 DB로 보냄
+ *
+ * 메트릭
+ *  - users.email.filter.checks{result=absent|maybe}: 필터 조회 결과, false.positives: maybe였는데 DB에 없던 수
+ *  - users.email.filter.expected.fpp: 켜진 비트 비율로 추정한 false positive 비율
+ *  - users.email.filter.bytes, entries, stale: 메모리 사용량, 담은 email 수, 삭제되어 남아 있는 수
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class UserEmailFilter implements SmartInitializingSingleton {
+    // 필터를 만들 때 JDBC 드라이버가 한 번에 가져오는 행 수
+    private static final int REBUILD_FETCH_SIZE = 1000;
+
+    private final EmailFilterProperties properties;
+    private final DataSource dataSource;
+    private final ObjectProvider<UserShards> userShards;
+    private final TaskExecutor taskExecutor;
+    private final Counter absent;
+    private final Counter maybe;
+    private final Counter falsePositives;
+
+    // 처음 만들어지기 전(null)에는 모든 email이 있을 수도 있다고 봄
+    private volatile BloomFilter filter;
+    // 다시 만드는 동안 들어온 email은 새 필터에도 넣음
+    private volatile BloomFilter building;
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public UserEmailFilter(EmailFilterProperties properties, DataSource dataSource,
+                           ObjectProvider<UserShards> userShards,
+                           @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.userShards = userShards;
+        this.taskExecutor = taskExecutor;
+        this.absent = checks(meterRegistry, "absent");
+        this.maybe = checks(meterRegistry, "maybe");
+        this.falsePositives = Counter.builder("users.email.filter.false.positives")
+                .description("필터는 있을 수도 있다고 했지만 DB에 없던 email 조회 수")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.expected.fpp", this, f -> f.stat(BloomFilter::expectedFalsePositiveRate))
+                .description("켜진 비트 비율로 추정한 false positive 비율")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.bytes", this, f -> f.stat(BloomFilter::byteSize))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.entries", this, f -> f.stat(BloomFilter::size))
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.stale", stale, AtomicLong::get)
+                .description("삭제되었지만 필터에 남아 있는 email 수")
+                .register(meterRegistry);
+    }
+
+    // 웹 서버가 요청을 받기 전에 필터를 먼저 만들어 둠
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /** users 테이블 전체 email을 커서로 한 행씩 읽어서 필터를 다시 만들고 교체 (만드는 동안에는 기존 필터로 조회) */
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        UserShards shards = userShards.getIfAvailable();
+        List<DataSource> sources = shards == null
+                ? List.of(dataSource)
+                : shards.shards().stream().map(UserShards.Shard::dataSource).toList();
+        long rows = 0;
+        for (DataSource source : sources) {
+            Long count = new JdbcTemplate(source).queryForObject("SELECT COUNT(*) FROM users", Long.class);
+            rows += count == null ? 0 : count;
+        }
+        BloomFilter rebuilt = new BloomFilter(Math.max(properties.getExpectedInsertions(), rows * 2),
+                properties.getFalsePositiveRate());
+        building = rebuilt;
+        try {
+            for (DataSource source : sources) {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(source);
+                jdbcTemplate.setFetchSize(REBUILD_FETCH_SIZE);
+                jdbcTemplate.query("SELECT email FROM users",
+                        (RowCallbackHandler) rs -> rebuilt.put(normalize(rs.getString(1))));
+            }
+            filter = rebuilt;
+            stale.set(0);
+        } finally {
+            building = null;
+        }
+        log.info("email Bloom filter 생성: {}건, {}KB, 해시 {}개, {}ms", rebuilt.size(), rebuilt.byteSize() / 1024,
+                rebuilt.hashCount(), System.currentTimeMillis() - start);
+    }
+
+    /** false면 이 email은 확실히 없음, true면 있을 수도 있음 (DB로 확인해야 함) */
+    public boolean mightContain(String email) {
+        BloomFilter current = filter;
+        if (current == null || !filterable(email)) {
+            return true;
+        }
+        boolean result = current.mightContain(normalize(email));
+        (result ? maybe : absent).increment();
+        return result;
+    }
+
+    /** mightContain()이 true였는데 DB에 없었을 때 */
+    public void falsePositive(String email) {
+        if (filter != null && filterable(email)) {
+            falsePositives.increment();
+        }
+    }
+
+    /** 등록된 email (트랜잭션 안이면 커밋 후에 반영) */
+    public void add(String email) {
+        if (!filterable(email)) {
+            return;
+        }
+        String normalized = normalize(email);
+        // building을 먼저 읽어야 함: rebuild()는 building = 새 필터 -> 테이블 읽기 -> filter = 새 필터 -> building = null 순서
+        //  - building이 null이었으면 다시 만들기가 아직 시작 전(이미 커밋된 이 email을 테이블 읽기에서 담음)이거나
+        //    끝난 뒤(아래에서 읽는 filter가 새 필터)
+        //  - filter를 먼저 읽으면 그 사이에 교체가 끝났을 때 예전 필터에만 넣고 새 필터에는 빠질 수 있음 (있는 User가 404)
+        afterCommit(() -> {
+            BloomFilter next = building;
+            if (next != null) {
+                next.put(normalized);
+            }
+            BloomFilter current = filter;
+            if (current != null && current != next) {
+                current.put(normalized);
+            }
+        });
+    }
+
+    /** count건이 삭제되었음 (삭제된 email은 필터에서 뺄 수 없으므로 수만 세 둠) */
+    public void removed(int count) {
+        if (count > 0) {
+            afterCommit(() -> {
+                BloomFilter current = filter;
+                if (current != null && stale.addAndGet(count) > current.size() * properties.getRebuildRatio()
+                        && rebuilding.compareAndSet(false, true)) {
+                    taskExecutor.execute(() -> {
+                        try {
+                            rebuild();
+                        } finally {
+                            rebuilding.set(false);
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private double stat(ToDoubleFunction<BloomFilter> value) {
+        BloomFilter current = filter;
+        return current == null ? 0 : value.applyAsDouble(current);
+    }
+
+    private static boolean filterable(String email) {
+        if (email == null) {
+            return false;
+        }
+        for (int i = 0; i < email.length(); i++) {
+            if (email.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String email) {
+        return email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("users.email.filter.checks")
+                .description("email Bloom filter 조회 수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // 롤백된 등록/삭제가 필터에 반영되지 않도록 트랜잭션 안이면 커밋된 뒤에 반영
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
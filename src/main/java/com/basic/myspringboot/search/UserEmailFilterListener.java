@@ -0,0 +1,28 @@
+package com.basic.myspringboot.search;
+
+import com.basic.myspringboot.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+
+/**
+ * User 엔티티가 저장/삭제될 때 UserEmailFilter를 같이 갱신하는 JPA 엔티티 리스너
+ * email은 natural id라서 저장한 뒤에는 바뀌지 않으므로 @PostUpdate는 필요 없음
+ * (JPQL로 한 번에 지우는 UserService.deleteById 등은 리스너가 불리지 않으므로 UserService가 직접 알림)
+ */
+public class UserEmailFilterListener {
+    private final UserEmailFilter userEmailFilter;
+
+    public UserEmailFilterListener(UserEmailFilter userEmailFilter) {
+        this.userEmailFilter = userEmailFilter;
+    }
+
+    @PostPersist
+    public void addEmail(User user) {
+        userEmailFilter.add(user.getEmail());
+    }
+
+    @PostRemove
+    public void removeEmail(User user) {
+        userEmailFilter.removed(1);
+    }
+}
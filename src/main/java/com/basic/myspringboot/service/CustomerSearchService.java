@@ -0,0 +1,83 @@
+package com.basic.myspringboot.service;
+
+import com.basic.myspringboot.dto.CustomerResponse;
+import com.basic.myspringboot.dto.CustomerSearchResult;
+import com.basic.myspringboot.property.CustomerSearchProperties;
+import com.basic.myspringboot.repository.CustomerRepository;
+import com.basic.myspringboot.search.CustomerNameIndex;
+import com.basic.myspringboot.search.NGramIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 고객 이름 검색
+ *
+ * findByCustomerNameContains()는 customer_name LIKE '%x%' 라서 인덱스를 못 타고 매번 전체 테이블을 읽음
+ * 대신 메모리의 N-gram 색인(CustomerNameIndex)에서 순위가 매겨진 id 한 페이지만 구한 뒤
+ * 그 id들만 PK로 조회함 (엔티티 대신 CustomerResponse로 바로 읽음)
+ *
+ * 색인은 요청을 받기 전에 만들어져 있어야 하므로 lazy-initialization 대상에서 제외(@Lazy(false))
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerSearchService implements SmartInitializingSingleton {
+    // 색인을 만들 때 JDBC 드라이버가 한 번에 가져오는 행 수
+    private static final int REBUILD_FETCH_SIZE = 1000;
+
+    private final CustomerRepository customerRepository;
+    private final CustomerNameIndex customerNameIndex;
+    private final CustomerSearchProperties properties;
+    private final DataSource dataSource;
+
+    // 웹 서버가 요청을 받기 전에 색인을 먼저 만들어 둠
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuildIndex();
+    }
+
+    /** customers 테이블 전체를 커서로 한 행씩 읽어서 색인을 다시 만듦 */
+    public void rebuildIndex() {
+        long start = System.currentTimeMillis();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(REBUILD_FETCH_SIZE);
+        customerNameIndex.rebuild(index -> jdbcTemplate.query(
+                "SELECT id, customer_name FROM customers",
+                (RowCallbackHandler) rs -> index.put(rs.getLong(1), rs.getString(2))));
+        log.info("고객 이름 색인 생성: {}건, {}ms", customerNameIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    public CustomerSearchResult search(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, properties.getMaxPageSize()));
+        int pageNumber = Math.max(page, 0);
+        // int 곱셈은 큰 page에서 음수로 넘치므로 long으로 계산
+        // 색인에 든 고객 수보다 뒤쪽이면 결과가 없으므로 힙에 일치 항목을 모으지 않고 전체 일치 수만 셈
+        long offset = (long) pageNumber * pageSize;
+        NGramIndex.Hits hits = offset >= customerNameIndex.size()
+                ? customerNameIndex.search(query, 0, 0)
+                : customerNameIndex.search(query, (int) offset, pageSize);
+
+        // IN 조회는 순서를 보장하지 않으므로 색인이 정한 순위대로 다시 정렬
+        // (색인 반영 직전에 삭제된 고객은 조회 결과에 없으므로 빠짐)
+        Map<Long, CustomerResponse> byId = customerRepository.findResponsesByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(CustomerResponse::id, Function.identity()));
+        List<CustomerResponse> customers = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new CustomerSearchResult(query, pageNumber, pageSize, hits.total(), customers);
+    }
+}
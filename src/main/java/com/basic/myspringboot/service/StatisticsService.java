@@ -0,0 +1,116 @@
+package com.basic.myspringboot.service;
+
+import com.basic.myspringboot.dto.DailySignups;
+import com.basic.myspringboot.dto.SignupCount;
+import com.basic.myspringboot.dto.UserStatistics;
+import com.basic.myspringboot.entity.StatTotal;
+import com.basic.myspringboot.exception.ExpectedBusinessException;
+import com.basic.myspringboot.property.StatisticsProperties;
+import com.basic.myspringboot.repository.DailySignupCountRepository;
+import com.basic.myspringboot.repository.StatTotalRepository;
+import com.basic.myspringboot.repository.UserRepository;
+import com.basic.myspringboot.shard.UserShards;
+import com.basic.myspringboot.stats.StatisticsReconciler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET /api/stats 통계
+ *
+ * User/Customer 수와 일별 가입자 수는 StatisticsRecorder가 INSERT/DELETE마다 같은 트랜잭션에서 갱신해 둔 값을 읽기만 함
+ * (COUNT(*), GROUP BY로 users, customers 전체를 읽지 않음)
+ *
+ * JDBC로 직접 넣은 행, 장애 등으로 어긋날 수 있으므로 시작할 때(백그라운드)와 myboot.stats.reconcile-interval마다 한 번
+ * 실제 테이블을 세어서 다르면 바로잡음 (StatisticsReconciler, 통계 행을 잠그고 세지 않으므로 등록/삭제를 막지 않음)
+ *
+ * @Scheduled와 시작할 때 맞추기를 위해 lazy-initialization 대상에서 제외(@Lazy(false))
+ */
+@Service
+@Lazy(false)
+public class StatisticsService implements SmartInitializingSingleton {
+    private final StatTotalRepository statTotalRepository;
+    private final DailySignupCountRepository dailySignupCountRepository;
+    private final UserRepository userRepository;
+    // 샤딩 모드가 아니면 null
+    private final UserShards userShards;
+    private final StatisticsReconciler reconciler;
+    private final TaskExecutor taskExecutor;
+    private final StatisticsProperties properties;
+
+    public StatisticsService(StatTotalRepository statTotalRepository,
+                             DailySignupCountRepository dailySignupCountRepository,
+                             UserRepository userRepository, ObjectProvider<UserShards> userShards,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                             StatisticsProperties properties, MeterRegistry meterRegistry) {
+        this.statTotalRepository = statTotalRepository;
+        this.dailySignupCountRepository = dailySignupCountRepository;
+        this.userRepository = userRepository;
+        this.userShards = userShards.getIfAvailable();
+        this.reconciler = new StatisticsReconciler(jdbcTemplate, transactionManager, this.userShards, meterRegistry);
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+    }
+
+    /** from ~ to(날짜, 둘 다 포함)의 일별 가입자 수와 전체 User/Customer 수, 기간을 주지 않으면 최근 default-days일 */
+    public UserStatistics statistics(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(properties.getDefaultDays() - 1L);
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        if (days < 1 || days > properties.getMaxDays()) {
+            throw ExpectedBusinessException.badRequest(
+                    "기간은 1일 ~ " + properties.getMaxDays() + "일이어야 합니다: " + start + " ~ " + end);
+        }
+        // 가입자가 없는 날은 행이 없으므로 0으로 채워서 날짜가 빠지지 않게 함
+        Map<LocalDate, Long> stored = new HashMap<>();
+        dailySignupCountRepository.findRange(start, end).forEach(day -> stored.put(day.date(), day.signups()));
+        List<DailySignups> signupsPerDay = new ArrayList<>((int) days);
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            signupsPerDay.add(new DailySignups(date, stored.getOrDefault(date, 0L)));
+        }
+        return new UserStatistics(statTotalRepository.sumTotal(StatTotal.USERS),
+                statTotalRepository.sumTotal(StatTotal.CUSTOMERS), signupsPerDay);
+    }
+
+    /** from 이상 to 미만에 가입한 User 수 (users.created_at 인덱스 범위 조회) */
+    public SignupCount signups(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw ExpectedBusinessException.badRequest("from은 to보다 앞이어야 합니다: " + from + " ~ " + to);
+        }
+        long signups = userShards != null
+                ? userShards.countSignups(from, to)
+                : userRepository.countSignups(from, to);
+        return new SignupCount(from, to, signups);
+    }
+
+    // 처음 실행(테이블이 없음)이면 맞추기가 끝날 때까지 0으로 보임
+    // 테이블을 세는 동안 애플리케이션 시작을 기다리게 하지 않도록 백그라운드(applicationTaskExecutor)에서 실행
+    @Override
+    public void afterSingletonsInstantiated() {
+        taskExecutor.execute(reconciler::reconcile);
+    }
+
+    /** 실제 테이블을 세어서 미리 세어 둔 값과 다르면 바로잡음 (StatisticsReconciler) */
+    @Scheduled(initialDelayString = "${myboot.stats.reconcile-interval:1h}",
+            fixedDelayString = "${myboot.stats.reconcile-interval:1h}")
+    public void reconcile() {
+        reconciler.reconcile();
+    }
+}
@@ -0,0 +1,206 @@
+package com.basic.myspringboot.service;
+
+import com.basic.myspringboot.datasource.ReadYourWrites;
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.property.UserApiProperties;
+import com.basic.myspringboot.repository.UserStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 여러 요청이 동시에 조회하는 User id를 모아서 IN 쿼리로 읽는 로더 (GET /api/users?ids=...)
+ *
+ * load()로 들어온 id는 myboot.users.batch-get-window 동안 큐에 모았다가 batch-get-chunk-size개씩 한 번에 조회함
+ *  - 같은 id를 이미 다른 요청이 기다리고 있으면 그 결과(CompletableFuture)를 같이 씀 (같은 id는 한 번만 조회)
+ *  - 큐가 chunk-size만큼 차면 window를 기다리지 않고 바로 보냄
+ *  - 조회는 가상 스레드에서 하고, 요청 스레드는 자기 id의 결과가 모두 나올 때까지 기다림
+ *  - 결과가 나오면 기다리던 목록에서 먼저 빼므로, 그 뒤에 들어온 조회는 DB를 다시 읽음 (오래된 값을 나눠 쓰지 않음)
+ *
+ * 방금 쓰기를 한 클라이언트(ReadYourWrites.isPinned())는 모으지 않고 요청 스레드에서 바로 조회함
+ * (primary에서 읽어야 하는데 그 표시는 요청 스레드에만 있어서, 다른 스레드에서 읽으면 replica로 갈 수 있음)
+ *
+ * 메트릭
+ *  - users.batch.queries: 보낸 IN 쿼리 수, users.batch.size: 쿼리 한 번에 담은 id 수
+ *  - users.batch.coalesced: 다른 요청이 이미 기다리던 조회를 같이 써서 아낀 id 수
+ */
+@Component
+public class UserBatchLoader implements DisposableBean {
+    private final UserStore userStore;
+    private final int chunkSize;
+    private final Duration window;
+    // 아래 세 필드는 this로 동기화
+    private final Map<Long, CompletableFuture<UserResponse>> waiting = new HashMap<>();
+    private List<Long> queued = new ArrayList<>();
+    private ScheduledFuture<?> scheduled;
+    private final ExecutorService loaders =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-batch-", 0).factory());
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("user-batch-timer").daemon().factory());
+    private final Counter queries;
+    private final Counter coalesced;
+    private final DistributionSummary batchSize;
+
+    public UserBatchLoader(UserStore userStore, UserApiProperties properties, MeterRegistry meterRegistry) {
+        this.userStore = userStore;
+        this.chunkSize = Math.max(1, properties.getBatchGetChunkSize());
+        this.window = properties.getBatchGetWindow();
+        this.queries = Counter.builder("users.batch.queries")
+                .description("여러 User 조회에서 보낸 IN 쿼리 수")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("users.batch.coalesced")
+                .description("다른 요청이 기다리던 조회를 같이 써서 DB에 묻지 않은 id 수")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("users.batch.size")
+                .description("IN 쿼리 한 번에 담은 id 수")
+                .register(meterRegistry);
+    }
+
+    /** 반환값: id -> UserResponse (없는 id는 빠짐) */
+    public Map<Long, UserResponse> load(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        if (window.isZero() || window.isNegative() || ReadYourWrites.isPinned()) {
+            Map<Long, UserResponse> found = new HashMap<>();
+            for (List<Long> chunk : chunks(new ArrayList<>(new LinkedHashSet<>(ids)))) {
+                query(chunk).forEach(user -> found.put(user.id(), user));
+            }
+            return found;
+        }
+
+        Map<Long, CompletableFuture<UserResponse>> futures = new LinkedHashMap<>();
+        List<List<Long>> full = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : ids) {
+                if (futures.containsKey(id)) {
+                    continue;
+                }
+                CompletableFuture<UserResponse> future = waiting.get(id);
+                if (future != null) {
+                    coalesced.increment();
+                } else {
+                    future = new CompletableFuture<>();
+                    waiting.put(id, future);
+                    queued.add(id);
+                    if (queued.size() >= chunkSize) {
+                        full.add(takeQueued());
+                    }
+                }
+                futures.put(id, future);
+            }
+            if (!queued.isEmpty() && scheduled == null) {
+                scheduled = timer.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        full.forEach(this::dispatch);
+
+        Map<Long, UserResponse> found = new HashMap<>();
+        try {
+            futures.forEach((id, future) -> {
+                UserResponse user = future.join();
+                if (user != null) {
+                    found.put(id, user);
+                }
+            });
+        } catch (CompletionException e) {
+            // 조회에서 난 예외(DataAccessException 등)를 그대로 던져서 에러 응답 처리가 같게 함
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return found;
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+        loaders.shutdownNow();
+        IllegalStateException stopped = new IllegalStateException("서버가 종료되는 중입니다.");
+        synchronized (this) {
+            waiting.values().forEach(future -> future.completeExceptionally(stopped));
+            waiting.clear();
+            queued.clear();
+        }
+    }
+
+    private void flush() {
+        List<Long> chunk;
+        synchronized (this) {
+            scheduled = null;
+            if (queued.isEmpty()) {
+                return;
+            }
+            chunk = takeQueued();
+        }
+        dispatch(chunk);
+    }
+
+    // synchronized 안에서만 호출
+    private List<Long> takeQueued() {
+        List<Long> chunk = queued;
+        queued = new ArrayList<>();
+        return chunk;
+    }
+
+    private void dispatch(List<Long> chunk) {
+        loaders.execute(() -> {
+            Map<Long, UserResponse> found = new HashMap<>();
+            RuntimeException failure = null;
+            try {
+                query(chunk).forEach(user -> found.put(user.id(), user));
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            List<CompletableFuture<UserResponse>> futures = new ArrayList<>(chunk.size());
+            synchronized (this) {
+                chunk.forEach(id -> futures.add(waiting.remove(id)));
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                CompletableFuture<UserResponse> future = futures.get(i);
+                if (future == null) {
+                    // 종료 중(destroy)에 이미 실패로 끝낸 것
+                    continue;
+                }
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(found.get(chunk.get(i)));
+                }
+            }
+        });
+    }
+
+    private List<UserResponse> query(List<Long> ids) {
+        queries.increment();
+        batchSize.record(ids.size());
+        return userStore.findResponsesByIdIn(ids);
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + chunkSize)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,203 @@
+package com.basic.myspringboot.service;
+
+import com.basic.myspringboot.dto.BulkImportResult;
+import com.basic.myspringboot.entity.User;
+import com.basic.myspringboot.exception.ExpectedBusinessException;
+import com.basic.myspringboot.property.ShardingProperties;
+import com.basic.myspringboot.property.UserApiProperties;
+import com.basic.myspringboot.repository.UserRepository;
+import com.basic.myspringboot.search.UserEmailFilter;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * POST /api/users/bulk 처리
+ *
+ * - 요청 본문(JSON 배열 또는 NDJSON)을 한 번에 메모리에 올리지 않고 한 건씩 읽음
+ * - myboot.users.bulk-chunk-size 건씩 모아서 하나의 트랜잭션으로 저장
+ *   (hibernate.jdbc.batch_size 단위로 INSERT가 JDBC batch로 묶여서 나감)
+ * - 잘못된 행은 전체를 실패시키지 않고 행 번호와 함께 BulkImportResult.errors에 담음
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserBulkImportService {
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+    private final UserApiProperties userApiProperties;
+    private final UserEmailFilter userEmailFilter;
+    private final ShardingProperties shardingProperties;
+
+    public BulkImportResult importUsers(InputStream in) throws IOException {
+        // JPA batch insert는 primary의 users에 넣으므로 샤드에 나눠 둔 User와 섞임
+        if (shardingProperties.isEnabled()) {
+            throw new ExpectedBusinessException("샤딩 모드에서는 bulk import를 지원하지 않습니다.", HttpStatus.NOT_IMPLEMENTED);
+        }
+        BulkImportResult result = new BulkImportResult();
+        int chunkSize = Math.max(1, userApiProperties.getBulkChunkSize());
+        // key: 요청 본문에서의 행 번호
+        Map<Integer, User> chunk = new LinkedHashMap<>();
+
+        ObjectReader reader = objectMapper.readerFor(User.class);
+        // readValues()는 최상위가 [ ... ] 이면 배열 원소를, 아니면 공백/줄바꿈으로 구분된 객체(NDJSON)를 차례로 읽어 줌
+        try (MappingIterator<User> iterator = reader.readValues(in)) {
+            int row = 0;
+            while (true) {
+                User user;
+                try {
+                    if (!iterator.hasNextValue()) {
+                        break;
+                    }
+                    user = iterator.nextValue();
+                } catch (JsonParseException e) {
+                    // JSON 문법 자체가 깨지면 다음 행의 시작을 알 수 없어서 여기서 멈춤
+                    result.received();
+                    result.error(row, null, "JSON 형식이 올바르지 않아 여기서 중단합니다: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    // 타입이 맞지 않는 행은 MappingIterator가 해당 값을 건너뛰고 다음 행부터 계속 읽음
+                    result.received();
+                    result.error(row++, null, e.getOriginalMessage());
+                    continue;
+                }
+                result.received();
+                chunk.put(row++, user);
+                if (chunk.size() >= chunkSize) {
+                    flushChunk(chunk, result);
+                }
+            }
+        }
+        flushChunk(chunk, result);
+        // 검증 단계별로 쌓인 에러를 요청 본문 순서대로 정렬
+        result.getErrors().sort(Comparator.comparingInt(BulkImportResult.RowError::row));
+        log.info("bulk import: received={}, inserted={}, failed={}",
+                result.getReceived(), result.getInserted(), result.getFailed());
+        return result;
+    }
+
+    private void flushChunk(Map<Integer, User> chunk, BulkImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // 1) Bean Validation(@NotBlank, @Email)과 요청 안에서의 email 중복 확인
+        Map<Integer, User> valid = new LinkedHashMap<>();
+        Set<String> emailsInChunk = new HashSet<>();
+        chunk.forEach((row, user) -> {
+            Set<ConstraintViolation<User>> violations = validator.validate(user);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .collect(Collectors.joining(", "));
+                result.error(row, user.getEmail(), message);
+            } else if (!emailsInChunk.add(user.getEmail())) {
+                result.error(row, user.getEmail(), "요청 안에서 Email이 중복되었습니다.");
+            } else {
+                // 클라이언트가 보낸 id는 무시하고 시퀀스에서 새로 받음
+                user.setId(null);
+                valid.put(row, user);
+            }
+        });
+        chunk.clear();
+
+        // 2) 이미 DB에 있는 email은 unique 제약조건에 걸리기 전에 한 번의 IN 쿼리로 걸러냄
+        //    Bloom filter가 "확실히 없음"이라고 한 email은 IN 목록에서 빼고, 남은 게 없으면 쿼리를 보내지 않음
+        emailsInChunk.removeIf(email -> !userEmailFilter.mightContain(email));
+        if (!valid.isEmpty() && !emailsInChunk.isEmpty()) {
+            Set<String> existing = new HashSet<>(userRepository.findExistingEmails(emailsInChunk));
+            valid.entrySet().removeIf(entry -> {
+                if (existing.contains(entry.getValue().getEmail())) {
+                    result.error(entry.getKey(), entry.getValue().getEmail(), "이미 등록된 Email입니다.");
+                    return true;
+                }
+                return false;
+            });
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // 3) 남은 행을 한 트랜잭션으로 저장
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            List<User> saved = transactionTemplate.execute(status -> saveAndClear(new ArrayList<>(valid.values())));
+            result.inserted(saved.size());
+            // 없는 email로 캐시되어 있던 항목 제거, 변경 피드에 알림
+            userService.inserted(saved);
+        } catch (DataIntegrityViolationException | PersistenceException e) {
+            // 확인 이후 다른 요청이 같은 email을 먼저 넣은 경우: 어떤 행이 문제인지 알기 위해 한 건씩 다시 저장
+            // (flush에서 실패하면 Spring 예외로 바뀌지 않은 PersistenceException으로 나올 수 있음)
+            // 실패한 batch가 id/version을 채운 엔티티와 영속성 컨텍스트(open-in-view면 요청 내내 같은 것)는 다시 쓰지 않음
+            entityManager.clear();
+            valid.forEach((row, user) -> {
+                try {
+                    List<User> saved = transactionTemplate.execute(status -> saveAndClear(List.of(copyOf(user))));
+                    result.inserted(1);
+                    userService.inserted(saved);
+                } catch (DataIntegrityViolationException | PersistenceException rowException) {
+                    entityManager.clear();
+                    if (!isConstraintViolation(rowException)) {
+                        throw rowException;
+                    }
+                    result.error(row, user.getEmail(), "이미 등록된 Email입니다.");
+                }
+            });
+        }
+    }
+
+    // 저장된 엔티티(id, version이 채워진 것)를 반환
+    private List<User> saveAndClear(List<User> users) {
+        List<User> saved = userRepository.saveAll(users);
+        // batch INSERT를 바로 내보내고, 영속성 컨텍스트를 비워서 chunk가 끝나면 메모리에서 사라지게 함
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    // 요청에서 받은 값만 옮긴 새 엔티티 (id, version이 없으므로 merge가 아닌 persist)
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setName(user.getName());
+        copy.setEmail(user.getEmail());
+        copy.setCreatedAt(user.getCreatedAt());
+        return copy;
+    }
+
+    private static boolean isConstraintViolation(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException || cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,316 @@
+package com.basic.myspringboot.service;
+
+import com.basic.myspringboot.config.CacheConfig;
+import com.basic.myspringboot.dto.UserChange;
+import com.basic.myspringboot.dto.UserCreation;
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.dto.UserVersion;
+import com.basic.myspringboot.entity.User;
+import com.basic.myspringboot.exception.ExpectedBusinessException;
+import com.basic.myspringboot.feed.UserChangeFeed;
+import com.basic.myspringboot.repository.UserStore;
+import com.basic.myspringboot.search.UserEmailFilter;
+import com.basic.myspringboot.stats.StatisticsRecorder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * User 조회/저장/삭제를 한 곳에서 처리하는 서비스
+ *
+ * 조회는 캐시를 먼저 보고(read-through), 없을 때만 DB에서 읽어서 캐시에 넣음
+ * (여러 id 조회는 캐시에 없는 id를 UserBatchLoader로 모아서 읽음, findAllById 참고)
+ *  - users 캐시: id -> UserResponse (없는 id도 null로 저장해서 반복 조회를 막음)
+ *    DB에서 읽을 때도 엔티티를 만들지 않는 projection 쿼리(findResponseById)를 씀
+ *  - userIdsByEmail 캐시: email -> id
+ *    UserResponse는 users 캐시 한 곳에만 두기 때문에 id만 지우면 email 조회도 같이 무효화됨
+ *  - userVersions 캐시: id -> UserVersion (조건부 GET에서 User 없이 ETag만 비교)
+ * 저장/삭제 후에는 해당 id, email 캐시를 지워서 다음 조회가 DB의 최신 값을 읽게 함
+ *
+ * 삭제와 이름 변경은 엔티티를 읽지 않고 DELETE/UPDATE 한 문장으로 처리하고, 바뀐 행 수가 0이면 404
+ *
+ * email 조회와 등록 전 중복 확인은 UserEmailFilter(Bloom filter)를 먼저 봄
+ *  - 필터가 "확실히 없음"이라고 하면 캐시/DB를 보지 않음 (없는 email 조회는 바로 404, 등록은 확인 쿼리 없이 INSERT)
+ *  - 중복의 최종 판단은 users.email unique 제약조건 (위반이면 409)
+ *
+ * 삭제와 이름 변경은 엔티티를 읽지 않는 JPQL이라서 엔티티 리스너(StatisticsListener)가 불리지 않으므로
+ * 삭제한 행은 여기서 StatisticsRecorder에 직접 알림
+ *
+ * 생성/수정/삭제가 커밋되면 UserChangeFeed에 알려서 GET /api/users/changes 구독자에게 보냄
+ * (컨트롤러의 모든 변경 경로가 이 서비스를 거치므로 여기 한 곳에서 처리)
+ *
+ * 저장소는 UserStore: 기본은 DB 하나(JpaUserStore), myboot.sharding.enabled=true 이면 샤드들(ShardedUserStore)
+ * 캐시, 필터, 변경 피드, 404/409/412 처리는 어느 쪽이든 여기서 똑같이 함
+ *
+ * 조회 결과는 값을 바꿀 수 없는 UserResponse(record)라서 캐시에 둔 객체를 여러 요청이 같이 써도 안전함
+ * (수정할 때는 엔티티를 읽지 않고 UPDATE 문으로 처리)
+ */
+@Service
+public class UserService {
+    private final UserStore userStore;
+    private final Cache usersById;
+    private final Cache userIdsByEmail;
+    private final Cache userVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final UserEmailFilter userEmailFilter;
+    private final UserChangeFeed userChangeFeed;
+    private final StatisticsRecorder statisticsRecorder;
+    private final UserBatchLoader userBatchLoader;
+
+    public UserService(UserStore userStore, CacheManager cacheManager,
+                       PlatformTransactionManager transactionManager, UserEmailFilter userEmailFilter,
+                       UserChangeFeed userChangeFeed, StatisticsRecorder statisticsRecorder,
+                       UserBatchLoader userBatchLoader) {
+        this.userStore = userStore;
+        this.userBatchLoader = userBatchLoader;
+        this.userEmailFilter = userEmailFilter;
+        this.userChangeFeed = userChangeFeed;
+        this.statisticsRecorder = statisticsRecorder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.usersById = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USERS));
+        this.userIdsByEmail = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USER_IDS_BY_EMAIL));
+        this.userVersions = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USER_VERSIONS));
+    }
+
+    public Optional<UserResponse> findById(Long id) {
+        // Cache.get(key, valueLoader): 캐시에 없을 때만 valueLoader를 실행, 같은 key는 한 번만 DB 조회
+        return Optional.ofNullable(usersById.get(id, () -> userStore.findResponseById(id).orElse(null)));
+    }
+
+    /**
+     * 여러 id를 한 번에 조회 (반환값: id -> UserResponse, 없는 id는 빠짐)
+     * users 캐시에 있는 것(없는 id로 저장된 null 포함)은 그대로 쓰고, 나머지만 UserBatchLoader로 모아서 IN 쿼리로 읽음
+     * 읽은 값은 캐시에 넣지 않음: 읽는 사이에 수정이 커밋되어 캐시를 지웠으면 예전 값을 다시 넣게 되므로
+     * (findById의 Cache.get(key, valueLoader)는 같은 key를 지우는 쪽이 읽기가 끝날 때까지 기다려서 괜찮음)
+     */
+    public Map<Long, UserResponse> findAllById(Collection<Long> ids) {
+        Map<Long, UserResponse> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Cache.ValueWrapper cached = usersById.get(id);
+            if (cached == null) {
+                misses.add(id);
+            } else if (cached.get() instanceof UserResponse user) {
+                found.put(id, user);
+            }
+        }
+        found.putAll(userBatchLoader.load(misses));
+        return found;
+    }
+
+    /**
+     * ETag 비교용 버전 정보
+     * User가 캐시에 있으면 거기서, 없으면 버전만 읽는 가벼운 쿼리 결과를 userVersions 캐시에 넣어 둠
+     */
+    public Optional<UserVersion> findVersion(Long id) {
+        UserResponse cached = usersById.get(id, UserResponse.class);
+        if (cached != null) {
+            return Optional.of(UserVersion.of(cached));
+        }
+        return Optional.ofNullable(userVersions.get(id, () -> userStore.findVersionById(id).orElse(null)));
+    }
+
+    public Optional<UserResponse> findByEmail(String email) {
+        // 필터에 없는 email이면 캐시에 null을 쌓지도 않고 바로 반환
+        if (!userEmailFilter.mightContain(email)) {
+            return Optional.empty();
+        }
+        Long id = userIdsByEmail.get(email, () -> {
+            Long found = userStore.findResponseByEmail(email).map(UserResponse::id).orElse(null);
+            if (found == null) {
+                userEmailFilter.falsePositive(email);
+            }
+            return found;
+        });
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<UserResponse> user = findById(id);
+        // 캐시에 남아 있던 email -> id 매핑이 오래된 경우(삭제되었거나 email이 바뀐 경우) DB에서 다시 확인
+        if (user.isEmpty() || !email.equals(user.get().email())) {
+            userIdsByEmail.evict(email);
+            return userStore.findResponseByEmail(email);
+        }
+        return user;
+    }
+
+    /** Keyset 페이지: id가 after보다 큰 User를 id 순으로 limit개 (샤딩 모드에서는 모든 샤드에서 모아서 합침) */
+    public List<UserResponse> findAfter(long after, int limit) {
+        return userStore.findResponsesAfter(after, limit);
+    }
+
+    /**
+     * 새 User(id 없음)는 email 중복을 먼저 확인하고, 이미 있으면 BusinessException(409)
+     * 필터가 "확실히 없음"이면 확인 쿼리를 건너뜀
+     * 확인과 INSERT 사이에 다른 요청이 같은 email을 넣었으면 unique 제약조건 위반을 409로 바꿈
+     */
+    public User save(User user) {
+        boolean creating = user.getId() == null;
+        if (creating && userEmailFilter.mightContain(user.getEmail())
+                && userStore.findResponseByEmail(user.getEmail()).isPresent()) {
+            throw duplicateEmail();
+        }
+        User saved;
+        try {
+            saved = userStore.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // 다른 제약조건 위반(NOT NULL 등)은 그대로 던짐
+            if (creating && userStore.findResponseByEmail(user.getEmail()).isPresent()) {
+                throw duplicateEmail();
+            }
+            throw e;
+        }
+        evict(saved);
+        UserResponse response = UserResponse.of(saved);
+        afterCommit(() -> userChangeFeed.publish(creating ? UserChange.created(response) : UserChange.updated(response)));
+        return saved;
+    }
+
+    /** 없는 User면 아무 일도 하지 않음 */
+    @Transactional
+    public void delete(User user) {
+        deleteAllById(List.of(user.getId()));
+        evict(user);
+    }
+
+    /** 엔티티를 읽지 않고 DELETE 한 번으로 삭제하면서 지운 행의 가입 시각을 받음, 없는 id면 BusinessException(404) */
+    @Transactional
+    public void deleteById(Long id) {
+        // 일별 가입자 수에서 뺄 가입 시각은 이 호출이 실제로 삭제한 행의 것 (동시에 지운 요청과 두 번 빼지 않음)
+        List<UserCreation> deleted = userStore.deleteByIdIn(List.of(id));
+        if (deleted.isEmpty()) {
+            throw notFound();
+        }
+        statisticsRecorder.userDeleted(deleted.get(0).createdAt());
+        evictId(id);
+        userEmailFilter.removed(1);
+        afterCommit(() -> userChangeFeed.publish(UserChange.deleted(id)));
+    }
+
+    /** 여러 id를 DELETE ... WHERE id IN (...) 한 번으로 삭제하고 실제로 삭제된 행 수를 반환 (없는 id는 무시) */
+    @Transactional
+    public int deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // 변경 피드와 통계에는 이 호출이 실제로 삭제한 행만 반영 (동시에 같은 id를 지운 요청과 두 번 반영되지 않음)
+        List<UserCreation> deleted = userStore.deleteByIdIn(ids);
+        if (deleted.isEmpty()) {
+            return 0;
+        }
+        List<Long> deletedIds = deleted.stream().map(UserCreation::id).toList();
+        deletedIds.forEach(this::evictId);
+        deleted.forEach(user -> statisticsRecorder.userDeleted(user.createdAt()));
+        userEmailFilter.removed(deleted.size());
+        afterCommit(() -> deletedIds.forEach(id -> userChangeFeed.publish(UserChange.deleted(id))));
+        return deleted.size();
+    }
+
+    /**
+     * UPDATE 한 번으로 이름만 바꾸고, 커밋 후에 바뀐 User를 다시 읽어서 반환 (없는 id면 404)
+     * 반환할 때 읽은 User는 캐시에 들어가므로 이어지는 GET은 DB를 타지 않음
+     */
+    public UserResponse updateName(Long id, String name) {
+        return updateName(id, name, null);
+    }
+
+    /**
+     * expectedVersion이 있으면 DB의 버전이 같을 때만 변경 (If-Match, 수정 폼의 version)
+     * 그 사이에 다른 요청이 먼저 바꿨으면 BusinessException(412)
+     */
+    public UserResponse updateName(Long id, String name, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = userStore.updateName(id, name, expectedVersion, now);
+            if (updated == 0) {
+                if (expectedVersion != null && userStore.existsById(id)) {
+                    throw new ExpectedBusinessException("다른 요청이 먼저 User를 수정했습니다. 다시 조회한 뒤 수정하세요.",
+                            HttpStatus.PRECONDITION_FAILED);
+                }
+                throw notFound();
+            }
+            // email은 그대로이므로 id 캐시만 지우면 됨
+            evictId(id);
+        });
+        // 여기서는 트랜잭션이 이미 커밋되었으므로 읽은 값을 바로 변경 피드에 보냄
+        UserResponse updated = findById(id).orElseThrow(UserService::notFound);
+        userChangeFeed.publish(UserChange.updated(updated));
+        return updated;
+    }
+
+    /** DB를 직접 바꾼 뒤(bulk insert 등) 캐시를 비울 때 사용 */
+    public void evictAll(Collection<User> users) {
+        users.forEach(this::evict);
+    }
+
+    /** bulk insert가 커밋된 뒤: 캐시를 비우고 변경 피드에 생성으로 알림 */
+    public void inserted(Collection<User> users) {
+        evictAll(users);
+        users.forEach(user -> userChangeFeed.publish(UserChange.created(UserResponse.of(user))));
+    }
+
+    private void evictId(Long id) {
+        afterCommit(() -> {
+            usersById.evict(id);
+            userVersions.evict(id);
+        });
+    }
+
+    private static ExpectedBusinessException notFound() {
+        return ExpectedBusinessException.notFound("User Not Found");
+    }
+
+    private static ExpectedBusinessException duplicateEmail() {
+        return ExpectedBusinessException.conflict("이미 등록된 Email입니다.");
+    }
+
+    private void evict(User user) {
+        Long id = user.getId();
+        String email = user.getEmail();
+        afterCommit(() -> {
+            if (id != null) {
+                // 예전 email로 저장된 매핑도 같이 지움
+                UserResponse cached = usersById.get(id, UserResponse.class);
+                if (cached != null) {
+                    userIdsByEmail.evict(cached.email());
+                }
+                usersById.evict(id);
+                userVersions.evict(id);
+            }
+            if (email != null) {
+                userIdsByEmail.evict(email);
+            }
+        });
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋이 끝난 뒤에 실행 (커밋 전에 지우면 다른 요청이 예전 값을 다시 캐시에 넣을 수 있음)
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.basic.myspringboot.service;
+
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.repository.UserRepository;
+import com.basic.myspringboot.shard.UserShards;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * users 테이블 전체를 NDJSON으로 흘려보내는 서비스
+ *
+ * StreamingResponseBody는 컨트롤러 메서드가 끝난 뒤 별도의 스레드에서 실행되기 때문에
+ * @Transactional 대신 TransactionTemplate으로 직접 읽기 전용 트랜잭션을 연다
+ *
+ * 샤딩 모드에서는 UserShards.findAfter()로 모든 샤드에서 FLUSH_EVERY 행씩 id 순으로 합쳐서 읽음
+ * (페이지마다 따로 읽으므로 한 시점의 스냅샷은 아니지만, 읽는 동안 바뀌지 않은 행은 id 순으로 한 번씩 나감)
+ */
+@Service
+@RequiredArgsConstructor
+public class UserStreamService {
+    // 이 행 수만큼 쓸 때마다 소켓으로 flush
+    private static final int FLUSH_EVERY = 500;
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<UserShards> userShards;
+
+    public void writeNdjson(OutputStream out) throws IOException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        // 행마다 flush 하지 않도록 FLUSH_AFTER_WRITE_VALUE를 끄고, 응답 스트림은 서블릿 컨테이너가 닫도록 둠
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            UserShards shards = userShards.getIfAvailable();
+            if (shards != null) {
+                writeSharded(shards, writer, generator);
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                // 엔티티가 아닌 UserResponse로 읽으므로 영속성 컨텍스트에 쌓이지 않음 (detach 할 것이 없음)
+                try (Stream<UserResponse> users = userRepository.streamResponsesByOrderById()) {
+                    int count = 0;
+                    Iterator<UserResponse> iterator = users.iterator();
+                    while (iterator.hasNext()) {
+                        writer.writeValue(generator, iterator.next());
+                        generator.writeRaw('\n');
+                        if (++count % FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static void writeSharded(UserShards shards, ObjectWriter writer, JsonGenerator generator)
+            throws IOException {
+        long after = 0;
+        List<UserResponse> page;
+        do {
+            page = shards.findAfter(after, FLUSH_EVERY);
+            for (UserResponse user : page) {
+                writer.writeValue(generator, user);
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == FLUSH_EVERY);
+    }
+}
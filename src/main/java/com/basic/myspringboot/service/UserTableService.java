@@ -0,0 +1,195 @@
+package com.basic.myspringboot.service;
+
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.exception.ExpectedBusinessException;
+import com.basic.myspringboot.property.UserApiProperties;
+import com.basic.myspringboot.repository.UserRepository;
+import com.basic.myspringboot.shard.UserShards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * /index 화면의 User 목록
+ *
+ * - findAll() 대신 ?page=&size=&sort= 로 한 페이지만 읽음
+ * - 페이지 이동에는 COUNT(*)가 필요 없음: 마지막 SELECT를 한 행 더 읽어서 다음 페이지가 있는지만 확인
+ * - 화면 위쪽의 전체 건수는 myboot.users.view-count-ttl 동안 한 번만 세고 재사용 (대략적인 값)
+ * - 행은 Thymeleaf가 th:each로 꺼낼 때 view-chunk-size 행씩 읽음
+ *   Thymeleaf는 렌더링하면서 응답에 바로 쓰기 때문에(produce-partial-output-while-processing)
+ *   앞쪽 행은 뒤쪽 행을 읽기 전에 브라우저로 나감
+ * - 행은 엔티티가 아닌 UserResponse로 읽음: open-in-view(요청이 끝날 때까지 열려 있는 EntityManager)에
+ *   관리 대상으로 쌓이지 않으므로, 다 쓴 chunk는 바로 GC 대상이 됨
+ * - OFFSET은 페이지의 첫 chunk에서만 쓰고, 다음 chunk는 앞 chunk의 마지막 행 다음부터(keyset) 읽음
+ *   (chunk마다 앞쪽 행을 다시 건너뛰지 않음)
+ * - 샤딩 모드에서는 UserShards.findPage()로 모든 샤드에서 한 페이지(+ 한 행)를 한 번에 읽어서 합치고,
+ *   전체 건수는 모든 샤드의 COUNT(*) 합
+ */
+@Service
+@RequiredArgsConstructor
+public class UserTableService {
+    // 정렬할 수 있는 컬럼 (그 밖의 값은 400)
+    private static final Set<String> SORTABLE = Set.of("id", "name", "email", "createdAt");
+
+    private final UserRepository userRepository;
+    private final UserApiProperties userApiProperties;
+    private final ObjectProvider<UserShards> userShards;
+
+    private volatile CachedCount cachedCount;
+
+    public UserTable page(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw ExpectedBusinessException.badRequest("정렬할 수 없는 항목입니다: " + order.getProperty());
+            }
+        }
+        int size = Math.max(1, Math.min(pageable.getPageSize(), userApiProperties.getMaxPageSize()));
+        // 같은 값이 여러 행이면 offset마다 순서가 달라질 수 있어서 마지막에 항상 id로 정렬
+        Sort sort = pageable.getSort().getOrderFor("id") == null
+                ? pageable.getSort().and(Sort.by("id"))
+                : pageable.getSort();
+        return new UserTable(pageable.getPageNumber(), size, sort, estimatedCount());
+    }
+
+    /** 전체 User 수 (최대 view-count-ttl 만큼 오래된 값) */
+    public long estimatedCount() {
+        CachedCount current = cachedCount;
+        long now = System.nanoTime();
+        if (current == null || now - current.countedAt() > userApiProperties.getViewCountTtl().toNanos()) {
+            // 동시에 만료되면 몇 번 더 셀 수는 있지만 값은 같으므로 잠그지 않음
+            UserShards shards = userShards.getIfAvailable();
+            current = new CachedCount(shards != null ? shards.count() : userRepository.count(), now);
+            cachedCount = current;
+        }
+        return current.count();
+    }
+
+    private record CachedCount(long count, long countedAt) {
+    }
+
+    /**
+     * 한 페이지의 행과 페이지 이동 정보
+     * hasNext는 rows를 끝까지 꺼낸 뒤에 정해지므로 템플릿에서 테이블 아래쪽에서 사용
+     */
+    public final class UserTable {
+        private final int page;
+        private final int size;
+        private final Sort sort;
+        private final long estimatedTotal;
+        private boolean hasNext;
+
+        private UserTable(int page, int size, Sort sort, long estimatedTotal) {
+            this.page = page;
+            this.size = size;
+            this.sort = sort;
+            this.estimatedTotal = estimatedTotal;
+        }
+
+        public Iterable<UserResponse> getRows() {
+            return RowIterator::new;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * 페이지 링크에 붙일 sort 파라미터 값, 정렬 순서마다 하나씩 (예: [name,asc, email,desc, id,asc])
+         * 템플릿의 @{...(sort=${table.sortParams})}는 목록을 sort=..&sort=.. 로 반복해서 붙임
+         */
+        public List<String> getSortParams() {
+            return sort.stream()
+                    .map(order -> order.getProperty() + "," + order.getDirection().name().toLowerCase())
+                    .toList();
+        }
+
+        public long getEstimatedTotal() {
+            return estimatedTotal;
+        }
+
+        public boolean isHasPrevious() {
+            return page > 0;
+        }
+
+        public boolean isHasNext() {
+            return hasNext;
+        }
+
+        private class RowIterator implements Iterator<UserResponse> {
+            private int remaining = size;
+            private boolean more = true;
+            private UserResponse last;
+            private Iterator<UserResponse> chunk = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                UserShards shards = userShards.getIfAvailable();
+                if (shards != null && more) {
+                    // 샤드마다 앞 페이지의 행까지 다시 읽으므로 chunk로 나누지 않고 한 번에 읽음
+                    List<UserResponse> rows = shards.findPage(sort, (long) page * size, size + 1);
+                    hasNext = rows.size() > size;
+                    chunk = rows.subList(0, Math.min(size, rows.size())).iterator();
+                    more = false;
+                }
+                while (!chunk.hasNext() && remaining > 0 && more) {
+                    int limit = Math.min(remaining, Math.max(1, userApiProperties.getViewChunkSize()));
+                    ScrollPosition position = last == null ? position((long) page * size) : keyset(sort, last);
+                    Window<UserResponse> window = userRepository.findResponsesBy(position, sort, Limit.of(limit));
+                    chunk = window.iterator();
+                    if (!window.isEmpty()) {
+                        last = window.getContent().get(window.size() - 1);
+                    }
+                    remaining -= window.size();
+                    more = window.hasNext() && window.size() > 0;
+                    // 페이지의 마지막 chunk가 한 행 더 읽은 결과가 곧 다음 페이지 여부
+                    hasNext = remaining == 0 && more;
+                }
+                return chunk.hasNext();
+            }
+
+            @Override
+            public UserResponse next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.next();
+            }
+        }
+    }
+
+    // ScrollPosition.offset(n)은 n번째 행 "다음"부터 읽음
+    private static ScrollPosition position(long offset) {
+        return offset == 0 ? ScrollPosition.offset() : ScrollPosition.offset(offset - 1);
+    }
+
+    // last 다음 행부터: 정렬 컬럼(SORTABLE, 모두 NOT NULL)의 값으로 WHERE (정렬 컬럼들) > (last의 값들)
+    private static ScrollPosition keyset(Sort sort, UserResponse last) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), switch (order.getProperty()) {
+                case "name" -> last.name();
+                case "email" -> last.email();
+                case "createdAt" -> last.createdAt();
+                default -> last.id();
+            });
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
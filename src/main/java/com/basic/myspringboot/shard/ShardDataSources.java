@@ -0,0 +1,35 @@
+package com.basic.myspringboot.shard;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** 샤드 설정(HikariConfig 목록)으로 샤드마다 Hikari 풀을 만듦 (순서 = 샤드 번호) */
+public final class ShardDataSources {
+
+    private ShardDataSources() {
+    }
+
+    /** meterRegistry가 있으면 hikaricp_connections_* 메트릭을 pool 태그(풀 이름)로 구분해서 기록 */
+    public static Map<String, DataSource> create(List<HikariConfig> configs, String namePrefix,
+                                                 MeterRegistry meterRegistry) {
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < configs.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            configs.get(i).copyStateTo(pool);
+            if (pool.getPoolName() == null) {
+                pool.setPoolName(namePrefix + i);
+            }
+            if (meterRegistry != null) {
+                pool.setMetricRegistry(meterRegistry);
+            }
+            pools.put(pool.getPoolName(), pool);
+        }
+        return pools;
+    }
+}
@@ -0,0 +1,70 @@
+package com.basic.myspringboot.shard;
+
+import java.util.Locale;
+
+/**
+ * User를 어느 샤드에 둘지 정하는 키 계산
+ *
+ * email 해시로 1024개의 고정 bucket 중 하나를 정하고, bucket을 샤드 수로 나눈 나머지 샤드에 둠
+ *  - bucket 수는 바꾸지 않음, 샤드 수를 바꾸면(리샤딩) bucket -> 샤드 대응만 바뀜
+ *  - 대소문자만 다른 email은 같은 샤드에 가야 unique 제약조건이 중복을 막을 수 있으므로 소문자로 바꿔서 해시
+ *
+ * 샤딩 모드에서 만든 id는 bucket을 담고 있어서 id만 보고도 샤드를 알 수 있음 (샤드 인식 id)
+ *    63      53   52   51                    10  9        0
+ *   [  0 ... 0 ][ 1 ][ 샤드별 시퀀스 값 (42비트) ][ bucket ]
+ *  - 52번 비트(SHARDED_ID_FLAG)는 샤딩 전에 만든 id(1, 2, 3 ...)와 겹치지 않게 하려고 켬
+ *    (샤딩 전 id는 bucket이 없으므로 조회할 때 모든 샤드에 물어봄)
+ *  - 2^53 보다 작아서 JavaScript Number로 받아도 값이 바뀌지 않음
+ *  - 같은 bucket은 한 번에 한 샤드에만 있으므로 샤드마다 따로 시퀀스를 써도 id가 겹치지 않음
+ *    (리샤딩으로 bucket이 옮겨 가면 UserResharder가 새 샤드의 시퀀스를 옮겨 온 값 뒤로 맞춤)
+ */
+public final class ShardKey {
+    public static final int BUCKET_BITS = 10;
+    public static final int BUCKETS = 1 << BUCKET_BITS;
+    public static final long SHARDED_ID_FLAG = 1L << 52;
+    // 시퀀스 값으로 쓸 수 있는 최댓값 (42비트)
+    public static final long MAX_SEQUENCE = (SHARDED_ID_FLAG >>> BUCKET_BITS) - 1;
+
+    private ShardKey() {
+    }
+
+    public static int bucketOf(String email) {
+        String normalized = email.strip().toLowerCase(Locale.ROOT);
+        // 64비트 FNV-1a 후 SplitMix64로 섞어서 하위 비트도 고르게 퍼지게 함
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash = (hash ^ normalized.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return (int) ((hash ^ (hash >>> 31)) & (BUCKETS - 1));
+    }
+
+    public static int shardOf(int bucket, int shardCount) {
+        return bucket % shardCount;
+    }
+
+    public static int shardOf(String email, int shardCount) {
+        return shardOf(bucketOf(email), shardCount);
+    }
+
+    /** 샤딩 모드에서 만든 id인지 (아니면 bucket을 알 수 없음) */
+    public static boolean isShardedId(long id) {
+        return id >= SHARDED_ID_FLAG && id < SHARDED_ID_FLAG << 1;
+    }
+
+    public static int bucketOf(long shardedId) {
+        return (int) (shardedId & (BUCKETS - 1));
+    }
+
+    public static long sequenceOf(long shardedId) {
+        return (shardedId & ~SHARDED_ID_FLAG) >>> BUCKET_BITS;
+    }
+
+    public static long id(long sequence, int bucket) {
+        if (sequence < 1 || sequence > MAX_SEQUENCE) {
+            throw new IllegalStateException("샤드 시퀀스 값이 범위를 벗어남: " + sequence);
+        }
+        return SHARDED_ID_FLAG | sequence << BUCKET_BITS | bucket;
+    }
+}
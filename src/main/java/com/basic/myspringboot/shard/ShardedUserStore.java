@@ -0,0 +1,87 @@
+package com.basic.myspringboot.shard;
+
+import com.basic.myspringboot.dto.UserCreation;
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.dto.UserVersion;
+import com.basic.myspringboot.entity.User;
+import com.basic.myspringboot.exception.ExpectedBusinessException;
+import com.basic.myspringboot.repository.UserStore;
+import com.basic.myspringboot.search.UserEmailFilter;
+import com.basic.myspringboot.stats.StatisticsRecorder;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 샤드에 두는 User 저장소 (myboot.sharding.enabled=true, ShardingConfig에서 등록)
+ *
+ * JPA를 거치지 않으므로 엔티티 리스너가 하던 일(통계, email Bloom filter 반영)을 등록할 때 직접 함
+ * 수정은 이름 변경(updateName)만 있음 (email은 샤드 키라서 바꾸지 않음)
+ */
+@RequiredArgsConstructor
+public class ShardedUserStore implements UserStore {
+    private final UserShards userShards;
+    private final StatisticsRecorder statisticsRecorder;
+    private final UserEmailFilter userEmailFilter;
+
+    @Override
+    public Optional<UserResponse> findResponseById(Long id) {
+        return userShards.findById(id);
+    }
+
+    @Override
+    public List<UserResponse> findResponsesByIdIn(Collection<Long> ids) {
+        return userShards.findByIdIn(ids);
+    }
+
+    @Override
+    public Optional<UserVersion> findVersionById(Long id) {
+        return userShards.findVersionById(id);
+    }
+
+    @Override
+    public Optional<UserResponse> findResponseByEmail(String email) {
+        return userShards.findByEmail(email);
+    }
+
+    @Override
+    public List<UserResponse> findResponsesAfter(long after, int limit) {
+        return userShards.findAfter(after, limit);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return userShards.existsById(id);
+    }
+
+    @Override
+    public User save(User user) {
+        if (user.getId() != null) {
+            throw ExpectedBusinessException.badRequest("샤딩 모드에서는 id를 지정해서 등록할 수 없습니다: " + user.getId());
+        }
+        // DATETIME(6)에 저장되는 정밀도로 맞춰서 반환하는 값과 DB 값이 같게 함
+        UserResponse saved = userShards.insert(user.getName(), user.getEmail(),
+                LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        user.setId(saved.id());
+        user.setCreatedAt(saved.createdAt());
+        user.setVersion(saved.version());
+        user.setUpdatedAt(saved.updatedAt());
+        statisticsRecorder.userCreated(user);
+        userEmailFilter.add(user.getEmail());
+        return user;
+    }
+
+    @Override
+    public List<UserCreation> deleteByIdIn(Collection<Long> ids) {
+        return userShards.deleteByIdIn(ids);
+    }
+
+    @Override
+    public int updateName(Long id, String name, Long expectedVersion, LocalDateTime updatedAt) {
+        return userShards.updateName(id, name, expectedVersion, updatedAt);
+    }
+}
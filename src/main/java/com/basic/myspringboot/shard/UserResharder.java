@@ -0,0 +1,253 @@
+package com.basic.myspringboot.shard;
+
+import com.basic.myspringboot.dto.UserResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * 온라인 리샤딩: 지금 쓰는 샤드들(sources)의 users를 새 샤드 구성(targets)으로 batch-size 행씩 복사
+ *
+ * 애플리케이션은 그동안 sources로 계속 서비스하고, 복사는 몇 번 반복해서 그 사이의 변경을 따라잡음
+ *  1. copy: id 순으로 batch-size개씩 읽어서 email 해시로 정한 target에 없으면 INSERT, 버전이 더 높으면 UPDATE
+ *     바뀐 행이 없을 때까지(최대 max-passes번) 반복
+ *  2. sources에서 삭제된 행을 targets에서도 삭제
+ *  3. targets의 users_shard_seq를 지금까지 나온 가장 큰 시퀀스 값 + id-gap 뒤로 맞춤
+ *     (bucket이 다른 샤드로 옮겨 가도 id가 겹치지 않게, 전환 직전에 sources에 들어온 행이 쓸 자리도 남겨 둠)
+ * 전환: 쓰기를 잠깐 멈추거나 바로 전에 한 번 더 실행 -> myboot.sharding.shards를 targets로 바꿔서 재시작
+ *       -> 새 구성에서 cleanup으로 자기 샤드가 아닌 행(예전 구성에서 그대로 쓴 샤드에 남은 것)을 정리
+ *
+ * sources가 샤딩 전의 DB 하나(spring.datasource)여도 됨 (처음 샤딩할 때)
+ *  - 샤딩 전 id는 그대로 두고 email 해시로 샤드를 정하므로, 그 id로 조회하면 모든 샤드에 물어봄(UserShards)
+ * targets에 sources와 같은 DB를 넣어도 됨 (같은 행은 버전이 같으므로 건너뜀)
+ */
+@Slf4j
+public class UserResharder {
+    private final int batchSize;
+    private final Duration pause;
+    private final int maxPasses;
+    private final long idGap;
+
+    public UserResharder(int batchSize, Duration pause, int maxPasses, long idGap) {
+        this.batchSize = Math.max(1, batchSize);
+        this.pause = pause;
+        this.maxPasses = Math.max(1, maxPasses);
+        this.idGap = idGap;
+    }
+
+    public Result copy(List<JdbcTemplate> sources, List<JdbcTemplate> targets) {
+        targets.forEach(target -> UserShards.createSchema(target.getDataSource()));
+        long copied = 0;
+        int passes = 0;
+        long changed;
+        do {
+            long start = System.currentTimeMillis();
+            changed = copyPass(sources, targets);
+            copied += changed;
+            passes++;
+            log.info("리샤딩 복사 {}회차: {}행, {}ms", passes, changed, System.currentTimeMillis() - start);
+        } while (changed > 0 && passes < maxPasses);
+
+        long deleted = deleteRemoved(sources, targets);
+        long nextSequence = alignSequences(sources, targets);
+        log.info("리샤딩 복사 완료: {}회, 복사 {}행, 삭제 {}행, 다음 시퀀스 {}", passes, copied, deleted, nextSequence);
+        return new Result(passes, copied, deleted, nextSequence);
+    }
+
+    /**
+     * 전환한 뒤 지금 구성에서 자기 샤드가 아닌 행을 삭제
+     * 그 행이 있어야 할 샤드에 같은 id가 있는 것만 지우고, 없으면(복사되지 않았으면) 남겨 두고 로그만 남김
+     */
+    public long cleanup(List<JdbcTemplate> shards) {
+        long deleted = 0;
+        long kept = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(shards.get(shard));
+            long after = 0;
+            while (true) {
+                List<UserResponse> rows = page(shards.get(shard), after);
+                Map<Integer, List<Long>> misplaced = groupByShard(rows, shards.size());
+                misplaced.remove(shard);
+                for (Map.Entry<Integer, List<Long>> entry : misplaced.entrySet()) {
+                    List<Long> copied = existingIds(shards.get(entry.getKey()), entry.getValue());
+                    if (!copied.isEmpty()) {
+                        deleted += named.update("DELETE FROM users WHERE id IN (:ids)", Map.of("ids", copied));
+                    }
+                    kept += entry.getValue().size() - copied.size();
+                }
+                if (rows.size() < batchSize) {
+                    break;
+                }
+                after = rows.get(rows.size() - 1).id();
+                pause();
+            }
+        }
+        if (kept > 0) {
+            log.warn("리샤딩 정리: 있어야 할 샤드에 없어서 남겨 둔 행 {}개 (copy를 다시 실행하세요)", kept);
+        }
+        log.info("리샤딩 정리 완료: 삭제 {}행", deleted);
+        return deleted;
+    }
+
+    private long copyPass(List<JdbcTemplate> sources, List<JdbcTemplate> targets) {
+        long changed = 0;
+        for (JdbcTemplate source : sources) {
+            long after = 0;
+            while (true) {
+                List<UserResponse> rows = page(source, after);
+                Map<Integer, List<UserResponse>> byTarget = new TreeMap<>();
+                for (UserResponse row : rows) {
+                    byTarget.computeIfAbsent(ShardKey.shardOf(row.email(), targets.size()), key -> new ArrayList<>())
+                            .add(row);
+                }
+                for (Map.Entry<Integer, List<UserResponse>> entry : byTarget.entrySet()) {
+                    changed += upsert(targets.get(entry.getKey()), entry.getValue());
+                }
+                if (rows.size() < batchSize) {
+                    break;
+                }
+                after = rows.get(rows.size() - 1).id();
+                pause();
+            }
+        }
+        return changed;
+    }
+
+    // 없으면 INSERT, target의 버전이 더 낮으면 UPDATE (반환값: 바꾼 행 수)
+    private int upsert(JdbcTemplate target, List<UserResponse> rows) {
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(target);
+        Map<Long, Long> versions = new HashMap<>();
+        named.query("SELECT id, version FROM users WHERE id IN (:ids)",
+                Map.of("ids", rows.stream().map(UserResponse::id).toList()),
+                (RowCallbackHandler) rs -> versions.put(rs.getLong(1), rs.getLong(2)));
+        List<UserResponse> inserts = new ArrayList<>();
+        List<UserResponse> updates = new ArrayList<>();
+        for (UserResponse row : rows) {
+            Long version = versions.get(row.id());
+            if (version == null) {
+                inserts.add(row);
+            } else if (version < row.version()) {
+                updates.add(row);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            // 복사한 뒤 원본에서 삭제되고 같은 email로 다시 가입했으면 예전 id의 행이 남아 있음 (원본 기준으로 지움)
+            named.update("DELETE FROM users WHERE email IN (:emails) AND id NOT IN (:ids)",
+                    Map.of("emails", inserts.stream().map(UserResponse::email).toList(),
+                            "ids", inserts.stream().map(UserResponse::id).toList()));
+            target.batchUpdate("INSERT INTO users (" + UserShards.COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)",
+                    inserts, inserts.size(), (ps, row) -> {
+                        ps.setLong(1, row.id());
+                        ps.setString(2, row.name());
+                        ps.setString(3, row.email());
+                        ps.setObject(4, row.createdAt());
+                        ps.setLong(5, row.version());
+                        ps.setObject(6, row.updatedAt());
+                    });
+        }
+        if (!updates.isEmpty()) {
+            target.batchUpdate("UPDATE users SET name = ?, version = ?, updated_at = ? WHERE id = ?",
+                    updates, updates.size(), (ps, row) -> {
+                        ps.setString(1, row.name());
+                        ps.setLong(2, row.version());
+                        ps.setObject(3, row.updatedAt());
+                        ps.setLong(4, row.id());
+                    });
+        }
+        return inserts.size() + updates.size();
+    }
+
+    // targets에 있는데 sources(email 해시로 정한 샤드)에 없는 행을 삭제
+    private long deleteRemoved(List<JdbcTemplate> sources, List<JdbcTemplate> targets) {
+        long deleted = 0;
+        for (JdbcTemplate target : targets) {
+            NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(target);
+            long after = 0;
+            while (true) {
+                List<UserResponse> rows = page(target, after);
+                for (Map.Entry<Integer, List<Long>> entry : groupByShard(rows, sources.size()).entrySet()) {
+                    Set<Long> removed = new HashSet<>(entry.getValue());
+                    existingIds(sources.get(entry.getKey()), entry.getValue()).forEach(removed::remove);
+                    if (!removed.isEmpty()) {
+                        deleted += named.update("DELETE FROM users WHERE id IN (:ids)", Map.of("ids", removed));
+                    }
+                }
+                if (rows.size() < batchSize) {
+                    break;
+                }
+                after = rows.get(rows.size() - 1).id();
+                pause();
+            }
+        }
+        return deleted;
+    }
+
+    // 반환값: targets 시퀀스의 다음 값 하한 (샤딩 id가 아직 없으면 0, 맞출 필요 없음)
+    private long alignSequences(List<JdbcTemplate> sources, List<JdbcTemplate> targets) {
+        long maxSequence = 0;
+        for (JdbcTemplate jdbc : Stream.concat(sources.stream(), targets.stream()).toList()) {
+            Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM users WHERE id >= ? AND id < ?", Long.class,
+                    ShardKey.SHARDED_ID_FLAG, ShardKey.SHARDED_ID_FLAG << 1);
+            if (maxId != null) {
+                maxSequence = Math.max(maxSequence, ShardKey.sequenceOf(maxId));
+            }
+        }
+        if (maxSequence == 0) {
+            return 0;
+        }
+        long required = maxSequence + 1 + idGap;
+        for (JdbcTemplate target : targets) {
+            Long next = target.queryForObject("SELECT NEXT VALUE FOR " + UserShards.SEQUENCE, Long.class);
+            if (next != null && next < required) {
+                target.execute("ALTER SEQUENCE " + UserShards.SEQUENCE + " RESTART WITH " + required);
+            }
+        }
+        return required;
+    }
+
+    private List<UserResponse> page(JdbcTemplate jdbc, long after) {
+        return jdbc.query("SELECT " + UserShards.COLUMNS + " FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                UserShards.USER_RESPONSE, after, batchSize);
+    }
+
+    private static Map<Integer, List<Long>> groupByShard(List<UserResponse> rows, int shardCount) {
+        Map<Integer, List<Long>> grouped = new TreeMap<>();
+        for (UserResponse row : rows) {
+            grouped.computeIfAbsent(ShardKey.shardOf(row.email(), shardCount), key -> new ArrayList<>()).add(row.id());
+        }
+        return grouped;
+    }
+
+    private static List<Long> existingIds(JdbcTemplate jdbc, List<Long> ids) {
+        return new NamedParameterJdbcTemplate(jdbc)
+                .queryForList("SELECT id FROM users WHERE id IN (:ids)", Map.of("ids", ids), Long.class);
+    }
+
+    // 배치 사이에 쉬어서 서비스 중인 샤드에 주는 부하를 줄임
+    private void pause() {
+        if (pause.isZero() || pause.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("리샤딩 중 인터럽트", e);
+        }
+    }
+
+    /** passes: 복사 반복 횟수, nextSequence: targets 시퀀스를 맞춘 값 (0이면 맞추지 않음) */
+    public record Result(int passes, long copied, long deleted, long nextSequence) {
+    }
+}
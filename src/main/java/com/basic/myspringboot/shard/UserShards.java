@@ -0,0 +1,420 @@
+package com.basic.myspringboot.shard;
+
+import com.basic.myspringboot.dto.UserCreation;
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.dto.UserVersion;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 여러 DB(샤드)에 나눠 둔 users 테이블을 JDBC로 읽고 쓰는 저장소 (myboot.sharding.enabled=true 일 때)
+ *
+ * 어느 샤드인지는 ShardKey로 정함
+ *  - 등록, email 조회: email 해시의 bucket이 있는 샤드 하나
+ *  - id 조회/수정/삭제: id에 담긴 bucket의 샤드 하나 (샤딩 전에 만든 id는 bucket이 없으므로 모든 샤드)
+ *  - 목록(keyset, 화면 페이지), 개수: 모든 샤드에 동시에(가상 스레드) 묻고 합침, fan-out-timeout 안에 모두 답하지 않으면 실패
+ *
+ * 샤드마다 autocommit으로 한 문장씩 실행 (삭제만 샤드 안에서 잠금과 DELETE를 한 트랜잭션으로, 샤드를 넘나드는 트랜잭션은 없음)
+ * 스키마는 db/user-shard-schema.sql (MariaDB, H2 모두 실행 가능)
+ */
+@Slf4j
+public class UserShards implements Closeable {
+    public static final String SCHEMA = "db/user-shard-schema.sql";
+    static final String SEQUENCE = "users_shard_seq";
+    static final String COLUMNS = "id, name, email, created_at, version, updated_at";
+    static final RowMapper<UserResponse> USER_RESPONSE = (rs, rowNum) -> new UserResponse(rs.getLong(1),
+            rs.getString(2), rs.getString(3), rs.getObject(4, LocalDateTime.class), rs.getLong(5),
+            rs.getObject(6, LocalDateTime.class));
+    static final RowMapper<UserCreation> USER_CREATION = (rs, rowNum) ->
+            new UserCreation(rs.getLong(1), rs.getObject(2, LocalDateTime.class));
+
+    private final List<Shard> shards;
+    private final long fanOutTimeoutNanos;
+    private final ExecutorService fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    // 샤드 이름 -> 정렬 키 식 (sortKeyFormat)
+    private final Map<String, String> sortKeyFormats = new ConcurrentHashMap<>();
+
+    public UserShards(Map<String, DataSource> dataSources, Duration fanOutTimeout) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("샤드가 하나 이상 있어야 합니다 (myboot.sharding.shards)");
+        }
+        // 늦은 샤드의 쿼리도 fan-out-timeout이 지나면 DB에서 끊기게 함
+        int queryTimeoutSeconds = (int) Math.max(1, (fanOutTimeout.toMillis() + 999) / 1000);
+        this.shards = dataSources.entrySet().stream()
+                .map(e -> Shard.of(e.getKey(), e.getValue(), queryTimeoutSeconds))
+                .toList();
+        this.fanOutTimeoutNanos = fanOutTimeout.toNanos();
+    }
+
+    /** users 테이블, 인덱스, 시퀀스가 없으면 만듦 */
+    public static void createSchema(DataSource dataSource) {
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public List<Shard> shards() {
+        return shards;
+    }
+
+    /** email의 샤드에 새 시퀀스 값으로 만든 id로 INSERT (email 중복이면 DuplicateKeyException) */
+    public UserResponse insert(String name, String email, LocalDateTime createdAt) {
+        int bucket = ShardKey.bucketOf(email);
+        JdbcTemplate jdbc = shards.get(ShardKey.shardOf(bucket, shards.size())).jdbc();
+        Long sequence = jdbc.queryForObject("SELECT NEXT VALUE FOR " + SEQUENCE, Long.class);
+        long id = ShardKey.id(sequence, bucket);
+        // JPA(@UpdateTimestamp)처럼 등록할 때 updated_at도 채움
+        jdbc.update("INSERT INTO users (" + COLUMNS + ") VALUES (?, ?, ?, ?, 0, ?)",
+                id, name, email, createdAt, createdAt);
+        return new UserResponse(id, name, email, createdAt, 0L, createdAt);
+    }
+
+    public Optional<UserResponse> findById(long id) {
+        return first(id, jdbc -> jdbc.query("SELECT " + COLUMNS + " FROM users WHERE id = ?", USER_RESPONSE, id));
+    }
+
+    /** 샤드마다 IN 한 번 (있는 User만, 순서는 보장하지 않음) */
+    public List<UserResponse> findByIdIn(Collection<Long> ids) {
+        List<UserResponse> found = new ArrayList<>();
+        groupByShard(ids).forEach((shard, shardIds) -> found.addAll(shards.get(shard).named().query(
+                "SELECT " + COLUMNS + " FROM users WHERE id IN (:ids)", Map.of("ids", shardIds), USER_RESPONSE)));
+        return found;
+    }
+
+    public Optional<UserVersion> findVersionById(long id) {
+        return first(id, jdbc -> jdbc.query("SELECT version, COALESCE(updated_at, created_at) FROM users WHERE id = ?",
+                (rs, rowNum) -> new UserVersion(rs.getLong(1), rs.getObject(2, LocalDateTime.class)), id));
+    }
+
+    public boolean existsById(long id) {
+        return first(id, jdbc -> jdbc.queryForList("SELECT id FROM users WHERE id = ?", Long.class, id)).isPresent();
+    }
+
+    public Optional<UserResponse> findByEmail(String email) {
+        return shards.get(ShardKey.shardOf(email, shards.size())).jdbc()
+                .query("SELECT " + COLUMNS + " FROM users WHERE email = ?", USER_RESPONSE, email)
+                .stream().findFirst();
+    }
+
+    /**
+     * id가 after보다 큰 User를 id 순으로 limit개
+     * 샤드마다 자기 것 중 앞의 limit개를 읽어서 id 순으로 합친 뒤 앞에서 limit개만 남김
+     * (전체에서 앞의 limit개는 반드시 어느 샤드의 앞 limit개 안에 있음)
+     */
+    public List<UserResponse> findAfter(long after, int limit) {
+        List<List<UserResponse>> perShard = fanOut(jdbc -> jdbc.query(
+                "SELECT " + COLUMNS + " FROM users WHERE id > ? ORDER BY id LIMIT ?", USER_RESPONSE, after, limit));
+        TreeMap<Long, UserResponse> merged = new TreeMap<>();
+        for (int shard = 0; shard < perShard.size(); shard++) {
+            for (UserResponse user : perShard.get(shard)) {
+                // 리샤딩 후 정리(cleanup) 전이면 예전 샤드에 복사본이 남아 있으므로 id가 같으면 지금 샤드의 것을 씀
+                if (!merged.containsKey(user.id()) || owns(shard, user.email())) {
+                    merged.put(user.id(), user);
+                }
+            }
+        }
+        return merged.values().stream().limit(limit).toList();
+    }
+
+    /**
+     * 화면 목록(/index)용: sort 순서로 offset번째부터 limit개
+     * 샤드마다 앞의 offset + limit개를 같은 ORDER BY(마지막에 id)로 읽어서 샤드별 순서를 그대로 둔 채 합침(k-way merge)
+     *  - 전체에서 앞의 offset + limit개는 반드시 어느 샤드의 앞 offset + limit개 안에 있으므로 페이지끼리 겹치거나 빠지는 행이 없음
+     *  - name, email은 DB가 LOWER()한 값을 UTF-8 바이트로 바꾼 정렬 키로 정렬하고, 그 키를 같이 읽어서 바이트 순서로 합침
+     *    (샤드 DB의 collation이나 LOWER()가 Java의 toLowerCase()와 달라도 합치는 순서가 샤드의 순서와 같음,
+     *     대신 é 같은 글자는 z 뒤에 옴)
+     *  - 리샤딩 후 정리(cleanup) 전의 복사본은 id가 같으면 한 번만 넣음 (정렬 값이 같으면 지금 샤드의 것)
+     * 뒤쪽 페이지일수록 샤드마다 offset만큼 더 읽음 (DB 하나에서 OFFSET으로 읽는 것보다 샤드 수만큼 많이 읽음)
+     */
+    public List<UserResponse> findPage(Sort sort, long offset, int limit) {
+        List<Sort.Order> orders = new ArrayList<>();
+        sort.forEach(orders::add);
+        // id가 없으면 마지막에 붙여서 값이 같은 행도 샤드와 합치는 순서가 하나로 정해지게 함
+        if (sort.getOrderFor("id") == null) {
+            orders.add(Sort.Order.asc("id"));
+        }
+        List<String> textColumns = new ArrayList<>();
+        Comparator<SortedRow> comparator = null;
+        for (Sort.Order order : orders) {
+            Comparator<SortedRow> next;
+            switch (order.getProperty()) {
+                case "name", "email" -> {
+                    int key = textColumns.size();
+                    textColumns.add(order.getProperty());
+                    next = (a, b) -> Arrays.compareUnsigned(a.keys()[key], b.keys()[key]);
+                }
+                case "createdAt" -> next = Comparator.comparing(row -> row.user().createdAt());
+                case "id" -> next = Comparator.comparing(row -> row.user().id());
+                default -> throw new IllegalArgumentException("정렬할 수 없는 항목입니다: " + order.getProperty());
+            }
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        long perShardLimit = offset + limit;
+        List<List<SortedRow>> perShard = fanOutShards(shard -> {
+            String sortKey = sortKeyFormat(shard);
+            StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS);
+            for (int key = 0; key < textColumns.size(); key++) {
+                sql.append(", ").append(sortKey.formatted("LOWER(" + textColumns.get(key) + ")"))
+                        .append(" AS sort_key_").append(key);
+            }
+            sql.append(" FROM users");
+            for (Sort.Order order : orders) {
+                String column = switch (order.getProperty()) {
+                    case "name", "email" -> "sort_key_" + textColumns.indexOf(order.getProperty());
+                    case "createdAt" -> "created_at";
+                    default -> "id";
+                };
+                sql.append(sql.indexOf(" ORDER BY ") < 0 ? " ORDER BY " : ", ").append(column)
+                        .append(order.isDescending() ? " DESC" : " ASC");
+            }
+            return shard.jdbc().query(sql + " LIMIT ?", (rs, rowNum) -> {
+                byte[][] keys = new byte[textColumns.size()][];
+                for (int key = 0; key < keys.length; key++) {
+                    keys[key] = rs.getBytes(7 + key);
+                }
+                return new SortedRow(USER_RESPONSE.mapRow(rs, rowNum), keys);
+            }, perShardLimit);
+        });
+        int[] heads = new int[perShard.size()];
+        Set<Long> seen = new HashSet<>();
+        List<UserResponse> page = new ArrayList<>(limit);
+        while (page.size() < limit) {
+            int smallest = -1;
+            for (int shard = 0; shard < perShard.size(); shard++) {
+                if (heads[shard] == perShard.get(shard).size()) {
+                    continue;
+                }
+                SortedRow row = perShard.get(shard).get(heads[shard]);
+                int compared = smallest < 0 ? -1
+                        : comparator.compare(row, perShard.get(smallest).get(heads[smallest]));
+                if (compared < 0 || (compared == 0 && owns(shard, row.user().email()))) {
+                    smallest = shard;
+                }
+            }
+            if (smallest < 0) {
+                break;
+            }
+            UserResponse user = perShard.get(smallest).get(heads[smallest]++).user();
+            if (seen.add(user.id()) && seen.size() > offset) {
+                page.add(user);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * 삭제하고 실제로 삭제한 행(id, 가입 시각)을 반환
+     * 샤드마다 트랜잭션 하나에서 SELECT ... FOR UPDATE로 잠근 행만 지우므로 같은 id를 동시에 지운 다른 요청과 겹치지 않음
+     */
+    public List<UserCreation> deleteByIdIn(Collection<Long> ids) {
+        Map<Long, UserCreation> deleted = new LinkedHashMap<>();
+        groupByShard(ids).forEach((index, shardIds) -> {
+            Shard shard = shards.get(index);
+            List<UserCreation> locked = shard.transactions().execute(status -> {
+                List<UserCreation> rows = shard.named().query(
+                        "SELECT id, created_at FROM users WHERE id IN (:ids) FOR UPDATE", Map.of("ids", shardIds),
+                        USER_CREATION);
+                if (!rows.isEmpty()) {
+                    shard.named().update("DELETE FROM users WHERE id IN (:ids)",
+                            Map.of("ids", rows.stream().map(UserCreation::id).toList()));
+                }
+                return rows;
+            });
+            // 리샤딩 후 정리(cleanup) 전이면 샤딩 전 id가 두 샤드에 있을 수 있으므로 User 하나로 셈
+            locked.forEach(row -> deleted.putIfAbsent(row.id(), row));
+        });
+        return List.copyOf(deleted.values());
+    }
+
+    /** expectedVersion이 있으면 버전이 같을 때만 변경, 반환값: 바뀐 행 수 */
+    public int updateName(long id, String name, Long expectedVersion, LocalDateTime updatedAt) {
+        int updated = 0;
+        for (int shard : shardsOf(id)) {
+            JdbcTemplate jdbc = shards.get(shard).jdbc();
+            updated += expectedVersion == null
+                    ? jdbc.update("UPDATE users SET name = ?, version = version + 1, updated_at = ? WHERE id = ?",
+                            name, updatedAt, id)
+                    : jdbc.update("UPDATE users SET name = ?, version = version + 1, updated_at = ? "
+                            + "WHERE id = ? AND version = ?", name, updatedAt, id, expectedVersion);
+        }
+        return updated;
+    }
+
+    public long count() {
+        return fanOut(jdbc -> jdbc.queryForObject("SELECT COUNT(*) FROM users", Long.class))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    /** from 이상 to 미만에 가입한 User 수 */
+    public long countSignups(LocalDateTime from, LocalDateTime to) {
+        return fanOut(jdbc -> jdbc.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE created_at >= ? AND created_at < ?", Long.class, from, to))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    /** 가입일 -> 가입자 수 (모든 샤드 합계) */
+    public Map<LocalDate, Long> signupsPerDay() {
+        Map<LocalDate, Long> total = new TreeMap<>();
+        fanOut(jdbc -> {
+            Map<LocalDate, Long> days = new TreeMap<>();
+            jdbc.query("SELECT CAST(created_at AS DATE), COUNT(*) FROM users GROUP BY CAST(created_at AS DATE)",
+                    (RowCallbackHandler) rs -> days.put(rs.getObject(1, LocalDate.class), rs.getLong(2)));
+            return days;
+        }).forEach(days -> days.forEach((date, count) -> total.merge(date, count, Long::sum)));
+        return total;
+    }
+
+    /** 모든 샤드에 동시에 실행하고 샤드 순서대로 결과를 모음 */
+    public <T> List<T> fanOut(Function<JdbcTemplate, T> query) {
+        return fanOutShards(shard -> query.apply(shard.jdbc()));
+    }
+
+    private <T> List<T> fanOutShards(Function<Shard, T> query) {
+        if (shards.size() == 1) {
+            return List.of(query.apply(shards.get(0)));
+        }
+        List<CompletableFuture<T>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), fanOutExecutor))
+                .toList();
+        long deadline = System.nanoTime() + fanOutTimeoutNanos;
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("샤드 응답 대기 시간 초과: " + fanOutTimeoutNanos / 1_000_000 + "ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("샤드 조회 중 인터럽트", e);
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    @Override
+    public void close() {
+        fanOutExecutor.close();
+        for (Shard shard : shards) {
+            // 느린 쿼리 기록, 동시 사용 제한으로 감싼 풀이면 안쪽의 Hikari 풀을 닫음
+            try {
+                if (shard.dataSource().isWrapperFor(HikariDataSource.class)) {
+                    shard.dataSource().unwrap(HikariDataSource.class).close();
+                }
+            } catch (SQLException e) {
+                log.warn("샤드 '{}' 종료 실패", shard.name(), e);
+            }
+        }
+    }
+
+    // 문자열을 UTF-8 바이트로 바꾸는 식 (바이트끼리는 collation 없이 부호 없는 바이트 순서로 비교됨)
+    // 샤드에 처음 정렬 조회를 할 때 DB 종류를 확인해서 기억함 (시작할 때 내려가 있는 샤드가 있어도 뜨게)
+    private String sortKeyFormat(Shard shard) {
+        return sortKeyFormats.computeIfAbsent(shard.name(), name -> {
+            String product = shard.jdbc().execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            return switch (product) {
+                case "H2" -> "CAST(%s AS VARBINARY)";
+                case "MariaDB", "MySQL" -> "CAST(%s AS BINARY)";
+                default -> throw new IllegalStateException("정렬 키를 만들 수 없는 샤드 DB입니다: " + product);
+            };
+        });
+    }
+
+    private boolean owns(int shard, String email) {
+        return ShardKey.shardOf(email, shards.size()) == shard;
+    }
+
+    // 샤딩 id는 그 샤드 하나, 샤딩 전 id는 모든 샤드
+    private List<Integer> shardsOf(long id) {
+        if (ShardKey.isShardedId(id)) {
+            return List.of(ShardKey.shardOf(ShardKey.bucketOf(id), shards.size()));
+        }
+        List<Integer> all = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            all.add(shard);
+        }
+        return all;
+    }
+
+    private Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+        Map<Integer, List<Long>> grouped = new TreeMap<>();
+        for (Long id : ids) {
+            for (int shard : shardsOf(id)) {
+                grouped.computeIfAbsent(shard, key -> new ArrayList<>()).add(id);
+            }
+        }
+        return grouped;
+    }
+
+    // 샤딩 전 id는 모든 샤드에 물어봄 (리샤더가 email 해시로 옮겨 두므로 한 샤드에만 있음)
+    private <T> Optional<T> first(long id, Function<JdbcTemplate, List<T>> query) {
+        if (ShardKey.isShardedId(id)) {
+            return query.apply(shards.get(ShardKey.shardOf(ShardKey.bucketOf(id), shards.size())).jdbc())
+                    .stream().findFirst();
+        }
+        return fanOut(query).stream().flatMap(List::stream).findFirst();
+    }
+
+    // findPage에서 합칠 때 쓰는 행: User와 DB가 만든 name/email 정렬 키 (ORDER BY에 나온 순서)
+    private record SortedRow(UserResponse user, byte[][] keys) {
+    }
+
+    /** 샤드 하나 (이름은 Hikari 풀 이름, 로그/메트릭용) */
+    public record Shard(String name, DataSource dataSource, JdbcTemplate jdbc, NamedParameterJdbcTemplate named,
+                        TransactionTemplate transactions) {
+
+        static Shard of(String name, DataSource dataSource, int queryTimeoutSeconds) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.setQueryTimeout(queryTimeoutSeconds);
+            return new Shard(name, dataSource, jdbc, new NamedParameterJdbcTemplate(jdbc),
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.basic.myspringboot.stats;
+
+import com.basic.myspringboot.entity.Customer;
+import com.basic.myspringboot.entity.User;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+
+/**
+ * User, Customer 엔티티의 저장/삭제를 StatisticsRecorder에 알리는 JPA 엔티티 리스너
+ *
+ * @PostPersist는 INSERT가 실제로 나가는 flush(보통 커밋하면서) 때 호출되어 beforeCommit보다 늦을 수 있으므로
+ * persist()/remove()를 부르는 시점의 @PrePersist/@PreRemove를 씀 (INSERT가 실패하면 트랜잭션째 롤백되어 통계도 반영되지 않음)
+ * JPQL로 한 번에 지우는 UserService.deleteById 등은 리스너가 불리지 않으므로 UserService가 직접 알림
+ */
+public class StatisticsListener {
+    private final StatisticsRecorder statisticsRecorder;
+
+    public StatisticsListener(StatisticsRecorder statisticsRecorder) {
+        this.statisticsRecorder = statisticsRecorder;
+    }
+
+    @PrePersist
+    public void created(Object entity) {
+        if (entity instanceof User user) {
+            statisticsRecorder.userCreated(user);
+        } else if (entity instanceof Customer) {
+            statisticsRecorder.customerCreated();
+        }
+    }
+
+    @PreRemove
+    public void removed(Object entity) {
+        if (entity instanceof User user) {
+            statisticsRecorder.userDeleted(user.getCreatedAt());
+        } else if (entity instanceof Customer) {
+            statisticsRecorder.customerDeleted();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.basic.myspringboot.stats;
+
+import com.basic.myspringboot.entity.StatTotal;
+import com.basic.myspringboot.shard.UserShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * StatisticsRecorder가 세어 둔 값(stat_total_slots, user_signups_daily_slots)을 실제 테이블과 맞추는 곳
+ *
+ * 통계 행을 잠그고 세지 않음 (세는 동안 모든 등록/삭제가 기다리게 됨)
+ *  - 항목(전체 수, 하루)마다 짧은 REPEATABLE READ 트랜잭션에서 세어 둔 값과 실제 수를 같은 스냅샷으로 읽음
+ *    (StatisticsRecorder는 행과 통계를 같은 트랜잭션에서 바꾸므로 한 스냅샷 안에서는 둘이 항상 함께 보임)
+ *  - 세어 둔 값은 모든 slot 행의 합, 차이는 slot 0 행에 total = total + 차이 로 더함
+ *    (그 사이 커밋된 변경의 증감은 그대로 남음)
+ *  - 일별 가입자 수는 idx_users_created_at 범위로 하루씩 셈 (테이블 전체 GROUP BY 없음)
+ *
+ * 샤딩 모드에서는 users를 모든 샤드에서 세어서 합침 (샤드와 통계 테이블은 같은 스냅샷이 아니므로
+ * 세는 도중의 등록/삭제만큼 잠깐 어긋날 수 있고, 다음 맞추기에서 바로잡힘)
+ * 차이는 stats.reconcile.drift{table} 메트릭과 로그로 남김
+ */
+@Slf4j
+public class StatisticsReconciler {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshot;
+    // 샤딩 모드가 아니면 null
+    private final UserShards userShards;
+    private final MeterRegistry meterRegistry;
+    // 시작할 때의 맞추기와 주기 실행이 겹치지 않게 함
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StatisticsReconciler(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                UserShards userShards, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.userShards = userShards;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** 실제 테이블을 세어서 미리 세어 둔 값과 다르면 바로잡음 (이미 실행 중이면 건너뜀) */
+    public void reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            reconcileTotal(StatTotal.CUSTOMERS, () -> count(jdbcTemplate, "SELECT COUNT(*) FROM customers"));
+            // 처음 만드는 것이면 어긋난 것이 아니므로 drift로 세지 않음
+            boolean initializing = !reconcileTotal(StatTotal.USERS, () -> users("SELECT COUNT(*) FROM users"));
+            long drift = reconcileSignups();
+            if (!initializing) {
+                recordDrift("user_signups_daily", drift);
+            }
+            log.debug("통계 맞추기: {}ms", System.currentTimeMillis() - start);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // 이미 있던 값을 맞췄으면 true, 처음 만들었으면 false
+    private boolean reconcileTotal(String name, LongSupplier counter) {
+        Long drift = snapshot.execute(status -> {
+            Slots stored = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*), COALESCE(SUM(total), 0) FROM stat_total_slots WHERE name = ?", Slots.MAPPER, name);
+            long expected = counter.getAsLong();
+            long current = stored.sum();
+            add("UPDATE stat_total_slots SET total = total + ? WHERE name = ? AND slot = 0",
+                    "INSERT INTO stat_total_slots (name, slot, total) VALUES (?, 0, ?)", name, expected - current);
+            if (stored.rows() == 0) {
+                log.info("통계 초기화: {} = {}", name, expected);
+                return null;
+            }
+            return Math.abs(expected - current);
+        });
+        if (drift == null) {
+            return false;
+        }
+        recordDrift(name, drift);
+        return true;
+    }
+
+    // 세어 둔 날짜와 실제 가입일 범위의 모든 날을 하루씩 맞추고 차이의 합을 반환
+    private long reconcileSignups() {
+        LocalDate first = null;
+        LocalDate last = null;
+        for (LocalDate date : jdbcTemplate.queryForObject(
+                "SELECT MIN(signup_date), MAX(signup_date) FROM user_signups_daily_slots",
+                (rs, rowNum) -> new LocalDate[]{rs.getObject(1, LocalDate.class), rs.getObject(2, LocalDate.class)})) {
+            first = min(first, date);
+            last = max(last, date);
+        }
+        for (LocalDate[] range : fanOut(jdbc -> jdbc.queryForObject("SELECT MIN(created_at), MAX(created_at) FROM users",
+                (rs, rowNum) -> new LocalDate[]{date(rs.getObject(1, LocalDateTime.class)),
+                        date(rs.getObject(2, LocalDateTime.class))}))) {
+            for (LocalDate date : range) {
+                first = min(first, date);
+                last = max(last, date);
+            }
+        }
+        long drift = 0;
+        for (LocalDate date = first; date != null && !date.isAfter(last); date = date.plusDays(1)) {
+            drift += reconcileDay(date);
+        }
+        return drift;
+    }
+
+    private long reconcileDay(LocalDate date) {
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        Long drift = snapshot.execute(status -> {
+            Map<Integer, Long> stored = new HashMap<>();
+            jdbcTemplate.query("SELECT slot, signups FROM user_signups_daily_slots WHERE signup_date = ?",
+                    (RowCallbackHandler) rs -> stored.put(rs.getInt(1), rs.getLong(2)), date);
+            long current = stored.values().stream().mapToLong(Long::longValue).sum();
+            long expected = users("SELECT COUNT(*) FROM users WHERE created_at >= ? AND created_at < ?", from, to);
+            if (expected != 0) {
+                add("UPDATE user_signups_daily_slots SET signups = signups + ? WHERE signup_date = ? AND slot = 0",
+                        "INSERT INTO user_signups_daily_slots (signup_date, slot, signups) VALUES (?, 0, ?)",
+                        date, expected - current);
+            } else if (!stored.isEmpty()) {
+                // 가입자가 없는 날은 slot마다 읽은 값을 빼서 0이 된 행을 지움
+                // 그 사이 다른 트랜잭션이 더한 slot은 0이 아니므로 지우지 않음
+                stored.forEach((slot, signups) -> jdbcTemplate.update(
+                        "UPDATE user_signups_daily_slots SET signups = signups - ? WHERE signup_date = ? AND slot = ?",
+                        signups, date, slot));
+                jdbcTemplate.update("DELETE FROM user_signups_daily_slots WHERE signup_date = ? AND signups = 0", date);
+            }
+            return Math.abs(expected - current);
+        });
+        return drift == null ? 0 : drift;
+    }
+
+    // 차이가 있을 때만: 행이 있으면 더하고, 없으면 INSERT (그 사이 다른 트랜잭션이 먼저 INSERT 했으면 다시 더함)
+    private void add(String update, String insert, Object key, long delta) {
+        if (delta == 0 || jdbcTemplate.update(update, delta, key) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(insert, key, delta);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(update, delta, key);
+        }
+    }
+
+    // 한 값의 slot 행 수와 합
+    private record Slots(long rows, long sum) {
+        static final RowMapper<Slots> MAPPER = (rs, rowNum) -> new Slots(rs.getLong(1), rs.getLong(2));
+    }
+
+    // users 수: 샤딩 모드면 모든 샤드의 합 (통계 테이블과 같은 스냅샷이 아님)
+    private long users(String countSql, Object... args) {
+        return fanOut(shard -> count(shard, countSql, args)).stream().mapToLong(Long::longValue).sum();
+    }
+
+    private <T> List<T> fanOut(Function<JdbcTemplate, T> query) {
+        return userShards != null ? userShards.fanOut(query) : List.of(query.apply(jdbcTemplate));
+    }
+
+    private static long count(JdbcTemplate jdbc, String countSql, Object... args) {
+        Long count = jdbc.queryForObject(countSql, Long.class, args);
+        return count == null ? 0 : count;
+    }
+
+    private void recordDrift(String table, long drift) {
+        meterRegistry.counter("stats.reconcile.drift", "table", table).increment(drift);
+        if (drift > 0) {
+            log.warn("통계가 실제 테이블과 {}만큼 달라서 바로잡음: {}", drift, table);
+        }
+    }
+
+    private static LocalDate date(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toLocalDate();
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a == null || (b != null && b.isBefore(a)) ? b : a;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a == null || (b != null && b.isAfter(a)) ? b : a;
+    }
+}
@@ -0,0 +1,176 @@
+package com.basic.myspringboot.stats;
+
+import com.basic.myspringboot.entity.StatTotal;
+import com.basic.myspringboot.entity.User;
+import com.basic.myspringboot.property.StatisticsProperties;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * users, customers의 INSERT/DELETE를 stat_total_slots, user_signups_daily_slots에 더하고 빼는 곳
+ *
+ * 트랜잭션 안에서 생긴 변경은 모아 두었다가 커밋 직전(beforeCommit)에 같은 트랜잭션에서 한 번에 반영
+ *  - 롤백되면 통계도 같이 롤백되고, bulk insert 500건도 UPDATE 몇 번으로 끝남
+ *  - 트랜잭션마다 slot 하나를 골라서 그 slot의 행만 바꿈 (myboot.stats.slots 개)
+ *    모든 등록이 users 합계 행, 오늘 날짜 행 하나를 잠그고 커밋까지 기다리지 않고 slot 수만큼 나눠서 잠금
+ *  - 같은 slot 안에서는 users 행을 항상 먼저 바꾸므로(행 잠금) 같은 날짜 행을 동시에 INSERT 하지 않음
+ *  - 행과 통계가 같은 트랜잭션에서 커밋되므로 StatisticsReconciler는 잠그지 않고 한 스냅샷에서 둘을 비교할 수 있음
+ */
+@Component
+public class StatisticsRecorder {
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final int slots;
+
+    // 엔티티 리스너(StatisticsListener)가 EntityManagerFactory를 만드는 도중에 생성되므로 EntityManager는 처음 쓸 때 찾음
+    public StatisticsRecorder(JdbcTemplate jdbcTemplate, @Lazy EntityManager entityManager,
+                              StatisticsProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.slots = Math.max(1, properties.getSlots());
+    }
+
+    /** persist() 시점에는 createdAt(@CreationTimestamp)이 아직 정해지지 않았으므로 날짜는 반영할 때 읽음 */
+    public void userCreated(User user) {
+        changes().addCreatedUser(user);
+    }
+
+    public void userDeleted(LocalDateTime createdAt) {
+        changes().addDeletedUser(createdAt);
+    }
+
+    public void customerCreated() {
+        changes().addCustomer(1);
+    }
+
+    public void customerDeleted() {
+        changes().addCustomer(-1);
+    }
+
+    // 이 트랜잭션에서 모으고 있는 변경 (트랜잭션 밖이면 바로 반영하는 일회용)
+    private Changes changes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Changes(true);
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new Changes(false);
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new ApplyBeforeCommit(changes));
+        }
+        return changes;
+    }
+
+    private void apply(Changes changes) {
+        changes.createdUsers.forEach(user -> changes.addUser(user.getCreatedAt(), 1));
+        changes.createdUsers.clear();
+        // 트랜잭션끼리 교착되지 않게 항상 같은 순서로 잠금: customers, users, 날짜순
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        if (changes.customers != 0) {
+            addTotal(StatTotal.CUSTOMERS, slot, changes.customers);
+        }
+        if (changes.users != 0 || !changes.signups.isEmpty()) {
+            addTotal(StatTotal.USERS, slot, changes.users);
+        }
+        changes.signups.forEach((date, delta) -> {
+            if (delta != 0) {
+                addSignups(date, slot, delta);
+            }
+        });
+    }
+
+    private void addTotal(String name, int slot, long delta) {
+        upsert("UPDATE stat_total_slots SET total = total + ? WHERE name = ? AND slot = ?",
+                "INSERT INTO stat_total_slots (name, slot, total) VALUES (?, ?, ?)", name, slot, delta);
+    }
+
+    private void addSignups(LocalDate date, int slot, long delta) {
+        upsert("UPDATE user_signups_daily_slots SET signups = signups + ? WHERE signup_date = ? AND slot = ?",
+                "INSERT INTO user_signups_daily_slots (signup_date, slot, signups) VALUES (?, ?, ?)", date, slot, delta);
+    }
+
+    // 행이 없으면 INSERT, 그 사이 다른 트랜잭션이 먼저 INSERT 했으면 다시 UPDATE
+    private void upsert(String update, String insert, Object key, int slot, long delta) {
+        if (jdbcTemplate.update(update, delta, key, slot) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(insert, key, slot, delta);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(update, delta, key, slot);
+        }
+    }
+
+    private final class Changes {
+        private final boolean immediate;
+        private long users;
+        private long customers;
+        private final Map<LocalDate, Long> signups = new TreeMap<>();
+        private final List<User> createdUsers = new ArrayList<>();
+
+        private Changes(boolean immediate) {
+            this.immediate = immediate;
+        }
+
+        private void addCreatedUser(User user) {
+            createdUsers.add(user);
+            if (immediate) {
+                apply(this);
+            }
+        }
+
+        private void addDeletedUser(LocalDateTime createdAt) {
+            addUser(createdAt, -1);
+            if (immediate) {
+                apply(this);
+            }
+        }
+
+        private void addUser(LocalDateTime createdAt, int delta) {
+            users += delta;
+            if (createdAt != null) {
+                signups.merge(createdAt.toLocalDate(), (long) delta, Long::sum);
+            }
+        }
+
+        private void addCustomer(int delta) {
+            customers += delta;
+            if (immediate) {
+                apply(this);
+            }
+        }
+    }
+
+    private final class ApplyBeforeCommit implements TransactionSynchronization {
+        private final Changes changes;
+
+        private ApplyBeforeCommit(Changes changes) {
+            this.changes = changes;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // 쌓여 있는 INSERT/DELETE를 먼저 보내서 제약조건 위반이면 통계 행을 잠그기 전에 실패하게 함
+            entityManager.flush();
+            apply(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StatisticsRecorder.this);
+        }
+    }
+}
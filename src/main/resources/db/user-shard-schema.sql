@@ -0,0 +1,14 @@
+-- 샤드 DB의 users 테이블 (UserShards.createSchema, UserResharder)
+-- MariaDB(10.3+)와 H2에서 모두 실행되는 문법만 씀
+-- id는 애플리케이션이 ShardKey로 만듦 (users_shard_seq 값 + email 해시 bucket)
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT uk_users_shard_email UNIQUE (email)
+);
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
+CREATE SEQUENCE IF NOT EXISTS users_shard_seq;
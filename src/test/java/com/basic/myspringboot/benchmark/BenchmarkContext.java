@@ -0,0 +1,75 @@
+package com.basic.myspringboot.benchmark;
+
+import com.basic.myspringboot.MySpringBootAppApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+/**
+ * 벤치마크용 Spring 컨텍스트
+ * test 프로파일(H2 메모리 DB)로 웹 서버 없이 띄우고, 벤치마크에 방해되는 로그와 외부 연결은 끔
+ */
+public final class BenchmarkContext {
+    private BenchmarkContext() {
+    }
+
+    /** 웹 서버 없이 (서비스, 리포지토리 벤치마크) */
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        return start(WebApplicationType.NONE, new Class<?>[0], extraArgs);
+    }
+
+    /** 임의 포트로 내장 Tomcat까지 띄움 (REST 벤치마크), 포트는 localPort()로 확인 */
+    public static ConfigurableApplicationContext startWeb(String... extraArgs) {
+        return startWeb(new Class<?>[0], extraArgs);
+    }
+
+    /** extraSources: 벤치마크에서만 쓰는 설정 클래스 (예: SimulatedDbLatency) */
+    public static ConfigurableApplicationContext startWeb(Class<?>[] extraSources, String... extraArgs) {
+        return start(WebApplicationType.SERVLET, extraSources, merge(new String[]{"--server.port=0"}, extraArgs));
+    }
+
+    public static int localPort(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, Class<?>[] extraSources,
+                                                        String... extraArgs) {
+        // devtools 재시작 여부는 커맨드라인 인자가 아닌 시스템 프로퍼티로만 판단함
+        // (main 스레드에서 띄우면 재시작기가 호출한 main()을 Spring 인자로 다시 실행해 버림)
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        String[] args = {
+                // application.properties의 spring.profiles.active=prod 보다 우선순위가 높은 커맨드라인 인자로 지정
+                "--spring.profiles.active=test",
+                "--spring.boot.admin.client.enabled=false",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=warn",
+                "--logging.level.com.basic.myspringboot=warn",
+                "--spring.jpa.show-sql=false",
+        };
+        return new SpringApplicationBuilder(MySpringBootAppApplication.class)
+                .sources(extraSources)
+                .web(type)
+                .run(merge(withoutOverridden(args, extraArgs), extraArgs));
+    }
+
+    // 같은 이름의 인자가 두 번 있으면 Spring이 값을 "a,b"로 합쳐 버리므로, extraArgs에 있는 기본 인자는 뺌
+    private static String[] withoutOverridden(String[] defaults, String[] extraArgs) {
+        return Arrays.stream(defaults)
+                .filter(arg -> Arrays.stream(extraArgs).noneMatch(extra -> name(extra).equals(name(arg))))
+                .toArray(String[]::new);
+    }
+
+    private static String name(String arg) {
+        int index = arg.indexOf('=');
+        return index < 0 ? arg : arg.substring(0, index);
+    }
+
+    private static String[] merge(String[] first, String[] second) {
+        String[] merged = new String[first.length + second.length];
+        System.arraycopy(first, 0, merged, 0, first.length);
+        System.arraycopy(second, 0, merged, first.length, second.length);
+        return merged;
+    }
+}
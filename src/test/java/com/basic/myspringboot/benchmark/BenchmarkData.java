@@ -0,0 +1,81 @@
+package com.basic.myspringboot.benchmark;
+
+import com.basic.myspringboot.config.IdSequenceAligner;
+import com.basic.myspringboot.search.UserEmailFilter;
+import com.basic.myspringboot.service.StatisticsService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 벤치마크용 데이터 적재
+ * JPA를 거치지 않고 JdbcTemplate batch로 id 1..rows 를 넣은 뒤 시퀀스를 MAX(id) 뒤로 다시 맞춤
+ */
+public final class BenchmarkData {
+    private static final int BATCH_SIZE = 10_000;
+    private static final String SYLLABLES = "가나다라마바사아자차카타파하스프링부트";
+
+    private BenchmarkData() {
+    }
+
+    /** users: name = "user{id}", email = "user{id}@bench.com" */
+    public static void seedUsers(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= rows; id++) {
+            batch.add(new Object[]{id, "user" + id, email(id), now});
+            if (batch.size() == BATCH_SIZE) {
+                insertUsers(jdbcTemplate, batch);
+            }
+        }
+        insertUsers(jdbcTemplate, batch);
+        context.getBean(IdSequenceAligner.class).afterSingletonsInstantiated();
+        // JDBC로 직접 넣은 행은 엔티티 리스너를 거치지 않으므로 email 필터와 통계를 다시 만듦
+        context.getBean(UserEmailFilter.class).rebuild();
+        context.getBean(StatisticsService.class).reconcile();
+    }
+
+    /** customers: 한글 세 글자 + (id % 100), 검색어 "스프링"은 약 1/5800 행에 들어 있음 */
+    public static void seedCustomers(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= rows; id++) {
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 3; i++) {
+                name.append(SYLLABLES.charAt(random.nextInt(SYLLABLES.length())));
+            }
+            batch.add(new Object[]{id, "C" + id, name.append(id % 100).toString()});
+            if (batch.size() == BATCH_SIZE) {
+                insertCustomers(jdbcTemplate, batch);
+            }
+        }
+        insertCustomers(jdbcTemplate, batch);
+        context.getBean(IdSequenceAligner.class).afterSingletonsInstantiated();
+        context.getBean(StatisticsService.class).reconcile();
+    }
+
+    public static String email(long id) {
+        return "user" + id + "@bench.com";
+    }
+
+    private static void insertUsers(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, created_at) VALUES (?, ?, ?, ?)", batch);
+            batch.clear();
+        }
+    }
+
+    private static void insertCustomers(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO customers (id, customer_id, customer_name) VALUES (?, ?, ?)", batch);
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.basic.myspringboot.benchmark;
+
+import com.basic.myspringboot.dto.CustomerSearchResult;
+import com.basic.myspringboot.entity.Customer;
+import com.basic.myspringboot.repository.CustomerRepository;
+import com.basic.myspringboot.service.CustomerSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * customer_name LIKE '%x%' (findByCustomerNameContains) 와 N-gram 색인 검색(CustomerSearchService) 비교
+ *
+ * mvn -Pbenchmark -DskipTests test -Djmh.includes=CustomerSearchBenchmark
+ *
+ * 고객 데이터는 BenchmarkData.seedCustomers() 참고 (검색어 "스프링"은 일부 고객에게만 들어 있음)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class CustomerSearchBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"스프링"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private CustomerSearchService customerSearchService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        customerRepository = context.getBean(CustomerRepository.class);
+        customerSearchService = context.getBean(CustomerSearchService.class);
+        BenchmarkData.seedCustomers(context, rows);
+        customerSearchService.rebuildIndex();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Customer> likeQuery() {
+        return customerRepository.findByCustomerNameContains(query);
+    }
+
+    @Benchmark
+    public CustomerSearchResult ngramIndexFirstPage() {
+        return customerSearchService.search(query, 0, 20);
+    }
+}
@@ -0,0 +1,80 @@
+package com.basic.myspringboot.benchmark;
+
+import com.basic.myspringboot.exception.BusinessException;
+import com.basic.myspringboot.exception.ExpectedBusinessException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 404 응답 경로에서 요청마다 생기는 할당 비교 (Spring 없이 예외 생성과 timestamp 포맷만)
+ *
+ * mvn -Pbenchmark -DskipTests test -Djmh.includes=ErrorPathBenchmark
+ *
+ * - depth: 예외를 던지는 지점의 스택 깊이 (Spring MVC 컨트롤러 안은 보통 100단계 이상)
+ * - withStackTrace: 예전 방식 BusinessException (fillInStackTrace로 스택 전체를 기록)
+ * - stackless: ExpectedBusinessException
+ * - formatterPerCall / cachedFormatter: 예전 ErrorObject.getTimestamp()와 현재 방식
+ * 결과의 gc.alloc.rate.norm(B/op)이 요청 하나당 할당량
+ * HTTP 전체 경로의 비교는 UserRestControllerBenchmark.getByIdNotFound 와 getById
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class ErrorPathBenchmark {
+    private static final DateTimeFormatter CACHED =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss E a", Locale.KOREAN);
+
+    @Param({"20", "150"})
+    private int depth;
+
+    @Benchmark
+    public Object withStackTrace() {
+        return throwAt(depth, false);
+    }
+
+    @Benchmark
+    public Object stackless() {
+        return throwAt(depth, true);
+    }
+
+    @Benchmark
+    public String formatterPerCall() {
+        return DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss E a", Locale.KOREAN).format(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public String cachedFormatter() {
+        return CACHED.format(LocalDateTime.now());
+    }
+
+    // 재귀로 스택을 depth만큼 쌓은 뒤 던지고 받음
+    private static Object throwAt(int remaining, boolean stackless) {
+        if (remaining > 0) {
+            return throwAt(remaining - 1, stackless);
+        }
+        try {
+            throw stackless
+                    ? ExpectedBusinessException.notFound("User Not Found")
+                    : new BusinessException("User Not Found", HttpStatus.NOT_FOUND);
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+}
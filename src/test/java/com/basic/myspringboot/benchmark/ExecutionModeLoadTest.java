@@ -0,0 +1,112 @@
+package com.basic.myspringboot.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 플랫폼 스레드(Tomcat 스레드 풀 200개) vs 가상 스레드 실행 모드 부하 비교
+ *
+ * JMH는 호출 하나의 비용을 재는 도구라서, 동시 접속 수가 늘어날 때의 처리량/지연 시간은 이 클래스로 따로 측정함
+ * SimulatedDbLatency로 쿼리마다 DB 왕복 시간(기본 20ms)을 넣어서 요청 스레드가 I/O를 기다리는 상황을 만듦
+ *  - 플랫폼 모드: 동시 요청이 Tomcat 스레드 수(200)를 넘으면 대기
+ *  - 가상 모드: 요청마다 가상 스레드, DB 동시 사용은 ConcurrencyLimitingDataSource가 커넥션 풀 크기로 제한
+ *  - 모드 이름 뒤에 +limit을 붙이면(virtual+limit) ConcurrencyLimitFilter를 켬, 한도를 넘은 요청은 503(rejected)
+ *
+ * mvn -Ploadtest -DskipTests test -Dloadtest.args="1000 10000"
+ * mvn -Ploadtest -DskipTests test -Dloadtest.args="1000 10000 virtual,virtual+limit"
+ * 인자: [동시 클라이언트 수] [전체 요청 수] [모드(platform,virtual, 각각 +limit)]
+ * 10k 클라이언트는 소켓을 그만큼 열기 때문에 ulimit -n 을 20000 이상으로 올린 뒤 실행
+ */
+public class ExecutionModeLoadTest {
+    private static final int USERS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : clients * 10;
+        String[] modes = args.length > 2 ? args[2].split(",") : new String[]{"platform", "virtual"};
+
+        for (String mode : modes) {
+            ConfigurableApplicationContext context = BenchmarkContext.startWeb(
+                    new Class<?>[]{SimulatedDbLatency.class},
+                    "--spring.threads.virtual.enabled=" + mode.startsWith("virtual"),
+                    "--myboot.limit.enabled=" + mode.endsWith("+limit"),
+                    // 캐시에 걸리면 DB를 타지 않으므로 끔
+                    "--spring.cache.type=none",
+                    "--server.tomcat.max-connections=20000",
+                    "--server.tomcat.accept-count=10000");
+            try {
+                BenchmarkData.seedUsers(context, USERS);
+                run(mode, BenchmarkContext.localPort(context), clients, requests);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void run(String mode, int port, int clients, int requests) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        String baseUrl = "http://localhost:" + port + "/api/users/";
+        AtomicInteger remaining = new AtomicInteger(requests);
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long[] latencies = new long[requests];
+        AtomicInteger recorded = new AtomicInteger();
+
+        long started = System.nanoTime();
+        // 클라이언트 쪽도 가상 스레드로 띄워서 10k 동시 연결을 만들 때 클라이언트가 병목이 되지 않게 함
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        long id = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id))
+                                .timeout(Duration.ofMinutes(2))
+                                .GET()
+                                .build();
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 503) {
+                                rejected.incrementAndGet();
+                            } else if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[recorded.getAndIncrement()] = System.nanoTime() - begin;
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        long[] sorted = Arrays.copyOf(latencies, recorded.get());
+        Arrays.sort(sorted);
+        System.out.printf("%-14s clients=%d requests=%d throughput=%.1f req/s p50=%.1fms p99=%.1fms"
+                        + " errors=%d rejected=%d%n",
+                mode, clients, sorted.length, sorted.length / (elapsed / 1e9),
+                percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get(), rejected.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,91 @@
+package com.basic.myspringboot.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 지연 시간 히스토그램(http.server.requests, spring.data.repository.invocations)과
+ * 느린 쿼리 기록(datasource-proxy)을 켰을 때와 껐을 때의 요청 비용 비교
+ *
+ * mvn -Pbenchmark -DskipTests test -Djmh.includes=InstrumentationOverheadBenchmark
+ *
+ * 캐시를 꺼서 모든 요청이 Repository와 JDBC까지 가게 함 (측정 대상이 모두 실행되는 경로)
+ * instrumentation=on: 히스토그램 + 느린 쿼리 기록, histograms: 히스토그램만, off: 둘 다 끔
+ *   (http.server.requests, spring.data.repository.invocations 타이머 자체는 Spring Boot 기본값이라 양쪽 모두 켜져 있음)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class InstrumentationOverheadBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param({"on", "histograms", "off"})
+    private String instrumentation;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        List<String> args = new ArrayList<>(List.of("--spring.cache.type=none"));
+        if (!"on".equals(instrumentation)) {
+            args.add("--myboot.slow-query.enabled=false");
+        }
+        if ("off".equals(instrumentation)) {
+            args.add("--management.metrics.distribution.percentiles-histogram.http.server.requests=false");
+            args.add("--management.metrics.distribution.percentiles-histogram.spring.data.repository.invocations=false");
+        }
+        context = BenchmarkContext.startWeb(args.toArray(String[]::new));
+        BenchmarkData.seedUsers(context, ROWS);
+        baseUrl = "http://localhost:" + BenchmarkContext.localPort(context) + "/api/users";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getById() throws Exception {
+        return send(baseUrl + "/" + ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+    }
+
+    @Benchmark
+    public String listPage() throws Exception {
+        return send(baseUrl + "?limit=20&after=" + ThreadLocalRandom.current().nextLong(0, ROWS));
+    }
+
+    private String send(String url) throws Exception {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,105 @@
+package com.basic.myspringboot.benchmark;
+
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring Boot 기본 ObjectMapper 와 최적화한 ObjectMapper(myboot.json.optimized=true, JsonConfig) 비교
+ *
+ * mvn -Pbenchmark -DskipTests test -Djmh.includes=JsonSerializationBenchmark
+ * mvn -Pbenchmark -DskipTests test -Djmh.includes=JsonSerializationBenchmark -Djmh.args="-p size=10000 -prof gc"
+ *
+ * - 컨텍스트의 ObjectMapper 빈을 그대로 씀 (DB는 쓰지 않고, 직렬화할 목록은 메모리에서 만듦)
+ * - userResponses/users: MappingJackson2HttpMessageConverter처럼 응답 스트림에 바로 씀 (여기서는 버리는 스트림)
+ * - userResponsesAsBytes: writeValueAsBytes (캐시 등에 byte[]로 담을 때)
+ * - 요청 하나당 할당량은 -prof gc의 gc.alloc.rate.norm (bytes/op)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean optimized;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private List<UserResponse> userResponses;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("--myboot.json.optimized=" + optimized);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        userResponses = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 1; i <= size; i++) {
+            // 저장 시각처럼 마이크로초까지 있는 값, 절반은 수정된 적 없음(updatedAt null)
+            LocalDateTime created = createdAt.plusSeconds(i).plusNanos(i * 1_000L);
+            LocalDateTime updated = i % 2 == 0 ? created.plusMinutes(i) : null;
+            UserResponse response = new UserResponse((long) i, "user" + i, "user" + i + "@example.com",
+                    created, (long) (i % 5), updated);
+            userResponses.add(response);
+            users.add(toEntity(response));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void userResponses() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), userResponses);
+    }
+
+    @Benchmark
+    public void users() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), users);
+    }
+
+    @Benchmark
+    public byte[] userResponsesAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(userResponses);
+    }
+
+    private static User toEntity(UserResponse response) {
+        User user = new User();
+        user.setId(response.id());
+        user.setName(response.name());
+        user.setEmail(response.email());
+        user.setCreatedAt(response.createdAt());
+        user.setVersion(response.version());
+        user.setUpdatedAt(response.updatedAt());
+        return user;
+    }
+}
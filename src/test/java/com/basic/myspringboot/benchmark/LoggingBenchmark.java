@@ -0,0 +1,83 @@
+package com.basic.myspringboot.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그를 많이 남기는 상황에서 동기 로깅과 비동기 로깅(async-logging 프로파일)의 요청 지연 시간 비교
+ *
+ * mvn -Pbenchmark -DskipTests test -Djmh.includes=LoggingBenchmark
+ *
+ * 요청마다 SQL(org.hibernate.SQL), DispatcherServlet, 애플리케이션 DEBUG 로그가 여러 줄씩 파일에 쓰임
+ * - sync : RollingFile, 요청 스레드가 로그마다 파일에 쓰고 flush
+ * - async: AsyncRoot + RollingRandomAccessFile, 요청 스레드는 링 버퍼에 넣기만 함
+ * 콘솔은 양쪽 모두 WARN 이상만 (파일 쓰기 비용만 비교), 로그 파일은 target/bench-logs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class LoggingBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param({"sync", "async"})
+    private String logging;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.startWeb(
+                "--spring.profiles.active=" + ("async".equals(logging) ? "test,async-logging" : "test"),
+                "--spring.cache.type=none",
+                "--logging.file.path=target/bench-logs/" + logging,
+                "--logging.threshold.console=warn",
+                "--logging.level.org.hibernate.SQL=debug",
+                "--logging.level.org.springframework.web=debug",
+                "--logging.level.com.basic.myspringboot=debug");
+        BenchmarkData.seedUsers(context, ROWS);
+        baseUrl = "http://localhost:" + BenchmarkContext.localPort(context) + "/api/users";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getById() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,131 @@
+package com.basic.myspringboot.benchmark;
+
+import com.basic.myspringboot.entity.User;
+import com.basic.myspringboot.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엔티티 조회 + JSON 직렬화 와 projection(UserResponse) 조회 + JSON 직렬화 비교 (캐시 없이 매번 DB까지)
+ *
+ * mvn -Pbenchmark -DskipTests test -Djmh.includes=ReadModelBenchmark
+ * mvn -Pbenchmark -DskipTests test -Djmh.includes=ReadModelBenchmark -Djmh.args="-p limit=500 -prof gc"
+ *
+ * - entity*: 예전 경로 (User 엔티티를 읽어서 그대로 직렬화)
+ *   entityPage*의 엔티티 keyset 쿼리는 애플리케이션에서 더 이상 쓰지 않으므로 비교용으로 여기서만 만듦
+ *   entityPage는 리포지토리 조회 메서드처럼 readOnly 트랜잭션,
+ *   entityPageInReadWriteTx는 readOnly가 아닌 트랜잭션 안에서 읽은 경우 (엔티티마다 dirty checking용 스냅샷을 만들고 커밋 때 비교)
+ * - projection*: 지금 경로 (select new UserResponse(...), 영속성 컨텍스트에 아무것도 올리지 않음)
+ * - 요청 하나당 할당량은 -prof gc의 gc.alloc.rate.norm (bytes/op)
+ * - secondLevelCache=true이면 entityById는 2차 캐시에서 엔티티를 다시 조립함 (projection 쿼리는 2차 캐시를 쓰지 않음)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ReadModelBenchmark {
+    private static final int ROWS = 100_000;
+
+    @Param({"20", "500"})
+    private int limit;
+
+    @Param({"false", "true"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private ObjectMapper objectMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache);
+        BenchmarkData.seedUsers(context, ROWS);
+        userRepository = context.getBean(UserRepository.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] entityPage() {
+        return readOnlyTransaction.execute(status -> json(entities(after())));
+    }
+
+    @Benchmark
+    public byte[] entityPageInReadWriteTx() {
+        return readWriteTransaction.execute(status -> json(entities(after())));
+    }
+
+    @Benchmark
+    public byte[] projectionPage() throws Exception {
+        return objectMapper.writeValueAsBytes(userRepository.findResponsesByIdGreaterThan(after(), Limit.of(limit)));
+    }
+
+    @Benchmark
+    public byte[] entityById() throws Exception {
+        return objectMapper.writeValueAsBytes(userRepository.findById(randomId()).orElseThrow());
+    }
+
+    @Benchmark
+    public byte[] projectionById() throws Exception {
+        return objectMapper.writeValueAsBytes(userRepository.findResponseById(randomId()).orElseThrow());
+    }
+
+    private List<User> entities(long after) {
+        return entityManager.createQuery("select u from User u where u.id > :after order by u.id", User.class)
+                .setParameter("after", after)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private long after() {
+        return ThreadLocalRandom.current().nextLong(0, ROWS - limit);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
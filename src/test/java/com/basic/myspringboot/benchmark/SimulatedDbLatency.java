@@ -0,0 +1,62 @@
+package com.basic.myspringboot.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * H2 메모리 DB는 너무 빨라서 MariaDB처럼 네트워크 왕복 시간이 있는 상황을 흉내 냄
+ * 커넥션을 잡은 상태로 SQL을 준비할 때마다 benchmark.db-latency-ms(기본 20ms) 만큼 잠듦
+ * BenchmarkContext.startWeb(sources, args)의 sources로 넘길 때만 동작 (컴포넌트 스캔 대상 아님)
+ */
+public class SimulatedDbLatency {
+
+    @Bean
+    static BeanPostProcessor simulatedDbLatencyPostProcessor(Environment environment) {
+        return new LatencyPostProcessor(environment.getProperty("benchmark.db-latency-ms", Long.class, 20L));
+    }
+
+    // 다른 DataSource 래퍼(ConcurrencyLimitingDataSource 등)보다 먼저 Hikari를 감싸도록 가장 높은 우선순위
+    private record LatencyPostProcessor(long latencyMs) implements BeanPostProcessor, PriorityOrdered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return slow(super.getConnection());
+                }
+            };
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        private Connection slow(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(SimulatedDbLatency.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare")) {
+                            Thread.sleep(latencyMs);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.basic.myspringboot.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserRestController의 주요 요청을 실제 HTTP로 호출하는 벤치마크 (Tomcat + Spring MVC + Jackson + JPA + H2)
+ *
+ * mvn -Pbenchmark -DskipTests test -Djmh.includes=UserRestControllerBenchmark
+ * mvn -Pbenchmark -DskipTests test -Djmh.includes=UserRestControllerBenchmark.getById -Djmh.args="-p rows=10000 -p cache=none -prof gc"
+ *
+ * - Throughput: 초당 처리 수, SampleTime: p50/p90/p99 지연 시간
+ * - -prof gc: 요청 하나당 할당량(gc.alloc.rate.norm)
+ * - cache=caffeine|none: 조회 캐시를 끄면 매 요청이 DB까지 감
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class UserRestControllerBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"caffeine", "none"})
+    private String cache;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.startWeb("--spring.cache.type=" + cache);
+        BenchmarkData.seedUsers(context, rows);
+        baseUrl = "http://localhost:" + BenchmarkContext.localPort(context) + "/api/users";
+        // 기본값(HTTP/2)은 매 요청마다 h2c 업그레이드를 시도하므로 HTTP/1.1 keep-alive로 고정
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String create() throws Exception {
+        long n = sequence.incrementAndGet();
+        String json = "{\"name\":\"new" + n + "\",\"email\":\"new" + n + "@bench.com\"}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    @Benchmark
+    public String getById() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomId())).GET());
+    }
+
+    // 없는 id 조회(404) - 200 응답과 할당량(gc.alloc.rate.norm)을 비교
+    @Benchmark
+    public String getByIdNotFound() throws Exception {
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/" + (rows + randomId()))).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 404) {
+            throw new IllegalStateException(response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    @Benchmark
+    public String getByEmail() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/email/" + BenchmarkData.email(randomId()) + "/")).GET());
+    }
+
+    @Benchmark
+    public String patch() throws Exception {
+        String json = "{\"name\":\"patched" + sequence.incrementAndGet() + "\"}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomId()))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    @Benchmark
+    public String listPage() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "?limit=20&after=" + (randomId() - 1))).GET());
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
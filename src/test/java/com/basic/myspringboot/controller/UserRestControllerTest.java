@@ -0,0 +1,202 @@
+package com.basic.myspringboot.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * test 프로파일(H2 메모리 DB)로 띄운 컨텍스트에 MockMvc로 요청해서 실제 응답을 확인
+ * 테스트끼리 같은 DB를 쓰므로 email은 테스트마다 다르게 하고, 직접 넣은 행은 끝나고 지움
+ */
+@SpringBootTest(properties = {"spring.profiles.active=test", "spring.boot.admin.client.enabled=false"})
+@AutoConfigureMockMvc
+class UserRestControllerTest {
+    // 직접 넣은 행의 가입일 (다른 테스트가 만든 User와 겹치지 않는 날짜)
+    private static final LocalDate SIGNUP_DATE = LocalDate.of(2001, 2, 3);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE id < 0");
+        jdbcTemplate.update("DELETE FROM user_signups_daily_slots WHERE signup_date = ?", SIGNUP_DATE);
+    }
+
+    @Test
+    void testCreateWithClientIdIsBadRequest() throws Exception {
+        //When, Then: 없는 행을 수정(merge)하려다 500이 되지 않고 400
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": 424242, \"name\": \"스프링\", \"email\": \"client-id@a.com\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/email/client-id@a.com/"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testBulkImportFallsBackRowByRowWhenBatchHitsUniqueConstraint() throws Exception {
+        //Given: email Bloom filter를 거치지 않고 넣은 행 (필터는 "확실히 없음"이라고 해서 중복 확인 쿼리를 건너뜀)
+        jdbcTemplate.update("INSERT INTO users (id, name, email, created_at, version) VALUES (?, ?, ?, ?, 0)",
+                -1L, "먼저", "bulk-taken@a.com", LocalDateTime.now());
+        String body = """
+                {"name": "하나", "email": "bulk-one@a.com"}
+                {"name": "중복", "email": "bulk-taken@a.com"}
+                {"name": "둘", "email": "bulk-two@a.com"}
+                """;
+
+        //When: batch INSERT가 unique 제약조건에 걸려서 한 건씩 다시 저장
+        mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(1))
+                .andExpect(jsonPath("$.errors[0].email").value("bulk-taken@a.com"));
+
+        //Then: 다시 저장한 행은 새 id로 들어감
+        for (String email : new String[]{"bulk-one@a.com", "bulk-two@a.com"}) {
+            String json = mockMvc.perform(get("/api/users/email/" + email + "/"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertThat(json).matches(".*\"id\":[1-9][0-9]*,.*");
+        }
+    }
+
+    @Test
+    void testKeysetPagesFollowNextCursor() throws Exception {
+        //Given: 다른 테스트가 만든 행(양수 id)보다 앞에 오는 5명
+        for (long id = -10; id <= -6; id++) {
+            jdbcTemplate.update("INSERT INTO users (id, name, email, created_at, version) VALUES (?, ?, ?, ?, 0)",
+                    id, "페이지", "page" + id + "@a.com", SIGNUP_DATE.atTime(9, 0));
+        }
+
+        //When: 첫 페이지
+        mockMvc.perform(get("/api/users").param("after", "-11").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(-10))
+                .andExpect(jsonPath("$[1].id").value(-9))
+                .andExpect(header().string("X-Next-Cursor", "-9"))
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/api/users?after=-9&limit=2>; rel=\"next\""));
+
+        //Then: 커서를 after로 넘기면 겹치거나 빠지는 행 없이 이어짐
+        mockMvc.perform(get("/api/users").param("after", "-9").param("limit", "2"))
+                .andExpect(jsonPath("$[0].id").value(-8))
+                .andExpect(jsonPath("$[1].id").value(-7))
+                .andExpect(header().string("X-Next-Cursor", "-7"));
+        mockMvc.perform(get("/api/users").param("after", "-7").param("limit", "2"))
+                .andExpect(jsonPath("$[0].id").value(-6));
+
+        //Then: 덜 찬 마지막 페이지(여기서는 빈 페이지)에는 다음 커서가 없음
+        mockMvc.perform(get("/api/users").param("after", String.valueOf(Long.MAX_VALUE)).param("limit", "2"))
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void testUpdateAndDeleteEvictCachedUser() throws Exception {
+        //Given: 등록하고 id, email로 한 번씩 읽어서 캐시에 올림
+        String created = mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"캐시\", \"email\": \"cache-evict@a.com\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(created, "$.id")).longValue();
+        mockMvc.perform(get("/api/users/" + id)).andExpect(jsonPath("$.name").value("캐시"));
+        mockMvc.perform(get("/api/users/email/cache-evict@a.com/")).andExpect(jsonPath("$.name").value("캐시"));
+
+        //When: API를 거치지 않고 바꾼 값은 캐시 때문에 보이지 않음
+        jdbcTemplate.update("UPDATE users SET name = ? WHERE id = ?", "DB에서 바꿈", id);
+
+        //Then
+        mockMvc.perform(get("/api/users/" + id)).andExpect(jsonPath("$.name").value("캐시"));
+
+        //When: API로 수정하면 캐시를 지움
+        mockMvc.perform(patch("/api/users/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"수정\"}"))
+                .andExpect(status().isOk());
+
+        //Then: id, email 조회 모두 바뀐 이름
+        mockMvc.perform(get("/api/users/" + id)).andExpect(jsonPath("$.name").value("수정"));
+        mockMvc.perform(get("/api/users/email/cache-evict@a.com/")).andExpect(jsonPath("$.name").value("수정"));
+
+        //When: 삭제
+        mockMvc.perform(delete("/api/users/" + id)).andExpect(status().isOk());
+
+        //Then: 캐시에 남은 값으로 응답하지 않고 404
+        mockMvc.perform(get("/api/users/" + id)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/email/cache-evict@a.com/")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testETagConditionalGetAndIfMatchUpdate() throws Exception {
+        //Given
+        jdbcTemplate.update("INSERT INTO users (id, name, email, created_at, version) VALUES (?, ?, ?, ?, 0)",
+                -30L, "버전", "etag@a.com", SIGNUP_DATE.atTime(9, 0));
+
+        //When, Then: 버전이 ETag로 나가고, 같은 ETag로 다시 물으면 본문 없이 304
+        mockMvc.perform(get("/api/users/-30"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+        mockMvc.perform(get("/api/users/-30").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        //When: 받은 ETag로 수정하면 버전이 올라감
+        mockMvc.perform(patch("/api/users/-30").header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"먼저\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        //Then: 예전 ETag로 수정하면 412, 이름은 먼저 바꾼 값 그대로
+        mockMvc.perform(patch("/api/users/-30").header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"나중\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/users/-30").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("먼저"));
+    }
+
+    @Test
+    void testBulkDeleteReportsOnlyRowsThisCallDeleted() throws Exception {
+        //Given
+        for (long id : new long[]{-2, -3}) {
+            jdbcTemplate.update("INSERT INTO users (id, name, email, created_at, version) VALUES (?, ?, ?, ?, 0)",
+                    id, "삭제", "delete" + id + "@a.com", SIGNUP_DATE.atTime(9, 0));
+        }
+
+        //When: DELETE 한 문장이 돌려준 행만 삭제된 것으로 셈 (-4는 없는 id)
+        mockMvc.perform(delete("/api/users").param("ids", "-2", "-3", "-4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        //Then: 이미 지운 행을 다시 지우면 0건, 가입일의 가입자 수는 지운 2건만큼만 빠짐
+        mockMvc.perform(delete("/api/users").param("ids", "-2", "-3"))
+                .andExpect(jsonPath("$.deleted").value(0));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(signups) FROM user_signups_daily_slots WHERE signup_date = ?", Long.class, SIGNUP_DATE))
+                .isEqualTo(-2);
+    }
+}
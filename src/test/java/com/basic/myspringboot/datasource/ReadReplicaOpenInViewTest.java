@@ -0,0 +1,56 @@
+package com.basic.myspringboot.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * replica를 켠 상태에서 open-in-view(요청 동안 열려 있는 EntityManager)로 한 요청 안에서 읽고 쓰기
+ *
+ * replica는 같은 H2 메모리 DB에 SELECT 권한만 있는 사용자로 붙음
+ * 쓰기가 앞의 조회에서 얻은 replica 커넥션으로 가면 권한 오류로 실패함
+ */
+@SpringBootTest(properties = {"spring.profiles.active=test", "spring.boot.admin.client.enabled=false",
+        "myboot.replica.enabled=true", "myboot.replica.read-your-writes-window=0s",
+        "myboot.replica.pools[0].jdbc-url=jdbc:h2:mem:testdb",
+        "myboot.replica.pools[0].username=reader", "myboot.replica.pools[0].password=reader",
+        "myboot.users.email-filter.enabled=false"})
+@AutoConfigureMockMvc
+class ReadReplicaOpenInViewTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE USER IF NOT EXISTS reader PASSWORD 'reader'");
+        jdbcTemplate.execute("GRANT SELECT ON users TO reader");
+    }
+
+    @Test
+    void testWriteAfterReplicaReadInSameRequestGoesToPrimary() throws Exception {
+        //When: email Bloom filter를 끄면 등록할 때마다 중복 확인 SELECT를 하므로
+        //      한 요청 안에서 readOnly 조회(replica) 다음에 INSERT(primary)
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"스프링\", \"email\": \"replica-osiv@a.com\"}"))
+                .andExpect(status().is2xxSuccessful());
+
+        //Then: 조회는 replica 사용자로 했고, 새 행은 저장됨
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE USER_NAME = 'READER'", Integer.class))
+                .isPositive();
+        mockMvc.perform(get("/api/users/email/replica-osiv@a.com/"))
+                .andExpect(status().isOk());
+    }
+}
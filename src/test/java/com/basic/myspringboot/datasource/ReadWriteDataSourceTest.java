@@ -0,0 +1,109 @@
+package com.basic.myspringboot.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 메모리 DB 두 개를 primary, replica 대신 사용
+ * 각 DB의 node 테이블에 자기 이름을 넣어 두고, 어느 DB에서 읽었는지 확인
+ */
+class ReadWriteDataSourceTest {
+    private final DataSource primary = h2("primary");
+    private final DataSource replica = h2("replica");
+    private final DataSource brokenReplica = new DriverManagerDataSource("jdbc:h2:file:/nonexistent/dir/db;IFEXISTS=TRUE");
+
+    @BeforeEach
+    void setUp() {
+        for (Map.Entry<String, DataSource> db : Map.of("primary", primary, "replica", replica).entrySet()) {
+            JdbcTemplate jdbc = new JdbcTemplate(db.getValue());
+            jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+            jdbc.update("INSERT INTO node VALUES (?)", db.getKey());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+        ReadYourWrites.end();
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        //Given
+        ReadWriteDataSource dataSource = readWrite(Map.of("replica-0", replica));
+
+        //When, Then
+        assertThat(readNode(dataSource, true)).isEqualTo("replica");
+        assertThat(readNode(dataSource, false)).isEqualTo("primary");
+    }
+
+    @Test
+    void testFailsOverToNextReplicaThenPrimary() {
+        //Given: 첫 번째 replica는 연결할 수 없음
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("broken", brokenReplica);
+        replicas.put("replica-0", replica);
+        ReadWriteDataSource dataSource = readWrite(replicas);
+
+        //When, Then: 다른 replica로 넘어가고, 실패한 replica는 DOWN으로 표시
+        assertThat(readNode(dataSource, true)).isEqualTo("replica");
+        assertThat(readNode(dataSource, true)).isEqualTo("replica");
+        assertThat(dataSource.getReplicas().status()).containsEntry("broken", false).containsEntry("replica-0", true);
+
+        //When, Then: replica가 모두 안 되면 primary에서 읽음
+        ReadWriteDataSource allBroken = readWrite(Map.of("broken", brokenReplica));
+        assertThat(readNode(allBroken, true)).isEqualTo("primary");
+    }
+
+    @Test
+    void testReadsAfterWriteStayOnPrimary() {
+        //Given
+        ReadWriteDataSource dataSource = readWrite(Map.of("replica-0", replica));
+        AtomicInteger cookies = new AtomicInteger();
+        ReadYourWrites.begin(false, cookies::incrementAndGet);
+        assertThat(readNode(dataSource, true)).isEqualTo("replica");
+
+        //When
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status ->
+                new JdbcTemplate(dataSource).update("UPDATE node SET name = 'written'"));
+
+        //Then: 같은 요청의 이후 읽기는 primary, 쓰기 표시(쿠키)는 한 번만
+        assertThat(readNode(dataSource, true)).isEqualTo("written");
+        assertThat(readNode(dataSource, false)).isEqualTo("written");
+        assertThat(cookies).hasValue(1);
+
+        //When, Then: 쿠키를 가지고 온 다음 요청도 primary
+        ReadYourWrites.begin(true, () -> { });
+        assertThat(readNode(dataSource, true)).isEqualTo("written");
+    }
+
+    private ReadWriteDataSource readWrite(Map<String, DataSource> replicas) {
+        return new ReadWriteDataSource(primary,
+                new ReplicaRoutingDataSource(primary, replicas, Duration.ofMinutes(1)));
+    }
+
+    private static String readNode(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
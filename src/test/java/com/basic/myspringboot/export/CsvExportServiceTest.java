@@ -0,0 +1,128 @@
+package com.basic.myspringboot.export;
+
+import com.basic.myspringboot.property.ExportProperties;
+import com.basic.myspringboot.shard.UserShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 메모리 DB의 customers 테이블, 샤드 두 개의 users를 CSV로 내보내서 내용 확인
+ */
+class CsvExportServiceTest {
+    private final DataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:export;DB_CLOSE_DELAY=-1", "sa", "");
+    private final CsvExportService csvExportService = new CsvExportService(dataSource,
+            new DataSourceTransactionManager(dataSource), new ExportProperties(),
+            new DefaultListableBeanFactory().getBeanProvider(UserShards.class));
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE customers (id BIGINT PRIMARY KEY, customer_id VARCHAR(20), customer_name VARCHAR(50))");
+        jdbc.update("INSERT INTO customers VALUES (2, 'A002', '스프링, \"부트\"')");
+        jdbc.update("INSERT INTO customers VALUES (1, 'A001', '스프링')");
+        jdbc.update("INSERT INTO customers VALUES (3, 'A003', NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        //Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //When
+        long rows = csvExportService.export(ExportTable.CUSTOMERS, out, false);
+
+        //Then: id 순서, , 와 " 가 있는 값은 따옴표로 감싸고 NULL은 빈 칸
+        assertThat(rows).isEqualTo(3);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,customer_id,customer_name\r\n"
+                        + "1,A001,스프링\r\n"
+                        + "2,A002,\"스프링, \"\"부트\"\"\"\r\n"
+                        + "3,A003,\r\n");
+    }
+
+    @Test
+    void testExportShardedUsersInIdOrder() throws Exception {
+        //Given: 샤드 두 개에 나눠 넣은 User
+        DataSource shard0 = new DriverManagerDataSource("jdbc:h2:mem:export-shard-0;DB_CLOSE_DELAY=-1", "sa", "");
+        DataSource shard1 = new DriverManagerDataSource("jdbc:h2:mem:export-shard-1;DB_CLOSE_DELAY=-1", "sa", "");
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put("shard-0", shard0);
+        shards.put("shard-1", shard1);
+        shards.values().forEach(UserShards::createSchema);
+        UserShards userShards = new UserShards(shards, Duration.ofSeconds(5));
+        LocalDateTime createdAt = LocalDateTime.of(2025, 5, 12, 7, 29, 34, 120_000_000);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(userShards.insert("user" + i, "user" + i + "@example.com", createdAt).id());
+        }
+        ids.sort(null);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("userShards", userShards);
+        ExportProperties properties = new ExportProperties();
+        properties.setFetchSize(2);
+        CsvExportService sharded = new CsvExportService(dataSource, new DataSourceTransactionManager(dataSource),
+                properties, beanFactory.getBeanProvider(UserShards.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //When: 2행씩 나눠 읽음
+        long rows;
+        try {
+            rows = sharded.export(ExportTable.USERS, out, false);
+        } finally {
+            shards.values().forEach(shard -> new JdbcTemplate(shard).execute("DROP ALL OBJECTS"));
+            userShards.close();
+        }
+
+        //Then: 모든 샤드의 행이 id 순서로 한 번씩, 컬럼은 ExportTable.USERS와 같음
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(rows).isEqualTo(5);
+        assertThat(lines[0]).isEqualTo("id,name,email,created_at,updated_at,version");
+        assertThat(Arrays.stream(lines).skip(1).map(line -> Long.valueOf(line.substring(0, line.indexOf(',')))))
+                .containsExactlyElementsOf(ids);
+        assertThat(lines[1]).endsWith(",2025-05-12 07:29:34.12,2025-05-12 07:29:34.12,0");
+    }
+
+    @Test
+    void testExportGzipFile(@TempDir Path directory) throws Exception {
+        //When
+        CsvExportService.ExportResult result = csvExportService.exportToFile(ExportTable.CUSTOMERS, directory, true);
+
+        //Then: 임시 파일 없이 customers.csv.gz 하나만 남음
+        assertThat(result.rows()).isEqualTo(3);
+        assertThat(result.path()).isEqualTo(directory.resolve("customers.csv.gz").toAbsolutePath());
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(directory.resolve("customers.csv.gz"));
+        }
+        byte[] csv = new GZIPInputStream(new ByteArrayInputStream(Files.readAllBytes(result.path()))).readAllBytes();
+        assertThat(new String(csv, StandardCharsets.UTF_8)).startsWith("id,customer_id,customer_name\r\n1,A001,");
+    }
+}
@@ -0,0 +1,53 @@
+package com.basic.myspringboot.feed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeRingTest {
+
+    @Test
+    void testReadAfterOffsetInBatches() {
+        //Given
+        ChangeRing<String> ring = new ChangeRing<>(8);
+        for (int i = 1; i <= 5; i++) {
+            ring.append("change" + i);
+        }
+
+        //When
+        List<ChangeRing.Entry<String>> first = new ArrayList<>();
+        List<ChangeRing.Entry<String>> rest = new ArrayList<>();
+        boolean firstOk = ring.readAfter(0, 3, first);
+        boolean restOk = ring.readAfter(3, 3, rest);
+
+        //Then
+        assertThat(firstOk).isTrue();
+        assertThat(first).extracting(ChangeRing.Entry::offset).containsExactly(1L, 2L, 3L);
+        assertThat(restOk).isTrue();
+        assertThat(rest).extracting(ChangeRing.Entry::value).containsExactly("change4", "change5");
+        assertThat(ring.head()).isEqualTo(5);
+    }
+
+    @Test
+    void testOverwrittenOffsetsCannotBeResumed() {
+        //Given: 4칸에 10건을 넣어서 7~10만 남음
+        ChangeRing<String> ring = new ChangeRing<>(4);
+        for (int i = 1; i <= 10; i++) {
+            ring.append("change" + i);
+        }
+
+        //When
+        List<ChangeRing.Entry<String>> lapped = new ArrayList<>();
+        List<ChangeRing.Entry<String>> retained = new ArrayList<>();
+
+        //Then: 5 다음(6)은 덮어쓰였고, 6 다음부터는 이어 읽을 수 있음
+        assertThat(ring.tail()).isEqualTo(6);
+        assertThat(ring.readAfter(5, 10, lapped)).isFalse();
+        assertThat(lapped).isEmpty();
+        assertThat(ring.readAfter(6, 10, retained)).isTrue();
+        assertThat(retained).extracting(ChangeRing.Entry::offset).containsExactly(7L, 8L, 9L, 10L);
+    }
+}
@@ -0,0 +1,214 @@
+package com.basic.myspringboot.feed;
+
+import com.basic.myspringboot.dto.UserChange;
+import com.basic.myspringboot.exception.ExpectedBusinessException;
+import com.basic.myspringboot.property.ChangeFeedProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 서블릿 없이 보낸 이벤트를 기록하는 emitter로 Last-Event-ID 이어 받기, reset, 구독자 수 제한을 확인
+ */
+class UserChangeFeedTest {
+    private static final Pattern EVENT = Pattern.compile("id:(\\S+)\nevent:(\\S+)\ndata:(.*)\n\n", Pattern.DOTALL);
+
+    private UserChangeFeed feed;
+    // true면 다음 구독의 emitter가 첫 send()에서 unblock()까지 멈춤
+    private volatile boolean blockNext;
+
+    @AfterEach
+    void tearDown() {
+        feed.destroy();
+    }
+
+    @Test
+    void testResumeFromLastEventId() throws InterruptedException {
+        //Given
+        feed = feed(16, 10, 10);
+        RecordingEmitter live = subscribe(null);
+        publishDeleted(1, 3);
+        List<Event> received = live.next(3);
+
+        //When: 첫 번째 이벤트를 받은 뒤 끊겼다가 다시 연결
+        RecordingEmitter resumed = subscribe(received.get(0).id());
+
+        //Then: 놓친 두 건만 같은 id로 받음
+        assertThat(received).extracting(Event::name).containsOnly("deleted");
+        assertThat(resumed.next(2)).extracting(Event::id)
+                .containsExactly(received.get(1).id(), received.get(2).id());
+    }
+
+    @Test
+    void testOtherEpochOrExpiredOffsetGetsReset() throws InterruptedException {
+        //Given: 4칸에 10건을 넣어서 7~10만 남음
+        feed = feed(4, 10, 10);
+        RecordingEmitter live = subscribe(null);
+        publishDeleted(1, 1);
+        String epoch = epochOf(live.next(1).get(0).id());
+        publishDeleted(2, 10);
+
+        //When
+        Event otherRun = subscribe("0-3").next(1).get(0);
+        Event expired = subscribe(epoch + "-3").next(1).get(0);
+        RecordingEmitter kept = subscribe(epoch + "-8");
+
+        //Then: 이전 실행의 id, 덮어쓴 offset이면 최신 위치의 reset, 남아 있는 offset이면 그 다음부터
+        assertThat(otherRun.name()).isEqualTo(UserChangeFeed.RESET);
+        assertThat(otherRun.id()).isEqualTo(epoch + "-10");
+        assertThat(otherRun.data()).contains("expired");
+        assertThat(expired.name()).isEqualTo(UserChangeFeed.RESET);
+        assertThat(kept.next(2)).extracting(Event::id).containsExactly(epoch + "-9", epoch + "-10");
+    }
+
+    @Test
+    void testSlowSubscriberOverrunGetsResetAndContinuesFromHead() throws InterruptedException {
+        //Given: 첫 heartbeat를 보내는 중에 막혀 있는 구독자
+        feed = feed(4, 2, 10);
+        blockNext = true;
+        RecordingEmitter slow = subscribe(null);
+        slow.awaitBlocked();
+
+        //When: 그 사이에 링 버퍼가 한 바퀴 넘게 돎
+        publishDeleted(1, 6);
+        slow.unblock();
+        Event reset = slow.next(1).get(0);
+        publishDeleted(7, 7);
+        Event next = slow.next(1).get(0);
+
+        //Then
+        assertThat(reset.name()).isEqualTo(UserChangeFeed.RESET);
+        assertThat(reset.data()).contains("overrun");
+        assertThat(reset.id()).endsWith("-6");
+        assertThat(next.id()).endsWith("-7");
+    }
+
+    @Test
+    void testConcurrentSubscribesDoNotExceedMaxSubscribers() throws Exception {
+        //Given
+        feed = feed(16, 10, 5);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //When: 50개가 동시에 구독
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        feed.subscribe(null);
+                        return true;
+                    } catch (ExpectedBusinessException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+
+        //Then
+        long subscribed = 0;
+        for (Future<Boolean> result : results) {
+            subscribed += result.get() ? 1 : 0;
+        }
+        assertThat(subscribed).isEqualTo(5);
+        assertThatThrownBy(() -> feed.subscribe(null)).isInstanceOf(ExpectedBusinessException.class);
+    }
+
+    private UserChangeFeed feed(int capacity, int batchSize, int maxSubscribers) {
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setMaxSubscribers(maxSubscribers);
+        // 테스트 중에는 heartbeat가 끼어들지 않게 함 (구독 직후의 첫 heartbeat만)
+        properties.setHeartbeat(Duration.ofHours(1));
+        return new UserChangeFeed(properties, new SimpleMeterRegistry()) {
+            @Override
+            SseEmitter createEmitter(long timeout) {
+                RecordingEmitter emitter = new RecordingEmitter(blockNext);
+                blockNext = false;
+                return emitter;
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = feed.subscribe(lastEventId);
+        return (RecordingEmitter) emitter;
+    }
+
+    private void publishDeleted(long fromId, long toId) {
+        for (long id = fromId; id <= toId; id++) {
+            feed.publish(UserChange.deleted(id));
+        }
+    }
+
+    private static String epochOf(String eventId) {
+        return eventId.substring(0, eventId.indexOf('-'));
+    }
+
+    private record Event(String id, String name, String data) {
+    }
+
+    // 보낸 이벤트를 텍스트로 모아 두는 emitter (heartbeat 주석 줄은 건너뜀)
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch gate;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        RecordingEmitter(boolean block) {
+            this.gate = new CountDownLatch(block ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            blocked.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Matcher matcher = EVENT.matcher(text);
+            if (matcher.matches()) {
+                events.add(new Event(matcher.group(1), matcher.group(2), matcher.group(3)));
+            }
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void unblock() {
+            gate.countDown();
+        }
+
+        List<Event> next(int count) throws InterruptedException {
+            List<Event> received = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Event event = events.poll(5, TimeUnit.SECONDS);
+                assertThat(event).as("%d번째 이벤트", i + 1).isNotNull();
+                received.add(event);
+            }
+            return received;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.basic.myspringboot.json;
+
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 전용 직렬화기(UserJsonModule)의 JSON이 기본 ObjectMapper의 JSON과 글자 하나까지 같은지 확인
+ */
+class UserJsonModuleTest {
+    // Spring Boot처럼 날짜를 ISO 문자열로
+    private final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper optimizedMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(new UserJsonModule())
+            .build();
+
+    @Test
+    void testUserResponseJsonIsSameAsDefault() throws Exception {
+        //Given: 나노초 자리수, null, 4자리가 아닌 연도
+        List<UserResponse> users = List.of(
+                new UserResponse(1L, "스프링 \"부트\"", "a@b.com", LocalDateTime.of(2024, 1, 2, 3, 4, 5),
+                        0L, null),
+                new UserResponse(2L, "b", "b@b.com", LocalDateTime.of(2024, 12, 31, 23, 59, 0, 500_000_000),
+                        3L, LocalDateTime.of(2025, 6, 7, 8, 9, 10, 123_456_000)),
+                new UserResponse(3L, "c", "c@b.com", LocalDateTime.of(999, 1, 1, 0, 0, 0, 1),
+                        null, LocalDateTime.of(12345, 1, 1, 0, 0)),
+                new UserResponse(null, null, null, null, null, null));
+
+        //When, Then
+        assertThat(optimizedMapper.writeValueAsString(users)).isEqualTo(defaultMapper.writeValueAsString(users));
+    }
+
+    @Test
+    void testUserEntityJsonIsSameAsDefault() throws Exception {
+        //Given
+        User user = new User();
+        user.setId(10L);
+        user.setName("엔티티");
+        user.setEmail("entity@b.com");
+        user.setCreatedAt(LocalDateTime.of(2024, 5, 6, 7, 8, 9, 10_000));
+        user.setVersion(2L);
+
+        //When
+        String json = optimizedMapper.writeValueAsString(user);
+
+        //Then
+        assertThat(json).isEqualTo(defaultMapper.writeValueAsString(user));
+        assertThat(json).contains("\"createdAt\":\"2024-05-06T07:08:09.00001\"");
+    }
+}
@@ -0,0 +1,94 @@
+package com.basic.myspringboot.limit;
+
+import com.basic.myspringboot.property.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 응답 시간을 직접 넣어서 한도가 늘고 주는지 확인 (시계, 스레드 없이)
+ */
+class AdaptiveConcurrencyLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+
+    @Test
+    void testLimitGrowsWhileLatencyStaysFlat() {
+        //Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        //When: 한도까지 꽉 채워 쓰는데 응답 시간은 그대로
+        runRounds(limiter, 20, FAST);
+
+        //Then
+        assertThat(limiter.getLimit()).isGreaterThan(properties.getInitialLimit());
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRises() {
+        //Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        runRounds(limiter, 20, FAST);
+        int before = limiter.getLimit();
+
+        //When: DB가 느려져서 응답 시간이 5배
+        runRounds(limiter, 30, SLOW);
+
+        //Then
+        assertThat(limiter.getLimit()).isLessThan(before / 2).isGreaterThanOrEqualTo(properties.getMinLimit());
+    }
+
+    @Test
+    void testLimitBacksOffOnErrors() {
+        //Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        //When: 한 구간 동안 5xx
+        int inFlight = limiter.tryAcquire(true);
+        for (int i = 0; i < properties.getSampleWindow(); i++) {
+            limiter.release(FAST, inFlight, true);
+            inFlight = limiter.tryAcquire(true);
+        }
+        limiter.release();
+
+        //Then
+        assertThat(limiter.getLimit()).isEqualTo((int) (properties.getInitialLimit() * properties.getDropBackoffRatio()));
+    }
+
+    @Test
+    void testNonPriorityRequestsLeaveReservedCapacity() {
+        //Given: 한도 20, 우선순위가 아닌 요청은 80%(16)까지
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        //When
+        int accepted = 0;
+        while (limiter.tryAcquire(false) != AdaptiveConcurrencyLimiter.REJECTED) {
+            accepted++;
+        }
+
+        //Then: 남은 몫은 우선순위 요청만 받음
+        assertThat(accepted).isEqualTo(16);
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire(true)).isEqualTo(17 + i);
+        }
+        assertThat(limiter.tryAcquire(true)).isEqualTo(AdaptiveConcurrencyLimiter.REJECTED);
+    }
+
+    // 한도만큼 동시에 받아서 모두 rtt 만에 끝내는 것을 rounds번 반복
+    private static void runRounds(AdaptiveConcurrencyLimiter limiter, int rounds, long rtt) {
+        for (int round = 0; round < rounds; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                limiter.tryAcquire(true);
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.release(rtt, limit, false);
+            }
+        }
+    }
+}
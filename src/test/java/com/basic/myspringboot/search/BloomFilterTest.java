@@ -0,0 +1,49 @@
+package com.basic.myspringboot.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void testNoFalseNegatives() {
+        //Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        //When
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        //Then: 넣은 값은 항상 있을 수도 있음
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+        assertThat(filter.size()).isEqualTo(10_000);
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        //Given: 목표 1%로 만든 필터를 가득 채움
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        //When: 넣지 않은 값 10만 개 조회
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        //Then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+        // 100,000 * 9.6비트 = 약 117KB, 해시 7개
+        assertThat(filter.byteSize()).isBetween(110_000L, 130_000L);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,89 @@
+package com.basic.myspringboot.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NGramIndexTest {
+
+    @Test
+    void testSearchRanksExactThenPrefixThenContains() {
+        //Given
+        NGramIndex index = new NGramIndex(2);
+        index.put(1L, "스프링부트");
+        index.put(2L, "자바 스프링");
+        index.put(3L, "스프링");
+        index.put(4L, "부트캠프");
+
+        //When
+        NGramIndex.Hits hits = index.search("스프링", 0, 10);
+
+        //Then: 완전 일치(3) > 앞부분 일치(1) > 부분 일치(2), "부트캠프"는 제외
+        assertThat(hits.total()).isEqualTo(3);
+        assertThat(hits.ids()).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void testGramsMustAppearInOrder() {
+        NGramIndex index = new NGramIndex(2);
+        // "ab", "bc"를 모두 가지고 있지만 "abc"는 포함하지 않음
+        index.put(1L, "bcab");
+        index.put(2L, "xabcx");
+
+        assertThat(index.search("abc", 0, 10).ids()).containsExactly(2L);
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        NGramIndex index = new NGramIndex(3);
+        index.put(1L, "Spring Boot");
+        index.put(1L, "Spring Cloud");
+        index.put(2L, "Spring Boot Admin");
+
+        assertThat(index.search("BOOT", 0, 10).ids()).containsExactly(2L);
+        assertThat(index.search("cloud", 0, 10).ids()).containsExactly(1L);
+
+        index.remove(2L);
+        assertThat(index.search("boot", 0, 10).total()).isZero();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testShortQueryAndPaging() {
+        NGramIndex index = new NGramIndex(3);
+        for (long id = 1; id <= 25; id++) {
+            index.put(id, "user" + id);
+        }
+
+        // 검색어가 gramSize보다 짧아도 검색됨
+        NGramIndex.Hits hits = index.search("u", 20, 10);
+        assertThat(hits.total()).isEqualTo(25);
+        assertThat(hits.ids()).hasSize(5);
+    }
+
+    @Test
+    void testOneCharacterQueryUsesIndexAndPagesInRankOrder() {
+        //Given: 2-gram 색인에 한 글자 이름 검색
+        NGramIndex index = new NGramIndex(2);
+        index.put(1L, "김철수");
+        index.put(2L, "김");
+        index.put(3L, "이영희");
+        index.put(4L, "박김밥");
+        index.put(5L, "김밥");
+
+        //When: 2개씩 페이지를 넘김
+        NGramIndex.Hits first = index.search("김", 0, 2);
+        NGramIndex.Hits second = index.search("김", 2, 2);
+
+        //Then: 완전 일치(2) > 앞부분 일치(짧은 것부터 5, 1) > 부분 일치(4)
+        assertThat(first.total()).isEqualTo(4);
+        assertThat(first.ids()).containsExactly(2L, 5L);
+        assertThat(second.ids()).containsExactly(1L, 4L);
+        assertThat(index.search("김", 4, 2).ids()).isEmpty();
+
+        //Then: 바꾸거나 지우면 한 글자 gram에서도 빠짐
+        index.put(2L, "최");
+        index.remove(4L);
+        assertThat(index.search("김", 0, 10).ids()).containsExactly(5L, 1L);
+    }
+}
@@ -0,0 +1,68 @@
+package com.basic.myspringboot.service;
+
+import com.basic.myspringboot.dto.CustomerResponse;
+import com.basic.myspringboot.dto.CustomerSearchResult;
+import com.basic.myspringboot.property.CustomerSearchProperties;
+import com.basic.myspringboot.repository.CustomerRepository;
+import com.basic.myspringboot.search.CustomerNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 색인에 30명을 넣고 페이지 번호에 따른 검색 결과 확인 (DB 조회는 id로 바로 CustomerResponse를 만드는 Proxy)
+ */
+class CustomerSearchServiceTest {
+    private CustomerSearchService customerSearchService;
+
+    @BeforeEach
+    void setUp() {
+        CustomerSearchProperties properties = new CustomerSearchProperties();
+        CustomerNameIndex customerNameIndex = new CustomerNameIndex(properties);
+        customerNameIndex.rebuild(index -> {
+            for (long id = 1; id <= 30; id++) {
+                index.put(id, "스프링" + id);
+            }
+        });
+        customerSearchService = new CustomerSearchService(customerRepository(), customerNameIndex, properties, null);
+    }
+
+    @Test
+    void testPageInsideHits() {
+        //When
+        CustomerSearchResult result = customerSearchService.search("스프", 1, 20);
+
+        //Then
+        assertThat(result.total()).isEqualTo(30);
+        assertThat(result.customers()).hasSize(10);
+    }
+
+    @Test
+    void testHugePageDoesNotOverflowOffset() {
+        //When: 200_000_000 * 20 은 int로 계산하면 음수
+        CustomerSearchResult result = customerSearchService.search("스프", 200_000_000, 20);
+
+        //Then: 빈 페이지와 전체 일치 수
+        assertThat(result.page()).isEqualTo(200_000_000);
+        assertThat(result.total()).isEqualTo(30);
+        assertThat(result.customers()).isEmpty();
+    }
+
+    // findResponsesByIdIn()만 쓰므로 받은 id로 바로 응답을 만듦
+    @SuppressWarnings("unchecked")
+    private static CustomerRepository customerRepository() {
+        return (CustomerRepository) Proxy.newProxyInstance(CustomerRepository.class.getClassLoader(),
+                new Class<?>[]{CustomerRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findResponsesByIdIn")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return ((Collection<Long>) args[0]).stream()
+                            .map(id -> new CustomerResponse(id, "A" + id, "스프링" + id))
+                            .toList();
+                });
+    }
+}
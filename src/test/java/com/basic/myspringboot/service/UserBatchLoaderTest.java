@@ -0,0 +1,129 @@
+package com.basic.myspringboot.service;
+
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.property.UserApiProperties;
+import com.basic.myspringboot.shard.ShardedUserStore;
+import com.basic.myspringboot.shard.UserShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 메모리 DB 하나를 샤드 하나짜리 UserShards로 써서 조회 쿼리 수를 확인
+ */
+class UserBatchLoaderTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 12, 7, 29, 34);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DataSource dataSource;
+    private UserShards userShards;
+    private UserBatchLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:batch-loader-test;DB_CLOSE_DELAY=-1", "sa", "");
+        UserShards.createSchema(dataSource);
+        userShards = new UserShards(Map.of("shard-0", dataSource), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (loader != null) {
+            loader.destroy();
+        }
+        userShards.close();
+        new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testLargeListIsSplitIntoChunksAndMissingIdsAreLeftOut() {
+        //Given: 20명 + 없는 id 2개, 7개씩 조회
+        loader = loader(7, Duration.ofMillis(50));
+        List<Long> ids = new ArrayList<>(insert(20).stream().map(UserResponse::id).toList());
+        ids.add(1L);
+        ids.add(2L);
+
+        //When
+        Map<Long, UserResponse> found = loader.load(ids);
+
+        //Then
+        assertThat(found).hasSize(20).doesNotContainKeys(1L, 2L);
+        assertThat(ids.subList(0, 20)).allSatisfy(id -> assertThat(found.get(id).id()).isEqualTo(id));
+        assertThat(queries()).isEqualTo(4);
+    }
+
+    @Test
+    void testConcurrentLookupsOfSameIdsShareOneQuery() throws Exception {
+        //Given: window 안에 두 요청이 5명씩 조회 (3명은 겹침)
+        loader = loader(100, Duration.ofMillis(300));
+        List<Long> ids = insert(7).stream().map(UserResponse::id).toList();
+
+        //When
+        Map<Long, UserResponse> first;
+        Map<Long, UserResponse> second;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Map<Long, UserResponse>> a =
+                    CompletableFuture.supplyAsync(() -> loader.load(ids.subList(0, 5)), executor);
+            CompletableFuture<Map<Long, UserResponse>> b =
+                    CompletableFuture.supplyAsync(() -> loader.load(ids.subList(2, 7)), executor);
+            first = a.get();
+            second = b.get();
+        }
+
+        //Then: IN 쿼리 한 번, 겹친 3명은 같이 씀
+        assertThat(first.keySet()).containsExactlyInAnyOrderElementsOf(ids.subList(0, 5));
+        assertThat(second.keySet()).containsExactlyInAnyOrderElementsOf(ids.subList(2, 7));
+        assertThat(queries()).isEqualTo(1);
+        assertThat(meterRegistry.counter("users.batch.coalesced").count()).isEqualTo(3);
+    }
+
+    @Test
+    void testLookupAfterBatchCompletedQueriesAgain() {
+        //Given
+        loader = loader(100, Duration.ofMillis(10));
+        UserResponse user = insert(1).get(0);
+        loader.load(List.of(user.id()));
+
+        //When: 앞의 조회가 끝난 뒤 이름이 바뀜
+        userShards.updateName(user.id(), "새 이름", null, NOW);
+        Map<Long, UserResponse> found = loader.load(List.of(user.id()));
+
+        //Then: 끝난 결과를 다시 쓰지 않고 새로 읽음
+        assertThat(found.get(user.id()).name()).isEqualTo("새 이름");
+        assertThat(queries()).isEqualTo(2);
+    }
+
+    private UserBatchLoader loader(int chunkSize, Duration window) {
+        UserApiProperties properties = new UserApiProperties();
+        properties.setBatchGetChunkSize(chunkSize);
+        properties.setBatchGetWindow(window);
+        return new UserBatchLoader(new ShardedUserStore(userShards, null, null), properties, meterRegistry);
+    }
+
+    private List<UserResponse> insert(int count) {
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(userShards.insert("user" + i, "user" + i + "@example.com", NOW));
+        }
+        return users;
+    }
+
+    private double queries() {
+        return meterRegistry.counter("users.batch.queries").count();
+    }
+}
@@ -0,0 +1,154 @@
+package com.basic.myspringboot.service;
+
+import com.basic.myspringboot.dto.UserResponse;
+import com.basic.myspringboot.property.UserApiProperties;
+import com.basic.myspringboot.repository.UserRepository;
+import com.basic.myspringboot.shard.UserShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /index 목록을 OFFSET(첫 chunk) + keyset(다음 chunk)으로 나눠 읽은 결과가
+ * 같은 정렬의 SQL 한 번(ORDER BY ... LIMIT/OFFSET)과 같은지 확인
+ *
+ * test 프로파일(H2 메모리 DB)을 다른 테스트와 같이 쓰므로 기대값도 그때의 테이블 전체에서 구함
+ * chunk 크기를 작게 하려고 UserTableService는 직접 만듦
+ */
+@SpringBootTest(properties = {"spring.profiles.active=test", "spring.boot.admin.client.enabled=false"})
+@AutoConfigureMockMvc
+class UserTableServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 12, 7, 29, 34);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserTableService userTableService;
+
+    @BeforeEach
+    void setUp() {
+        UserApiProperties properties = new UserApiProperties();
+        properties.setViewChunkSize(2);
+        userTableService = new UserTableService(userRepository, properties,
+                new DefaultListableBeanFactory().getBeanProvider(UserShards.class));
+        // 같은 이름 7명 (email만 다름) + 이름이 다른 2명
+        for (int i = 1; i <= 7; i++) {
+            insert(-i, "동명이인", "table-" + i + "@a.com");
+        }
+        insert(-8, "가나다", "table-8@a.com");
+        insert(-9, "하하하", "table-9@a.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE id < 0");
+    }
+
+    @Test
+    void testMultiColumnSortMatchesSingleQuery() {
+        //Given
+        Sort sort = Sort.by(Sort.Order.asc("name"), Sort.Order.desc("email"));
+
+        //When: 한 페이지 5행을 2행씩 나눠 읽음 (5가 2의 배수가 아니라서 마지막 chunk는 1행)
+        List<Long> ids = readAllPages(sort, 5);
+
+        //Then
+        assertThat(ids).containsExactlyElementsOf(
+                jdbcTemplate.queryForList("SELECT id FROM users ORDER BY name, email DESC, id", Long.class));
+    }
+
+    @Test
+    void testPageBoundaryOnDuplicateNames() {
+        //Given: 같은 이름 7명은 페이지 크기 3의 경계에 여러 번 걸침
+        Sort sort = Sort.by("name");
+
+        //When
+        List<Long> ids = readAllPages(sort, 3);
+
+        //Then: 경계에서 빠지거나 두 번 나오는 행이 없음 (같은 이름끼리는 id 순)
+        assertThat(ids).containsExactlyElementsOf(
+                jdbcTemplate.queryForList("SELECT id FROM users ORDER BY name, id", Long.class));
+        assertThat(ids).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testEmptyLastChunk() {
+        //Given: 테이블 전체가 들어가는 chunk 크기(2)의 배수인 페이지 크기
+        long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        int size = (int) (total % 2 == 0 ? total : total + 1);
+
+        //When: 행이 끝나면 남은 chunk를 더 읽지 않음
+        UserTableService.UserTable table = userTableService.page(PageRequest.of(0, size, Sort.by("id")));
+        List<Long> ids = ids(table);
+
+        //Then
+        assertThat(ids).hasSize((int) total);
+        assertThat(table.isHasNext()).isFalse();
+
+        //When: 마지막 페이지 다음 페이지는 첫 chunk부터 비어 있음
+        UserTableService.UserTable after = userTableService.page(PageRequest.of(1, size, Sort.by("id")));
+
+        //Then
+        assertThat(ids(after)).isEmpty();
+        assertThat(after.isHasNext()).isFalse();
+    }
+
+    @Test
+    void testPageLinksKeepEverySortOrder() throws Exception {
+        //When
+        String html = mockMvc.perform(get("/index").param("size", "3")
+                        .param("sort", "name,asc").param("sort", "email,desc"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        //Then: 다음 페이지 링크에 정렬 순서가 모두 반복해서 붙음
+        assertThat(html).contains("/index?page=1&amp;size=3&amp;sort=name,asc&amp;sort=email,desc&amp;sort=id,asc");
+    }
+
+    private List<Long> readAllPages(Sort sort, int size) {
+        List<Long> ids = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            UserTableService.UserTable table = userTableService.page(PageRequest.of(page, size, sort));
+            List<Long> rows = ids(table);
+            assertThat(rows).hasSizeLessThanOrEqualTo(size);
+            ids.addAll(rows);
+            if (!table.isHasNext()) {
+                return ids;
+            }
+            assertThat(rows).hasSize(size);
+        }
+    }
+
+    private static List<Long> ids(UserTableService.UserTable table) {
+        List<Long> ids = new ArrayList<>();
+        for (UserResponse row : table.getRows()) {
+            ids.add(row.id());
+        }
+        return ids;
+    }
+
+    private void insert(long id, String name, String email) {
+        jdbcTemplate.update("INSERT INTO users (id, name, email, created_at, version) VALUES (?, ?, ?, ?, 0)",
+                id, name, email, NOW);
+    }
+}
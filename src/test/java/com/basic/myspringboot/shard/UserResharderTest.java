@@ -0,0 +1,157 @@
+package com.basic.myspringboot.shard;
+
+import com.basic.myspringboot.dto.UserResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 메모리 DB를 예전/새 샤드로 써서 복사, 따라잡기, 정리를 확인
+ */
+class UserResharderTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 12, 7, 29, 34);
+
+    private final UserResharder resharder = new UserResharder(7, Duration.ZERO, 5, 100);
+    private final List<DataSource> created = new ArrayList<>();
+    private final List<UserShards> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(UserShards::close);
+        created.forEach(dataSource -> new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS"));
+    }
+
+    @Test
+    void testCopyToMoreShardsKeepsIdsAndCatchesUpChanges() {
+        //Given: 샤드 2개에 40명
+        UserShards before = shards("two", 2);
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            users.add(before.insert("user" + i, "user" + i + "@example.com", NOW));
+        }
+        List<DataSource> targets = dataSources("three", 3);
+        resharder.copy(jdbc(before), jdbc(targets));
+
+        //When: 복사한 뒤에도 예전 구성으로 서비스 중 (수정, 삭제, 등록) -> 한 번 더 복사
+        before.updateName(users.get(0).id(), "수정", null, NOW.plusMinutes(1));
+        before.deleteByIdIn(List.of(users.get(1).id()));
+        UserResponse late = before.insert("late", "late@example.com", NOW);
+        UserResharder.Result result = resharder.copy(jdbc(before), jdbc(targets));
+
+        //Then: 새 구성에서 같은 id로 샤드 하나만 보고 찾음
+        UserShards after = shards(targets);
+        assertThat(after.count()).isEqualTo(40);
+        assertThat(after.findById(users.get(0).id())).get().extracting(UserResponse::name).isEqualTo("수정");
+        assertThat(after.findById(users.get(1).id())).isEmpty();
+        assertThat(after.findByEmail("late@example.com")).contains(late);
+        assertThat(result.copied()).isEqualTo(2);
+        assertThat(result.deleted()).isEqualTo(1);
+
+        //Then: 새 샤드의 시퀀스는 옮겨 온 id 뒤로 맞춰져 있어서 새로 등록해도 id가 겹치지 않음
+        Set<Long> ids = new HashSet<>(after.findAfter(0, 100).stream().map(UserResponse::id).toList());
+        for (int i = 0; i < 30; i++) {
+            assertThat(ids.add(after.insert("new" + i, "new" + i + "@example.com", NOW).id())).isTrue();
+        }
+    }
+
+    @Test
+    void testCopyFromSingleDatabaseKeepsIdsCreatedBeforeSharding() {
+        //Given: 샤딩 전 DB 하나 (id 1 ~ 20)
+        DataSource single = dataSources("single", 1).get(0);
+        for (long id = 1; id <= 20; id++) {
+            new JdbcTemplate(single).update(
+                    "INSERT INTO users (id, name, email, created_at, version) VALUES (?, ?, ?, ?, 0)",
+                    id, "user" + id, "user" + id + "@example.com", NOW);
+        }
+
+        //When
+        List<DataSource> targets = dataSources("from-single", 2);
+        resharder.copy(List.of(new JdbcTemplate(single)), jdbc(targets));
+
+        //Then: 예전 id로도(모든 샤드에 물어봄), email로도(샤드 하나) 찾음
+        UserShards after = shards(targets);
+        for (long id = 1; id <= 20; id++) {
+            assertThat(after.findById(id)).get().extracting(UserResponse::email).isEqualTo("user" + id + "@example.com");
+            assertThat(after.findByEmail("user" + id + "@example.com")).get().extracting(UserResponse::id).isEqualTo(id);
+        }
+        assertThat(after.findAfter(0, 100)).extracting(UserResponse::id)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 20).boxed().toList());
+    }
+
+    @Test
+    void testCleanupRemovesRowsThatMovedToAnotherShard() {
+        //Given: 샤드 2개를 그대로 쓰고 하나를 더함
+        UserShards before = shards("reuse", 2);
+        for (int i = 0; i < 40; i++) {
+            before.insert("user" + i, "user" + i + "@example.com", NOW);
+        }
+        List<DataSource> targets = new ArrayList<>(before.shards().stream().map(UserShards.Shard::dataSource).toList());
+        targets.addAll(dataSources("added", 1));
+        resharder.copy(jdbc(before), jdbc(targets));
+        UserShards after = shards(targets);
+        long copiesBeforeCleanup = rows(targets);
+        List<UserResponse> listedBeforeCleanup = after.findAfter(0, 100);
+
+        //When: 전환한 뒤 정리
+        long deleted = resharder.cleanup(jdbc(after));
+
+        //Then: 옮겨 간 행은 예전 샤드에서 지워지고, 정리 전에도 목록에는 중복 없이 보임
+        assertThat(copiesBeforeCleanup).isGreaterThan(40);
+        assertThat(deleted).isEqualTo(copiesBeforeCleanup - 40);
+        assertThat(after.count()).isEqualTo(40);
+        assertThat(listedBeforeCleanup).hasSize(40);
+        assertThat(after.findAfter(0, 100)).isEqualTo(listedBeforeCleanup);
+    }
+
+    private UserShards shards(String name, int count) {
+        return shards(dataSources(name, count));
+    }
+
+    private UserShards shards(List<DataSource> dataSources) {
+        Map<String, DataSource> named = new LinkedHashMap<>();
+        for (int i = 0; i < dataSources.size(); i++) {
+            named.put("shard-" + i, dataSources.get(i));
+        }
+        UserShards shards = new UserShards(named, Duration.ofSeconds(5));
+        opened.add(shards);
+        return shards;
+    }
+
+    private List<DataSource> dataSources(String name, int count) {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DataSource dataSource = UserShardsTest.h2("resharder-" + name + "-" + i);
+            UserShards.createSchema(dataSource);
+            created.add(dataSource);
+            dataSources.add(dataSource);
+        }
+        return dataSources;
+    }
+
+    private static List<JdbcTemplate> jdbc(UserShards shards) {
+        return shards.shards().stream().map(UserShards.Shard::jdbc).toList();
+    }
+
+    private static List<JdbcTemplate> jdbc(List<DataSource> dataSources) {
+        return dataSources.stream().map(JdbcTemplate::new).toList();
+    }
+
+    private static long rows(List<DataSource> dataSources) {
+        return dataSources.stream()
+                .mapToLong(dataSource -> new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM users", Long.class))
+                .sum();
+    }
+}
@@ -0,0 +1,240 @@
+package com.basic.myspringboot.shard;
+
+import com.basic.myspringboot.dto.UserCreation;
+import com.basic.myspringboot.dto.UserResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * H2 메모리 DB 세 개를 샤드로 사용
+ */
+class UserShardsTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 12, 7, 29, 34);
+
+    private final Map<String, DataSource> dataSources = new LinkedHashMap<>();
+    private UserShards userShards;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            DataSource dataSource = h2("shards-test-" + i);
+            UserShards.createSchema(dataSource);
+            dataSources.put("shard-" + i, dataSource);
+        }
+        userShards = new UserShards(dataSources, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSources.values().forEach(dataSource -> new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS"));
+        userShards.close();
+    }
+
+    @Test
+    void testUserIsStoredOnEmailShardAndFoundById() {
+        //Given
+        List<UserResponse> users = insert(60);
+
+        //Then: email 해시의 샤드 한 곳에만 있고, id에 담긴 bucket으로도 같은 샤드를 찾음
+        for (UserResponse user : users) {
+            int shard = ShardKey.shardOf(user.email(), 3);
+            assertThat(ShardKey.isShardedId(user.id())).isTrue();
+            assertThat(ShardKey.bucketOf(user.id())).isEqualTo(ShardKey.bucketOf(user.email()));
+            for (int i = 0; i < 3; i++) {
+                assertThat(countById(i, user.id())).isEqualTo(i == shard ? 1 : 0);
+            }
+            assertThat(userShards.findById(user.id())).contains(user);
+            assertThat(userShards.findByEmail(user.email())).contains(user);
+        }
+        assertThat(userShards.count()).isEqualTo(60);
+    }
+
+    @Test
+    void testDuplicateEmailIgnoringCaseIsRejectedOnSameShard() {
+        //Given
+        userShards.insert("스프링", "spring@a.com", NOW);
+
+        //When, Then: 대소문자만 달라도 같은 샤드로 가서 unique 제약조건에 걸림 (H2는 대소문자를 구분하므로 같은 값으로 확인)
+        assertThat(ShardKey.bucketOf("Spring@A.com")).isEqualTo(ShardKey.bucketOf("spring@a.com"));
+        assertThatThrownBy(() -> userShards.insert("스프링2", "spring@a.com", NOW))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void testPagesMergeAllShardsInIdOrder() {
+        //Given
+        List<Long> ids = new ArrayList<>(insert(50).stream().map(UserResponse::id).toList());
+        ids.sort(null);
+
+        //When: 7개씩 끝까지 넘김
+        List<Long> paged = new ArrayList<>();
+        long after = 0;
+        while (true) {
+            List<UserResponse> page = userShards.findAfter(after, 7);
+            page.forEach(user -> paged.add(user.id()));
+            if (page.size() < 7) {
+                break;
+            }
+            after = page.get(page.size() - 1).id();
+        }
+
+        //Then
+        assertThat(paged).isEqualTo(ids);
+    }
+
+    @Test
+    void testSortedPagesMergeAllShardsOnce() {
+        //Given: 대소문자가 섞인 같은 이름이 여러 샤드에 있고, 리샤딩 정리 전의 복사본이 다른 샤드에 하나 남아 있음
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String name = (i % 2 == 0 ? "User" : "user") + (i % 7);
+            users.add(userShards.insert(name, "sorted" + i + "@example.com", NOW.plusMinutes(i % 5)));
+        }
+        UserResponse copied = users.get(0);
+        new JdbcTemplate(dataSources.get("shard-" + (ShardKey.shardOf(copied.email(), 3) + 1) % 3)).update(
+                "INSERT INTO users (id, name, email, created_at, version) VALUES (?, ?, ?, ?, 0)",
+                copied.id(), copied.name(), copied.email(), copied.createdAt());
+        Sort sort = Sort.by(Sort.Order.desc("name"), Sort.Order.asc("createdAt"));
+
+        //When: 6개씩 끝까지 넘김
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            List<UserResponse> rows = userShards.findPage(sort, page * 6L, 6);
+            rows.forEach(user -> paged.add(user.id()));
+            if (rows.size() < 6) {
+                break;
+            }
+        }
+
+        //Then: 대소문자를 무시한 이름 역순, 가입 시각, id 순으로 모든 User가 한 번씩
+        List<Long> expected = users.stream()
+                .sorted(Comparator.comparing((UserResponse user) -> user.name().toLowerCase(Locale.ROOT)).reversed()
+                        .thenComparing(UserResponse::createdAt)
+                        .thenComparing(UserResponse::id))
+                .map(UserResponse::id)
+                .toList();
+        assertThat(paged).isEqualTo(expected);
+    }
+
+    @Test
+    void testSortedPagesIgnoreShardCollation() {
+        //Given: 샤드 DB가 영어 collation이면 é가 f 앞에 오지만 Java의 문자열 비교로는 z 뒤
+        Map<String, DataSource> english = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            DataSource dataSource = h2("shards-english-" + i);
+            new JdbcTemplate(dataSource).execute("SET COLLATION ENGLISH");
+            UserShards.createSchema(dataSource);
+            english.put("shard-" + i, dataSource);
+        }
+        List<UserResponse> users = new ArrayList<>();
+        List<UserResponse> rows = new ArrayList<>();
+        try (UserShards englishShards = new UserShards(english, Duration.ofSeconds(5))) {
+            String[] names = {"fig", "Éclair", "apple", "éclair", "Zeta", "émile", "Fig", "ápple"};
+            for (int i = 0; i < 30; i++) {
+                users.add(englishShards.insert(names[i % names.length], "english" + i + "@example.com", NOW));
+            }
+
+            //When: 4개씩 끝까지 넘김
+            for (int page = 0; ; page++) {
+                List<UserResponse> found = englishShards.findPage(Sort.by("name"), page * 4L, 4);
+                rows.addAll(found);
+                if (found.size() < 4) {
+                    break;
+                }
+            }
+        } finally {
+            english.values().forEach(dataSource -> new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS"));
+        }
+
+        //Then: 샤드의 collation과 상관없이 소문자 이름의 UTF-8 바이트 순서, 같은 이름끼리는 id 순으로 한 번씩
+        List<Long> expected = users.stream()
+                .sorted(Comparator.<UserResponse, byte[]>comparing(
+                                user -> user.name().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8),
+                                Arrays::compareUnsigned)
+                        .thenComparing(UserResponse::id))
+                .map(UserResponse::id)
+                .toList();
+        assertThat(rows).extracting(UserResponse::id).isEqualTo(expected);
+        assertThat(rows.get(rows.size() - 1).name()).isEqualTo("émile");
+    }
+
+    @Test
+    void testUpdateAndDeleteRouteToOneShard() {
+        //Given
+        List<UserResponse> users = insert(10);
+        UserResponse user = users.get(3);
+
+        //When
+        int stale = userShards.updateName(user.id(), "이름", 5L, NOW);
+        int updated = userShards.updateName(user.id(), "이름", 0L, NOW);
+        List<UserCreation> deleted = userShards.deleteByIdIn(List.of(users.get(0).id(), users.get(1).id(), 12345L));
+        List<UserCreation> again = userShards.deleteByIdIn(List.of(users.get(0).id()));
+
+        //Then
+        assertThat(stale).isZero();
+        assertThat(updated).isEqualTo(1);
+        assertThat(userShards.findById(user.id())).get()
+                .satisfies(found -> {
+                    assertThat(found.name()).isEqualTo("이름");
+                    assertThat(found.version()).isEqualTo(1);
+                });
+        assertThat(userShards.findVersionById(user.id())).get()
+                .satisfies(version -> assertThat(version.lastModified()).isEqualTo(NOW));
+        assertThat(deleted).extracting(UserCreation::id).containsExactlyInAnyOrder(users.get(0).id(), users.get(1).id());
+        assertThat(again).isEmpty();
+        assertThat(userShards.count()).isEqualTo(8);
+    }
+
+    @Test
+    void testIdCreatedBeforeShardingIsFoundOnAnyShard() {
+        //Given: 샤딩 전 id(bucket 없음)를 email 해시의 샤드에 넣어 둠 (UserResharder가 옮긴 것과 같음)
+        String email = "legacy@a.com";
+        new JdbcTemplate(dataSources.get("shard-" + ShardKey.shardOf(email, 3))).update(
+                "INSERT INTO users (id, name, email, created_at, version) VALUES (?, ?, ?, ?, 0)",
+                15L, "예전", email, NOW);
+
+        //When, Then
+        assertThat(userShards.findById(15L)).get().extracting(UserResponse::email).isEqualTo(email);
+        assertThat(userShards.findByEmail(email)).get().extracting(UserResponse::id).isEqualTo(15L);
+        assertThat(userShards.updateName(15L, "새 이름", null, NOW)).isEqualTo(1);
+        assertThat(userShards.deleteByIdIn(List.of(15L))).containsExactly(new UserCreation(15L, NOW));
+        assertThat(userShards.existsById(15L)).isFalse();
+    }
+
+    private List<UserResponse> insert(int count) {
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(userShards.insert("user" + i, "user" + i + "@example.com", NOW.plusMinutes(i)));
+        }
+        return users;
+    }
+
+    private int countById(int shard, long id) {
+        return new JdbcTemplate(dataSources.get("shard-" + shard))
+                .queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, id);
+    }
+
+    static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
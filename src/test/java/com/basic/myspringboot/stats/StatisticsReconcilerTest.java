@@ -0,0 +1,111 @@
+package com.basic.myspringboot.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 메모리 DB에서 통계를 일부러 어긋나게 만든 뒤 맞추기로 바로잡히는지 확인
+ */
+class StatisticsReconcilerTest {
+    private static final LocalDateTime DAY1 = LocalDateTime.of(2025, 5, 12, 7, 29, 34);
+    private static final LocalDateTime DAY3 = DAY1.plusDays(2);
+
+    private final DataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:stats-reconciler;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatisticsReconciler reconciler =
+            new StatisticsReconciler(jdbc, new DataSourceTransactionManager(dataSource), null, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, created_at TIMESTAMP NOT NULL)");
+        jdbc.execute("CREATE INDEX idx_users_created_at ON users (created_at)");
+        jdbc.execute("CREATE TABLE customers (id BIGINT PRIMARY KEY)");
+        jdbc.execute("CREATE TABLE stat_total_slots (name VARCHAR(50), slot INT, total BIGINT NOT NULL,"
+                + " PRIMARY KEY (name, slot))");
+        jdbc.execute("CREATE TABLE user_signups_daily_slots (signup_date DATE, slot INT, signups BIGINT NOT NULL,"
+                + " PRIMARY KEY (signup_date, slot))");
+        jdbc.update("INSERT INTO users VALUES (1, ?), (2, ?), (3, ?)", DAY1, DAY1, DAY3);
+        jdbc.update("INSERT INTO customers VALUES (1), (2)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testFirstReconcileInitializesWithoutDrift() {
+        //When
+        reconciler.reconcile();
+
+        //Then: 가입자가 없는 날(DAY2)은 행이 없음
+        assertThat(total("users")).isEqualTo(3);
+        assertThat(total("customers")).isEqualTo(2);
+        assertThat(signupsPerDay()).containsExactly(
+                Map.entry(DAY1.toLocalDate(), 2L), Map.entry(DAY3.toLocalDate(), 1L));
+        assertThat(drift("users")).isZero();
+        assertThat(drift("user_signups_daily")).isZero();
+    }
+
+    @Test
+    void testReconcileFixesInjectedDrift() {
+        //Given: 맞춘 뒤에 통계를 거치지 않고 바꾼 행과 값
+        reconciler.reconcile();
+        jdbc.update("INSERT INTO users VALUES (4, ?)", DAY3);
+        jdbc.update("UPDATE stat_total_slots SET total = 7 WHERE name = 'customers'");
+        jdbc.update("INSERT INTO stat_total_slots VALUES ('customers', 5, 3)");
+        jdbc.update("UPDATE user_signups_daily_slots SET signups = 5 WHERE signup_date = ?", DAY1.toLocalDate());
+        jdbc.update("INSERT INTO user_signups_daily_slots VALUES (?, 3, 4), (?, 9, 3)",
+                DAY1.toLocalDate().minusDays(3), DAY1.toLocalDate().minusDays(3));
+
+        //When
+        reconciler.reconcile();
+
+        //Then: 실제 테이블과 같아지고, 차이를 메트릭으로 남김 (users 1, customers 8, 일별 1 + 3 + 7)
+        //      가입자가 없는 날의 slot 행은 모두 지워짐
+        assertThat(total("users")).isEqualTo(4);
+        assertThat(total("customers")).isEqualTo(2);
+        assertThat(signupsPerDay()).containsExactly(
+                Map.entry(DAY1.toLocalDate(), 2L), Map.entry(DAY3.toLocalDate(), 2L));
+        assertThat(drift("users")).isEqualTo(1);
+        assertThat(drift("customers")).isEqualTo(8);
+        assertThat(drift("user_signups_daily")).isEqualTo(11);
+
+        //When: 다시 맞추면 바로잡을 것이 없음
+        reconciler.reconcile();
+
+        //Then
+        assertThat(drift("user_signups_daily")).isEqualTo(11);
+    }
+
+    private long total(String name) {
+        return jdbc.queryForObject("SELECT SUM(total) FROM stat_total_slots WHERE name = ?", Long.class, name);
+    }
+
+    private Map<LocalDate, Long> signupsPerDay() {
+        Map<LocalDate, Long> days = new TreeMap<>();
+        jdbc.query("SELECT signup_date, SUM(signups) FROM user_signups_daily_slots GROUP BY signup_date",
+                (RowCallbackHandler) rs -> days.put(rs.getObject(1, LocalDate.class), rs.getLong(2)));
+        return days;
+    }
+
+    private double drift(String table) {
+        return meterRegistry.counter("stats.reconcile.drift", "table", table).count();
+    }
+}
@@ -0,0 +1,170 @@
+package com.basic.myspringboot.stats;
+
+import com.basic.myspringboot.entity.User;
+import com.basic.myspringboot.property.StatisticsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 메모리 DB에서 users 행과 같은 트랜잭션으로 통계를 더하고 빼는지 확인
+ * (JPA 없이 JDBC로 행을 넣고 지우면서 엔티티 리스너/UserService가 하는 것처럼 StatisticsRecorder에 알림)
+ */
+class StatisticsRecorderTest {
+    private static final LocalDateTime DAY1 = LocalDateTime.of(2025, 5, 12, 7, 29, 34);
+    private static final LocalDateTime DAY2 = DAY1.plusDays(1);
+
+    private final DataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:stats-recorder;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    private final StatisticsProperties properties = new StatisticsProperties();
+    private final StatisticsRecorder statisticsRecorder =
+            new StatisticsRecorder(jdbc, noFlushEntityManager(), properties);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatisticsReconciler reconciler =
+            new StatisticsReconciler(jdbc, transactionManager, null, meterRegistry);
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(50), email VARCHAR(100),"
+                + " created_at TIMESTAMP NOT NULL)");
+        jdbc.execute("CREATE INDEX idx_users_created_at ON users (created_at)");
+        jdbc.execute("CREATE TABLE customers (id BIGINT PRIMARY KEY)");
+        jdbc.execute("CREATE TABLE stat_total_slots (name VARCHAR(50), slot INT, total BIGINT NOT NULL,"
+                + " PRIMARY KEY (name, slot))");
+        jdbc.execute("CREATE TABLE user_signups_daily_slots (signup_date DATE, slot INT, signups BIGINT NOT NULL,"
+                + " PRIMARY KEY (signup_date, slot))");
+        // 비어 있는 테이블로 처음 값을 만듦
+        reconciler.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testRollbackDiscardsDeltas() {
+        //Given
+        importUsers(List.of(DAY1));
+
+        //When: 등록 후 롤백된 트랜잭션
+        transactionTemplate.executeWithoutResult(status -> {
+            insertUser(DAY1);
+            insertUser(DAY2);
+            status.setRollbackOnly();
+        });
+
+        //Then: 롤백된 두 건은 통계에도 없고, 다음 트랜잭션은 새로 모음
+        assertThat(total("users")).isEqualTo(1);
+        assertThat(signupsPerDay()).containsExactly(Map.entry(DAY1.toLocalDate(), 1L));
+        importUsers(List.of(DAY2));
+        assertThat(total("users")).isEqualTo(2);
+    }
+
+    @Test
+    void testBulkImportAndBulkDeleteAdjustCounts() {
+        //Given: 한 트랜잭션에 500건 (DAY1 300건, DAY2 200건)
+        List<LocalDateTime> createdAts = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            createdAts.add(i < 300 ? DAY1.plusSeconds(i) : DAY2.plusSeconds(i));
+        }
+        List<Long> ids = importUsers(createdAts);
+
+        //When: 한 트랜잭션에서 DAY1 100건, DAY2 50건 삭제
+        List<Long> deleted = new ArrayList<>(ids.subList(0, 100));
+        deleted.addAll(ids.subList(300, 350));
+        transactionTemplate.executeWithoutResult(status -> deleted.forEach(id -> {
+            LocalDateTime createdAt = jdbc.queryForObject("SELECT created_at FROM users WHERE id = ?",
+                    LocalDateTime.class, id);
+            jdbc.update("DELETE FROM users WHERE id = ?", id);
+            statisticsRecorder.userDeleted(createdAt);
+        }));
+
+        //Then: 세어 둔 값이 실제 테이블과 같아서 맞추기에서 바로잡을 것이 없음
+        assertThat(total("users")).isEqualTo(350);
+        assertThat(signupsPerDay()).containsExactly(
+                Map.entry(DAY1.toLocalDate(), 200L), Map.entry(DAY2.toLocalDate(), 150L));
+        reconciler.reconcile();
+        assertThat(drift("users")).isZero();
+        assertThat(drift("user_signups_daily")).isZero();
+    }
+
+    @Test
+    void testSingleInsertTransactionsSpreadAcrossSlots() {
+        //When: 한 건씩 등록하는 트랜잭션 200개
+        for (int i = 0; i < 200; i++) {
+            importUsers(List.of(DAY1.plusSeconds(i)));
+        }
+
+        //Then: 한 행에 몰리지 않고 slot 수 이하의 행에 나뉘어 쌓이며, 합은 실제 건수와 같음
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM stat_total_slots WHERE name = 'users'", Integer.class))
+                .isBetween(2, properties.getSlots());
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM user_signups_daily_slots", Integer.class))
+                .isBetween(2, properties.getSlots());
+        assertThat(total("users")).isEqualTo(200);
+        assertThat(signupsPerDay()).containsExactly(Map.entry(DAY1.toLocalDate(), 200L));
+        reconciler.reconcile();
+        assertThat(drift("users")).isZero();
+        assertThat(drift("user_signups_daily")).isZero();
+    }
+
+    private List<Long> importUsers(List<LocalDateTime> createdAts) {
+        List<Long> ids = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> createdAts.forEach(createdAt -> ids.add(insertUser(createdAt))));
+        return ids;
+    }
+
+    private long insertUser(LocalDateTime createdAt) {
+        long id = nextId++;
+        jdbc.update("INSERT INTO users (id, name, email, created_at) VALUES (?, ?, ?, ?)",
+                id, "user" + id, "user" + id + "@example.com", createdAt);
+        User user = new User();
+        user.setId(id);
+        user.setCreatedAt(createdAt);
+        statisticsRecorder.userCreated(user);
+        return id;
+    }
+
+    private long total(String name) {
+        return jdbc.queryForObject("SELECT SUM(total) FROM stat_total_slots WHERE name = ?", Long.class, name);
+    }
+
+    private Map<LocalDate, Long> signupsPerDay() {
+        Map<LocalDate, Long> days = new TreeMap<>();
+        jdbc.query("SELECT signup_date, SUM(signups) FROM user_signups_daily_slots GROUP BY signup_date",
+                (RowCallbackHandler) rs -> days.put(rs.getObject(1, LocalDate.class), rs.getLong(2)));
+        return days;
+    }
+
+    private double drift(String table) {
+        return meterRegistry.counter("stats.reconcile.drift", "table", table).count();
+    }
+
+    // beforeCommit의 flush()만 쓰므로 아무것도 하지 않는 EntityManager
+    private static EntityManager noFlushEntityManager() {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, method, args) -> null);
+    }
+}